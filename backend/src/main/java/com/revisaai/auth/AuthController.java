@@ -4,24 +4,35 @@ import com.revisaai.auth.dto.AuthResponse;
 import com.revisaai.auth.dto.ExchangeRequest;
 import com.revisaai.auth.dto.LoginRequest;
 import com.revisaai.auth.dto.RegisterRequest;
+import com.revisaai.auth.dto.SessionResponse;
+import com.revisaai.shared.security.JwtAuthenticationFilter;
+import com.revisaai.shared.security.JwtClaims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
     private final AuthService authService;
+    private final SessionRegistry sessionRegistry;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, SessionRegistry sessionRegistry) {
         this.authService = authService;
+        this.sessionRegistry = sessionRegistry;
     }
 
     @PostMapping("/register")
@@ -52,4 +63,34 @@ public class AuthController {
             HttpServletResponse response) {
         return ResponseEntity.ok(authService.exchangeOAuth2Code(request.code(), response));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE) JwtClaims claims,
+            HttpServletResponse response) {
+        authService.logout(claims, response);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(
+            @RequestAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE) JwtClaims claims,
+            HttpServletResponse response) {
+        authService.logoutEverywhere(claims.userId(), response);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/sessions")
+    public ResponseEntity<List<SessionResponse>> sessions(
+            @RequestAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE) JwtClaims claims) {
+        return ResponseEntity.ok(sessionRegistry.list(claims.userId(), claims.sessionId()));
+    }
+
+    @DeleteMapping("/sessions/{id}")
+    public ResponseEntity<Void> revokeSession(
+            @RequestAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE) JwtClaims claims,
+            @PathVariable String id) {
+        sessionRegistry.revoke(claims.userId(), id);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -4,18 +4,22 @@ import com.revisaai.auth.dto.AuthResponse;
 import com.revisaai.auth.dto.LoginRequest;
 import com.revisaai.auth.dto.RegisterRequest;
 import com.revisaai.auth.oauth2.AuthCode;
-import com.revisaai.auth.oauth2.AuthCodeRepository;
+import com.revisaai.auth.oauth2.AuthCodeStore;
 import com.revisaai.shared.exception.InvalidCredentialsException;
 import com.revisaai.shared.exception.UserAlreadyExistsException;
+import com.revisaai.shared.security.JwtClaims;
 import com.revisaai.shared.security.JwtService;
 import com.revisaai.user.AuthProvider;
 import com.revisaai.user.User;
 import com.revisaai.user.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -24,6 +28,7 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -34,56 +39,83 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
-    private final AuthCodeRepository authCodeRepository;
+    private final AuthCodeStore authCodeStore;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshCoalescer refreshCoalescer;
+    private final SessionRegistry sessionRegistry;
     private final long refreshTokenExpirationMs;
+    private final Duration reuseDetectionWindow;
     private final boolean cookieSecure;
+    private final Counter loginSucceeded;
+    private final Counter loginFailed;
+    private final Counter refreshRotated;
+    private final Counter refreshGrace;
+    private final Counter refreshExpired;
+    private final Counter refreshReused;
+    private final Counter refreshInvalid;
 
     public AuthService(
             UserRepository userRepository,
             RefreshTokenRepository refreshTokenRepository,
-            AuthCodeRepository authCodeRepository,
+            AuthCodeStore authCodeStore,
             JwtService jwtService,
             PasswordEncoder passwordEncoder,
+            RefreshCoalescer refreshCoalescer,
+            SessionRegistry sessionRegistry,
+            MeterRegistry meterRegistry,
             @Value("${app.refresh-token.expiration}") long refreshTokenExpirationMs,
+            @Value("${app.refresh-token.reuse-detection-window:24h}") Duration reuseDetectionWindow,
             @Value("${app.cookie.secure:false}") boolean cookieSecure) {
         this.userRepository = userRepository;
         this.refreshTokenRepository = refreshTokenRepository;
-        this.authCodeRepository = authCodeRepository;
+        this.authCodeStore = authCodeStore;
         this.jwtService = jwtService;
         this.passwordEncoder = passwordEncoder;
+        this.refreshCoalescer = refreshCoalescer;
+        this.sessionRegistry = sessionRegistry;
         this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+        this.reuseDetectionWindow = reuseDetectionWindow;
         this.cookieSecure = cookieSecure;
+        this.loginSucceeded = loginCounter(meterRegistry, "success");
+        this.loginFailed = loginCounter(meterRegistry, "failure");
+        this.refreshRotated = refreshCounter(meterRegistry, "rotated");
+        this.refreshGrace = refreshCounter(meterRegistry, "grace");
+        this.refreshExpired = refreshCounter(meterRegistry, "expired");
+        this.refreshReused = refreshCounter(meterRegistry, "reused");
+        this.refreshInvalid = refreshCounter(meterRegistry, "invalid");
     }
 
     public AuthResponse register(RegisterRequest request, HttpServletResponse response) {
-        if (userRepository.existsByEmail(request.email())) {
-            throw new UserAlreadyExistsException(request.email());
-        }
-
         var user = new User(
                 request.email(),
                 passwordEncoder.encode(request.password()),
                 request.name(),
                 AuthProvider.EMAIL
         );
-        User saved = userRepository.save(user);
+        User saved;
+        try {
+            // o índice único em email decide: sem consulta prévia e sem corrida entre registros
+            saved = userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new UserAlreadyExistsException(request.email());
+        }
         log.info("Novo usuário registrado: {}", saved.getEmail());
 
-        return issueTokens(saved, response);
+        return issueTokens(saved, newFamilyId(), response);
     }
 
     public AuthResponse login(LoginRequest request, HttpServletResponse response) {
-        User user = userRepository.findByEmail(request.email())
-                .orElseThrow(InvalidCredentialsException::new);
+        User user = userRepository.findByEmail(request.email()).orElse(null);
 
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
+        if (user == null || !passwordEncoder.matches(request.password(), user.getPassword())) {
+            loginFailed.increment();
             throw new InvalidCredentialsException();
         }
 
+        loginSucceeded.increment();
         log.info("Login realizado: {}", user.getEmail());
-        return issueTokens(user, response);
+        return issueTokens(user, newFamilyId(), response);
     }
 
     public AuthResponse refresh(HttpServletRequest request, HttpServletResponse response) {
@@ -91,75 +123,202 @@ public class AuthService {
         String refreshTokenValue = extractRefreshTokenFromCookieHeader(rawCookie);
 
         if (refreshTokenValue == null) {
+            refreshInvalid.increment();
             throw new InvalidCredentialsException();
         }
 
-        RefreshToken stored = refreshTokenRepository.findByToken(refreshTokenValue)
-                .orElseThrow(InvalidCredentialsException::new);
+        IssuedTokens issued = refreshCoalescer.coalesce(refreshTokenValue, () -> rotate(refreshTokenValue));
+        setRefreshCookie(response, issued.refreshToken());
+        return issued.response();
+    }
 
-        if (stored.isExpired()) {
-            refreshTokenRepository.deleteByToken(refreshTokenValue);
-            log.warn("Refresh token expirado para userId={}", stored.getUserId());
+    // rotação: consome o token atomicamente; entre requisições concorrentes só uma passa. O caminho
+    // feliz são duas idas ao banco, o consume e o insert do sucessor
+    private IssuedTokens rotate(String refreshTokenValue) {
+        String next = newRefreshToken();
+        var now = Instant.now();
+        var consumed = refreshTokenRepository.consume(refreshTokenValue, next, now, now.plus(reuseDetectionWindow));
+        if (consumed.isEmpty()) {
+            return reissueWithinGracePeriod(refreshTokenValue);
+        }
+
+        var token = consumed.get();
+        String email = emailOf(token);
+        if (email == null) {
+            refreshInvalid.increment();
             throw new InvalidCredentialsException();
         }
 
-        User user = userRepository.findById(stored.getUserId())
-                .orElseThrow(InvalidCredentialsException::new);
+        String familyId = token.getFamilyId() != null ? token.getFamilyId() : newFamilyId();
+        IssuedTokens issued;
+        try {
+            issued = issue(token.getUserId(), email, familyId, token.getSessionStartedAt(), next);
+        } catch (DuplicateKeyException e) {
+            // a sessão foi encerrada entre o consume e o insert, e o encerramento reservou o sucessor
+            refreshInvalid.increment();
+            log.info("Sessão {} encerrada durante a rotação para userId={}", familyId, token.getUserId());
+            throw new InvalidCredentialsException();
+        }
 
-        // rotação: invalida o antigo, emite novo
-        refreshTokenRepository.deleteByToken(refreshTokenValue);
-        log.info("Refresh token rotacionado para userId={}", user.getId());
+        refreshRotated.increment();
+        log.info("Refresh token rotacionado para userId={}", token.getUserId());
+        return issued;
+    }
 
-        return issueTokens(user, response);
+    // tokens emitidos antes de o e-mail ir para o documento ainda dependem do cadastro
+    private String emailOf(RefreshToken token) {
+        if (token.getEmail() != null) return token.getEmail();
+        return userRepository.findById(token.getUserId()).map(User::getEmail).orElse(null);
     }
 
-    public AuthResponse exchangeOAuth2Code(String code, HttpServletResponse response) {
-        AuthCode authCode = authCodeRepository.findByCode(code)
-                .orElseThrow(InvalidCredentialsException::new);
+    /**
+     * Caminho de falha do refresh. Um token rotacionado há pouco (outra aba, outro nó) devolve o
+     * sucessor que já foi emitido, ou é recusado sem revogar nada se o sucessor ainda não está
+     * gravado; fora da janela, reapresentar um token consumido é reuso e revoga a família.
+     * Expirados são apagados e inexistentes apenas recusados.
+     */
+    private IssuedTokens reissueWithinGracePeriod(String refreshTokenValue) {
+        var stored = refreshTokenRepository.findByToken(refreshTokenValue).orElse(null);
+        if (stored == null) {
+            refreshInvalid.increment();
+            throw new InvalidCredentialsException();
+        }
 
-        if (authCode.isExpired()) {
-            authCodeRepository.deleteByCode(code);
-            log.warn("Auth code expirado para userId={}", authCode.getUserId());
+        if (stored.isConsumed() && refreshCoalescer.withinGracePeriod(stored.getConsumedAt())) {
+            var successor = stored.getReplacedBy() == null ? Optional.<RefreshToken>empty()
+                    : refreshTokenRepository.findByToken(stored.getReplacedBy())
+                            .filter(token -> !token.isConsumed() && !token.isExpired());
+            if (successor.isPresent()) {
+                String email = emailOf(stored);
+                if (email == null) throw new InvalidCredentialsException();
+                refreshGrace.increment();
+                log.debug("Refresh concorrente dentro da janela de tolerância para userId={}", stored.getUserId());
+                return new IssuedTokens(accessResponse(stored.getUserId(), email, stored.getFamilyId()),
+                        successor.get().getToken());
+            }
+            // o nó que consumiu ainda não gravou o sucessor (ou ele já foi rotacionado): dentro da
+            // janela isso é corrida entre abas, não reuso, então recusa sem revogar a família
+            refreshInvalid.increment();
+            log.debug("Sucessor indisponível na janela de tolerância para userId={}", stored.getUserId());
             throw new InvalidCredentialsException();
         }
 
+        if (stored.isConsumed()) {
+            refreshReused.increment();
+            log.warn("Reuso de refresh token detectado para userId={}; revogando a família {}",
+                    stored.getUserId(), stored.getFamilyId());
+            if (stored.getFamilyId() != null) {
+                sessionRegistry.revokeSession(stored.getUserId(), stored.getFamilyId());
+            } else {
+                refreshTokenRepository.deleteByToken(refreshTokenValue);
+            }
+        } else if (stored.isExpired()) {
+            refreshExpired.increment();
+            refreshTokenRepository.deleteByToken(refreshTokenValue);
+            log.warn("Refresh token expirado para userId={}", stored.getUserId());
+        } else {
+            refreshInvalid.increment();
+        }
+        throw new InvalidCredentialsException();
+    }
+
+    public AuthResponse exchangeOAuth2Code(String code, HttpServletResponse response) {
+        // remoção atômica: o código vale uma única troca, mesmo com requisições concorrentes
+        AuthCode authCode = authCodeStore.consume(code)
+                .orElseThrow(InvalidCredentialsException::new);
+
         User user = userRepository.findById(authCode.getUserId())
                 .orElseThrow(InvalidCredentialsException::new);
 
-        authCodeRepository.deleteByCode(code);
         log.info("Auth code trocado por JWT para userId={}", user.getId());
 
-        return issueTokens(user, response);
+        return issueTokens(user, newFamilyId(), response);
+    }
+
+    /** Encerra a sessão do token: apaga a família de refresh tokens e revoga seus access tokens. */
+    public void logout(JwtClaims claims, HttpServletResponse response) {
+        sessionRegistry.revokeCurrent(claims);
+        clearRefreshCookie(response);
+        log.info("Logout realizado para userId={}", claims.userId());
     }
 
-    private AuthResponse issueTokens(User user, HttpServletResponse response) {
-        String accessToken = jwtService.generateAccessToken(user.getId(), user.getEmail());
+    /** Encerra todas as sessões do usuário, em todos os dispositivos. */
+    public void logoutEverywhere(String userId, HttpServletResponse response) {
+        sessionRegistry.revokeAll(userId);
+        clearRefreshCookie(response);
+        log.info("Logout em todas as sessões para userId={}", userId);
+    }
+
+    private AuthResponse issueTokens(User user, String familyId, HttpServletResponse response) {
+        IssuedTokens issued = issue(user.getId(), user.getEmail(), familyId, null, newRefreshToken());
+        sessionRegistry.enforceLimit(user.getId());
+        setRefreshCookie(response, issued.refreshToken());
+        return issued.response();
+    }
 
-        String rawRefreshToken = UUID.randomUUID().toString();
+    private IssuedTokens issue(String userId, String email, String familyId, Instant sessionStartedAt,
+                               String rawRefreshToken) {
         var refreshToken = new RefreshToken(
                 rawRefreshToken,
-                user.getId(),
+                userId,
+                email,
+                familyId,
+                sessionStartedAt,
                 Instant.now().plusMillis(refreshTokenExpirationMs)
         );
-        refreshTokenRepository.save(refreshToken);
-
-        setRefreshCookie(response, rawRefreshToken);
+        refreshTokenRepository.insert(refreshToken);
+        return new IssuedTokens(accessResponse(userId, email, familyId), rawRefreshToken);
+    }
 
+    private AuthResponse accessResponse(String userId, String email, String familyId) {
+        String accessToken = jwtService.generateAccessToken(userId, email, familyId);
         return new AuthResponse(accessToken, jwtService.getExpirationMs());
     }
 
+    private static String newRefreshToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    private static String newFamilyId() {
+        return UUID.randomUUID().toString();
+    }
+
     private void setRefreshCookie(HttpServletResponse response, String token) {
+        writeRefreshCookie(response, token, Duration.ofMillis(refreshTokenExpirationMs));
+    }
+
+    private void clearRefreshCookie(HttpServletResponse response) {
+        writeRefreshCookie(response, "", Duration.ZERO);
+    }
+
+    private void writeRefreshCookie(HttpServletResponse response, String token, Duration maxAge) {
         ResponseCookie cookie = ResponseCookie.from(REFRESH_COOKIE_NAME, token)
                 .httpOnly(true)
                 .secure(cookieSecure)
                 .path("/auth/refresh")
-                .maxAge(Duration.ofMillis(refreshTokenExpirationMs))
+                .maxAge(maxAge)
                 .sameSite("Lax")
                 .build();
         response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
     }
 
-    private String extractRefreshTokenFromCookieHeader(String cookieHeader) {
+    private static Counter loginCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.login")
+                .description("Logins com e-mail e senha por resultado")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // grace: sucessor devolvido a um refresh concorrente; reused: token consumido reapresentado
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.refresh")
+                .description("Refreshes por resultado")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /** Valor do cookie de refresh no cabeçalho {@code Cookie}, ou {@code null}. */
+    public static String extractRefreshTokenFromCookieHeader(String cookieHeader) {
         if (cookieHeader == null) return null;
         return Arrays.stream(cookieHeader.split(";"))
                 .map(String::trim)
@@ -0,0 +1,6 @@
+package com.revisaai.auth;
+
+import com.revisaai.auth.dto.AuthResponse;
+
+/** Par emitido numa rotação: o corpo da resposta e o refresh token que vai no cookie. */
+record IssuedTokens(AuthResponse response, String refreshToken) {}
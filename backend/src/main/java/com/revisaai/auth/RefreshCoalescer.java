@@ -0,0 +1,95 @@
+package com.revisaai.auth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Colapsa refreshes concorrentes do mesmo token em uma única rotação.
+ *
+ * <p>Várias abas abertas renovam a sessão quase ao mesmo tempo com o mesmo cookie. A primeira
+ * requisição rotaciona; as outras, até {@code app.refresh-token.grace-period} depois, recebem o
+ * mesmo par recém-emitido em vez de 401. O mapa é local ao nó; entre nós, o AuthService cai no
+ * {@code replacedBy} gravado no token consumido.
+ */
+@Component
+class RefreshCoalescer {
+
+    private static final long PURGE_INTERVAL_MS = 1_000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong();
+    private final Duration gracePeriod;
+    private final Clock clock;
+
+    @Autowired
+    RefreshCoalescer(@Value("${app.refresh-token.grace-period:10s}") Duration gracePeriod) {
+        this(gracePeriod, Clock.systemUTC());
+    }
+
+    RefreshCoalescer(Duration gracePeriod, Clock clock) {
+        this.gracePeriod = gracePeriod;
+        this.clock = clock;
+    }
+
+    /**
+     * Executa {@code rotation} se nenhuma rotação deste token está em andamento ou terminou dentro
+     * da janela; do contrário espera e devolve o resultado dela, inclusive a mesma exceção.
+     */
+    IssuedTokens coalesce(String token, Supplier<IssuedTokens> rotation) {
+        var now = clock.instant();
+        purgeExpired(now);
+
+        var mine = new Entry(new CompletableFuture<>(), now.plus(gracePeriod));
+        var entry = entries.compute(token, (key, existing) ->
+                existing != null && existing.expiresAt().isAfter(now) ? existing : mine);
+        if (entry != mine) return await(entry.result());
+
+        try {
+            var issued = rotation.get();
+            mine.result().complete(issued);
+            return issued;
+        } catch (RuntimeException e) {
+            entries.remove(token, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** Se um token consumido em {@code consumedAt} ainda está dentro da janela de tolerância. */
+    boolean withinGracePeriod(Instant consumedAt) {
+        return consumedAt != null && consumedAt.plus(gracePeriod).isAfter(clock.instant());
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static IssuedTokens await(CompletableFuture<IssuedTokens> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private void purgeExpired(Instant now) {
+        long last = lastPurge.get();
+        long nowMs = now.toEpochMilli();
+        if (nowMs - last < PURGE_INTERVAL_MS || !lastPurge.compareAndSet(last, nowMs)) return;
+        entries.values().removeIf(entry -> entry.result().isDone() && !entry.expiresAt().isAfter(now));
+    }
+
+    private record Entry(CompletableFuture<IssuedTokens> result, Instant expiresAt) {}
+}
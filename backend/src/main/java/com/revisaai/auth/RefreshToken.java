@@ -1,12 +1,23 @@
 package com.revisaai.auth;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
+/**
+ * Refresh token de uso único. Cada rotação marca o token como consumido em vez de apagá-lo e
+ * emite o próximo na mesma família (a cadeia que começou em um login). Apresentar de novo um
+ * token já consumido indica que ele vazou, e a família inteira é revogada.
+ *
+ * <p>Cada família é uma sessão do usuário; o token não consumido dela é o que a representa
+ * (ver {@link SessionRegistry}). O índice {@code (userId, createdAt)} atende a listagem das
+ * sessões, o limite por usuário e a revogação de todas elas.
+ */
 @Document(collection = "refresh_tokens")
+@CompoundIndex(name = "userId_createdAt", def = "{'userId': 1, 'createdAt': 1}")
 public class RefreshToken {
 
     @Id
@@ -17,27 +28,70 @@ public class RefreshToken {
 
     private String userId;
 
+    // copiado do usuário na emissão: a rotação monta o access token sem consultar users
+    private String email;
+
+    @Indexed
+    private String familyId;
+
     @Indexed(expireAfterSeconds = 0)
     private Instant expiresAt;
 
     private Instant createdAt;
 
+    private Instant sessionStartedAt;
+
+    private Instant consumedAt;
+
+    private String replacedBy;
+
     public RefreshToken() {}
 
-    public RefreshToken(String token, String userId, Instant expiresAt) {
+    public RefreshToken(String token, String userId, String familyId, Instant expiresAt) {
+        this(token, userId, familyId, null, expiresAt);
+    }
+
+    public RefreshToken(String token, String userId, String familyId, Instant sessionStartedAt, Instant expiresAt) {
+        this(token, userId, null, familyId, sessionStartedAt, expiresAt);
+    }
+
+    public RefreshToken(String token, String userId, String email, String familyId,
+                        Instant sessionStartedAt, Instant expiresAt) {
         this.token = token;
         this.userId = userId;
+        this.email = email;
+        this.familyId = familyId;
         this.expiresAt = expiresAt;
         this.createdAt = Instant.now();
+        this.sessionStartedAt = sessionStartedAt != null ? sessionStartedAt : createdAt;
+    }
+
+    /**
+     * Reserva o valor {@code token} já consumido, sem usuário nem família: o índice único em
+     * {@code token} faz falhar a gravação de um sucessor com esse valor.
+     */
+    static RefreshToken tombstone(String token, Instant now, Instant expiresAt) {
+        var tombstone = new RefreshToken(token, null, null, now, expiresAt);
+        tombstone.consumedAt = now;
+        return tombstone;
     }
 
     public String getId() { return id; }
     public String getToken() { return token; }
     public String getUserId() { return userId; }
+    public String getEmail() { return email; }
+    public String getFamilyId() { return familyId; }
     public Instant getExpiresAt() { return expiresAt; }
     public Instant getCreatedAt() { return createdAt; }
+    public Instant getSessionStartedAt() { return sessionStartedAt != null ? sessionStartedAt : createdAt; }
+    public Instant getConsumedAt() { return consumedAt; }
+    public String getReplacedBy() { return replacedBy; }
 
     public boolean isExpired() {
         return Instant.now().isAfter(expiresAt);
     }
+
+    public boolean isConsumed() {
+        return consumedAt != null;
+    }
 }
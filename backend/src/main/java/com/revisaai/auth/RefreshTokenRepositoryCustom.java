@@ -0,0 +1,38 @@
+package com.revisaai.auth;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface RefreshTokenRepositoryCustom {
+
+    /**
+     * Marca o token como consumido e substituído por {@code replacedBy} numa única operação
+     * atômica, se ele ainda não foi consumido e não expirou. O token consumido fica guardado até
+     * {@code retainUntil} (ou até expirar, se antes) para detectar reuso. Retorna o token como
+     * estava antes, ou vazio se outra requisição já o consumiu, se expirou ou se não existe.
+     */
+    Optional<RefreshToken> consume(String token, String replacedBy, Instant now, Instant retainUntil);
+
+    /** Token vivo de cada sessão ativa do usuário, da usada mais recentemente para a mais antiga. */
+    List<RefreshToken> findActiveSessions(String userId, Instant now);
+
+    /**
+     * Encerra as sessões do usuário além das {@code keep} usadas mais recentemente. Cada sessão é
+     * reivindicada removendo o token vivo dela numa operação atômica, então logins concorrentes
+     * nunca encerram a mesma sessão duas vezes. Retorna os ids (familyId) encerrados; tokens sem
+     * família, emitidos antes delas, são apagados sozinhos e não entram no retorno.
+     */
+    List<String> evictSessionsBeyond(String userId, int keep, Instant now);
+
+    /**
+     * Apaga a família {@code familyId} de {@code userId} e retorna quantos tokens foram apagados.
+     * Uma rotação que já consumiu o último token da família mas ainda não gravou o sucessor não
+     * pode ressuscitar a sessão: o valor do sucessor fica reservado até {@code now} mais uma hora,
+     * e o insert dele falha com {@link org.springframework.dao.DuplicateKeyException}.
+     */
+    long revokeFamily(String userId, String familyId, Instant now);
+
+    /** Apaga todos os refresh tokens do usuário, com a mesma proteção de {@link #revokeFamily}. */
+    void revokeAllFamilies(String userId, Instant now);
+}
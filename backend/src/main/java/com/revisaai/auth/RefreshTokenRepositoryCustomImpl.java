@@ -0,0 +1,123 @@
+package com.revisaai.auth;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+class RefreshTokenRepositoryCustomImpl implements RefreshTokenRepositoryCustom {
+
+    // a reserva só precisa durar mais que o intervalo entre o consume e o insert de uma rotação
+    private static final Duration SUCCESSOR_RESERVATION = Duration.ofHours(1);
+
+    private final MongoTemplate mongoTemplate;
+
+    RefreshTokenRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<RefreshToken> consume(String token, String replacedBy, Instant now, Instant retainUntil) {
+        var consumed = mongoTemplate.findAndModify(
+                query(where("token").is(token).and("consumedAt").is(null).and("expiresAt").gt(now)),
+                new Update().set("consumedAt", now).set("replacedBy", replacedBy).min("expiresAt", retainUntil),
+                FindAndModifyOptions.options().returnNew(false),
+                RefreshToken.class);
+        return Optional.ofNullable(consumed);
+    }
+
+    @Override
+    public List<RefreshToken> findActiveSessions(String userId, Instant now) {
+        return mongoTemplate.find(activeSessions(userId, now), RefreshToken.class);
+    }
+
+    @Override
+    public List<String> evictSessionsBeyond(String userId, int keep, Instant now) {
+        var excess = mongoTemplate.find(activeSessions(userId, now).skip(keep), RefreshToken.class);
+        var evicted = new ArrayList<String>(excess.size());
+        for (var session : excess) {
+            var claimed = mongoTemplate.findAndRemove(
+                    query(where("_id").is(session.getId()).and("consumedAt").is(null)), RefreshToken.class);
+            if (claimed == null) continue; // rotacionada ou encerrada por outra requisição
+            // token anterior às famílias: é a sessão inteira e não há sid a revogar
+            if (claimed.getFamilyId() == null) continue;
+            mongoTemplate.remove(query(where("familyId").is(claimed.getFamilyId())), RefreshToken.class);
+            evicted.add(claimed.getFamilyId());
+        }
+        return evicted;
+    }
+
+    @Override
+    public long revokeFamily(String userId, String familyId, Instant now) {
+        long removed = 0;
+        // sem o token vivo nenhuma rotação nova começa na família
+        var live = mongoTemplate.findAndRemove(
+                query(family(userId, familyId).and("consumedAt").is(null)), RefreshToken.class);
+        if (live != null) {
+            removed++;
+        } else {
+            // sem token vivo, uma rotação pode ter consumido o último e ainda não ter gravado o sucessor
+            var last = mongoTemplate.findAndRemove(
+                    query(family(userId, familyId).and("consumedAt").ne(null))
+                            .with(Sort.by(Sort.Direction.DESC, "consumedAt")),
+                    RefreshToken.class);
+            if (last != null) {
+                removed++;
+                if (last.getReplacedBy() != null) removed += reserveSuccessor(last.getReplacedBy(), now);
+            }
+        }
+        return removed + mongoTemplate.remove(query(family(userId, familyId)), RefreshToken.class).getDeletedCount();
+    }
+
+    @Override
+    public void revokeAllFamilies(String userId, Instant now) {
+        var families = mongoTemplate.findDistinct(
+                query(where("userId").is(userId).and("familyId").ne(null)), "familyId", RefreshToken.class, String.class);
+        for (var familyId : families) {
+            revokeFamily(userId, familyId, now);
+        }
+        mongoTemplate.remove(query(where("userId").is(userId)), RefreshToken.class);
+    }
+
+    /**
+     * Grava a reserva do sucessor. Se ele já foi gravado, é apagado no lugar; se nesse meio-tempo
+     * também foi rotacionado, a reserva passa para o sucessor dele. Retorna os tokens apagados.
+     */
+    private long reserveSuccessor(String successor, Instant now) {
+        long removed = 0;
+        for (var token = successor; token != null; ) {
+            try {
+                mongoTemplate.insert(RefreshToken.tombstone(token, now, now.plus(SUCCESSOR_RESERVATION)));
+                return removed;
+            } catch (DuplicateKeyException e) {
+                var stored = mongoTemplate.findAndRemove(query(where("token").is(token)), RefreshToken.class);
+                if (stored == null) continue; // apagado entre o insert e a remoção: tenta reservar de novo
+                removed++;
+                token = stored.getReplacedBy();
+            }
+        }
+        return removed;
+    }
+
+    private static Criteria family(String userId, String familyId) {
+        return where("userId").is(userId).and("familyId").is(familyId);
+    }
+
+    // userId + sort por createdAt usam o índice composto; consumedAt/expiresAt filtram só os docs do usuário
+    private static Query activeSessions(String userId, Instant now) {
+        return query(where("userId").is(userId).and("consumedAt").is(null).and("expiresAt").gt(now))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+}
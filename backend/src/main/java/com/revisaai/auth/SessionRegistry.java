@@ -0,0 +1,93 @@
+package com.revisaai.auth;
+
+import com.revisaai.auth.dto.SessionResponse;
+import com.revisaai.shared.exception.SessionNotFoundException;
+import com.revisaai.shared.security.JwtClaims;
+import com.revisaai.shared.security.TokenDenylist;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sessões do usuário: cada família de refresh tokens é uma sessão (um dispositivo), e o
+ * {@code sid} dos access tokens aponta para ela. Encerrar uma sessão apaga a família e revoga
+ * pelo {@code sid} os access tokens ainda válidos dela.
+ *
+ * <p>Cada usuário tem no máximo {@code app.security.sessions.max-per-user} sessões ativas; um
+ * login além do limite encerra as usadas há mais tempo.
+ */
+@Component
+public class SessionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionRegistry.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenDenylist tokenDenylist;
+    private final int maxSessionsPerUser;
+
+    public SessionRegistry(
+            RefreshTokenRepository refreshTokenRepository,
+            TokenDenylist tokenDenylist,
+            @Value("${app.security.sessions.max-per-user:10}") int maxSessionsPerUser) {
+        if (maxSessionsPerUser < 1) {
+            throw new IllegalArgumentException("app.security.sessions.max-per-user deve ser ao menos 1");
+        }
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenDenylist = tokenDenylist;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+    }
+
+    /** Encerra as sessões que excedem o limite, chamado depois de abrir uma sessão nova. */
+    public void enforceLimit(String userId) {
+        var evicted = refreshTokenRepository.evictSessionsBeyond(userId, maxSessionsPerUser, Instant.now());
+        for (var sessionId : evicted) {
+            tokenDenylist.revokeSession(userId, sessionId);
+        }
+        if (!evicted.isEmpty()) {
+            log.info("{} sessão(ões) antiga(s) encerrada(s) por limite para userId={}", evicted.size(), userId);
+        }
+    }
+
+    public List<SessionResponse> list(String userId, String currentSessionId) {
+        return refreshTokenRepository.findActiveSessions(userId, Instant.now()).stream()
+                .map(token -> new SessionResponse(
+                        token.getFamilyId(),
+                        token.getSessionStartedAt(),
+                        token.getCreatedAt(),
+                        token.getExpiresAt(),
+                        token.getFamilyId() != null && token.getFamilyId().equals(currentSessionId)))
+                .toList();
+    }
+
+    public void revoke(String userId, String sessionId) {
+        // o filtro por userId impede encerrar a sessão de outro usuário
+        if (refreshTokenRepository.revokeFamily(userId, sessionId, Instant.now()) == 0) {
+            throw new SessionNotFoundException(sessionId);
+        }
+        tokenDenylist.revokeSession(userId, sessionId);
+    }
+
+    /** Encerra a sessão do token apresentado; tokens sem {@code sid} são revogados pelo {@code jti}. */
+    public void revokeCurrent(JwtClaims claims) {
+        if (claims.sessionId() == null) {
+            tokenDenylist.revokeToken(claims);
+            return;
+        }
+        revokeSession(claims.userId(), claims.sessionId());
+    }
+
+    /** Encerra a sessão sem checar se ela existe, como no reuso de um refresh token já consumido. */
+    public void revokeSession(String userId, String sessionId) {
+        refreshTokenRepository.revokeFamily(userId, sessionId, Instant.now());
+        tokenDenylist.revokeSession(userId, sessionId);
+    }
+
+    public void revokeAll(String userId) {
+        tokenDenylist.revokeUser(userId);
+        refreshTokenRepository.revokeAllFamilies(userId, Instant.now());
+    }
+}
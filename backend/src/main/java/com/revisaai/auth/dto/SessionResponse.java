@@ -0,0 +1,11 @@
+package com.revisaai.auth.dto;
+
+import java.time.Instant;
+
+public record SessionResponse(
+        String id,
+        Instant startedAt,
+        Instant lastUsedAt,
+        Instant expiresAt,
+        boolean current
+) {}
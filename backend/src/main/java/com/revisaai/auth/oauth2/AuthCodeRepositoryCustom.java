@@ -0,0 +1,10 @@
+package com.revisaai.auth.oauth2;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface AuthCodeRepositoryCustom {
+
+    /** Apaga e devolve o código numa única operação, se ele ainda não expirou em {@code now}. */
+    Optional<AuthCode> consume(String code, Instant now);
+}
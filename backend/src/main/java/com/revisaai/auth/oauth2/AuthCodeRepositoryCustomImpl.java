@@ -0,0 +1,27 @@
+package com.revisaai.auth.oauth2;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+class AuthCodeRepositoryCustomImpl implements AuthCodeRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    AuthCodeRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<AuthCode> consume(String code, Instant now) {
+        // o monitor de TTL roda a cada minuto: um código vencido ainda pode estar na coleção
+        var authCode = mongoTemplate.findAndRemove(
+                query(where("code").is(code).and("expiresAt").gt(now)),
+                AuthCode.class);
+        return Optional.ofNullable(authCode);
+    }
+}
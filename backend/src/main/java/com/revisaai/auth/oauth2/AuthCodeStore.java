@@ -0,0 +1,21 @@
+package com.revisaai.auth.oauth2;
+
+import java.util.Optional;
+
+/**
+ * Armazena os códigos de uso único que o frontend troca por JWT depois do login OAuth2.
+ *
+ * <p>A implementação é escolhida por {@code app.oauth2.auth-code-store}: {@code mongo} (padrão,
+ * vários nós atrás de um balanceador, quando o callback do Google e a troca do código podem cair
+ * em instâncias diferentes) ou {@code memory} (opção explícita para um único nó).
+ */
+public interface AuthCodeStore {
+
+    void save(AuthCode authCode);
+
+    /**
+     * Remove o código e o devolve numa única operação atômica, se ele existe e não expirou.
+     * Duas trocas concorrentes do mesmo código nunca recebem ambas o resultado.
+     */
+    Optional<AuthCode> consume(String code);
+}
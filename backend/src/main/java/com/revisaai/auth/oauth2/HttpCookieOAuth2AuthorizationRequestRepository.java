@@ -0,0 +1,179 @@
+package com.revisaai.auth.oauth2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revisaai.shared.security.SecretBox;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Guarda o {@link OAuth2AuthorizationRequest} num cookie em vez da sessão HTTP, para que o
+ * callback do Google possa cair em qualquer réplica.
+ *
+ * <p>O conteúdo vai cifrado com AES-256-GCM, o que garante sigilo (o {@code code_verifier} do PKCE
+ * e o nonce do OIDC não ficam legíveis) e integridade (qualquer alteração invalida o cookie). A
+ * chave é derivada de {@code app.oauth2.cookie-secret}. O cookie carrega o próprio prazo de
+ * validade e só é aceito no callback cujo {@code state} confere.
+ */
+@Component
+public class HttpCookieOAuth2AuthorizationRequestRepository
+        implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpCookieOAuth2AuthorizationRequestRepository.class);
+
+    static final String COOKIE_NAME = "oauth2_auth_request";
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+    private static final String KEY_LABEL = "revisa-ai/oauth2-authorization-request:";
+
+    private final SecretBox box;
+    private final boolean cookieSecure;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @Autowired
+    public HttpCookieOAuth2AuthorizationRequestRepository(
+            @Value("${app.oauth2.cookie-secret}") String secret,
+            @Value("${app.cookie.secure:false}") boolean cookieSecure,
+            ObjectMapper objectMapper) {
+        this(secret, cookieSecure, objectMapper, Clock.systemUTC());
+    }
+
+    HttpCookieOAuth2AuthorizationRequestRepository(
+            String secret, boolean cookieSecure, ObjectMapper objectMapper, Clock clock) {
+        this.box = new SecretBox(secret, KEY_LABEL);
+        this.cookieSecure = cookieSecure;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        String state = request.getParameter(OAuth2ParameterNames.STATE);
+        if (state == null) return null;
+
+        var authorizationRequest = readCookie(request);
+        if (authorizationRequest == null || !state.equals(authorizationRequest.getState())) return null;
+        return authorizationRequest;
+    }
+
+    @Override
+    public void saveAuthorizationRequest(
+            OAuth2AuthorizationRequest authorizationRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            writeCookie(response, "", Duration.ZERO);
+            return;
+        }
+        var payload = new StoredRequest(
+                authorizationRequest.getAuthorizationUri(),
+                authorizationRequest.getClientId(),
+                authorizationRequest.getRedirectUri(),
+                authorizationRequest.getScopes(),
+                authorizationRequest.getState(),
+                authorizationRequest.getAdditionalParameters(),
+                authorizationRequest.getAttributes(),
+                authorizationRequest.getAuthorizationRequestUri(),
+                clock.instant().plus(MAX_AGE).getEpochSecond());
+        writeCookie(response, encrypt(payload), MAX_AGE);
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        var authorizationRequest = loadAuthorizationRequest(request);
+        if (authorizationRequest != null) writeCookie(response, "", Duration.ZERO);
+        return authorizationRequest;
+    }
+
+    private OAuth2AuthorizationRequest readCookie(HttpServletRequest request) {
+        var cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie cookie : cookies) {
+            if (!COOKIE_NAME.equals(cookie.getName())) continue;
+            var stored = decrypt(cookie.getValue());
+            if (stored == null || stored.expiresAt() < clock.instant().getEpochSecond()) return null;
+            return stored.toAuthorizationRequest();
+        }
+        return null;
+    }
+
+    private void writeCookie(HttpServletResponse response, String value, Duration maxAge) {
+        // Lax: o retorno do Google é uma navegação de topo (GET), que ainda leva o cookie
+        var cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .httpOnly(true)
+                .secure(cookieSecure)
+                .path("/")
+                .maxAge(maxAge)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private String encrypt(StoredRequest payload) {
+        try {
+            var sealed = box.seal(objectMapper.writeValueAsBytes(payload));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(sealed);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao cifrar o cookie de autorização OAuth2", e);
+        }
+    }
+
+    private StoredRequest decrypt(String value) {
+        try {
+            var plain = box.open(Base64.getUrlDecoder().decode(value));
+            return objectMapper.readValue(plain, StoredRequest.class);
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            log.warn("Cookie de autorização OAuth2 inválido: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // só os campos que o OAuth2LoginAuthenticationFilter usa no callback
+    record StoredRequest(
+            String authorizationUri,
+            String clientId,
+            String redirectUri,
+            Set<String> scopes,
+            String state,
+            Map<String, Object> additionalParameters,
+            Map<String, Object> attributes,
+            String authorizationRequestUri,
+            long expiresAt) {
+
+        OAuth2AuthorizationRequest toAuthorizationRequest() {
+            return OAuth2AuthorizationRequest.authorizationCode()
+                    .authorizationUri(authorizationUri)
+                    .clientId(clientId)
+                    .redirectUri(redirectUri)
+                    .scopes(scopes != null ? new LinkedHashSet<>(scopes) : null)
+                    .state(state)
+                    .additionalParameters(additionalParameters != null
+                            ? new LinkedHashMap<>(additionalParameters) : Map.of())
+                    .attributes(attributes != null ? new LinkedHashMap<>(attributes) : Map.of())
+                    .authorizationRequestUri(authorizationRequestUri)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.revisaai.auth.oauth2;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Códigos em memória, sem ida ao banco no callback nem na troca.
+ *
+ * <p>A expiração usa uma roda de tempo: cada código entra no slot do segundo em que vence e uma
+ * thread avança um slot por segundo, descartando só o que está nele — custo proporcional ao que
+ * vence, não ao total guardado. Códigos com prazo além de uma volta da roda voltam ao slot
+ * até vencer. A troca é um {@code remove} atômico no mapa. O estado é local ao nó.
+ */
+@Component
+@ConditionalOnProperty(name = "app.oauth2.auth-code-store", havingValue = "memory")
+class InMemoryAuthCodeStore implements AuthCodeStore, DisposableBean {
+
+    private static final int WHEEL_SLOTS = 128;
+    private static final Duration TICK = Duration.ofSeconds(1);
+
+    private final Map<String, AuthCode> codes = new ConcurrentHashMap<>();
+    private final Queue<AuthCode>[] wheel;
+    private final Clock clock;
+    private final ScheduledExecutorService ticker;
+    private final long startMillis;
+    private volatile long currentTick;
+
+    @Autowired
+    InMemoryAuthCodeStore() {
+        this(Clock.systemUTC(), true);
+    }
+
+    @SuppressWarnings("unchecked")
+    InMemoryAuthCodeStore(Clock clock, boolean startTicker) {
+        this.clock = clock;
+        this.startMillis = clock.millis();
+        this.wheel = new Queue[WHEEL_SLOTS];
+        for (int i = 0; i < WHEEL_SLOTS; i++) wheel[i] = new ConcurrentLinkedQueue<>();
+        if (startTicker) {
+            var threadFactory = new CustomizableThreadFactory("auth-code-expiry-");
+            threadFactory.setDaemon(true);
+            this.ticker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            ticker.scheduleAtFixedRate(this::advance, TICK.toMillis(), TICK.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.ticker = null;
+        }
+    }
+
+    @Override
+    public void save(AuthCode authCode) {
+        codes.put(authCode.getCode(), authCode);
+        schedule(authCode);
+    }
+
+    @Override
+    public Optional<AuthCode> consume(String code) {
+        var authCode = codes.remove(code);
+        if (authCode == null || !authCode.getExpiresAt().isAfter(clock.instant())) return Optional.empty();
+        return Optional.of(authCode);
+    }
+
+    /** Avança a roda até o instante atual, descartando os códigos vencidos dos slots percorridos. */
+    void advance() {
+        long target = tickOf(clock.millis());
+        while (currentTick < target) {
+            long tick = ++currentTick;
+            var slot = wheel[(int) (tick % WHEEL_SLOTS)];
+            var now = clock.instant();
+            for (int pending = slot.size(); pending > 0; pending--) {
+                var authCode = slot.poll();
+                if (authCode == null) break;
+                if (authCode.getExpiresAt().isAfter(now)) {
+                    // prazo além de uma volta da roda: volta para a fila do slot
+                    if (codes.get(authCode.getCode()) == authCode) slot.add(authCode);
+                } else {
+                    codes.remove(authCode.getCode(), authCode);
+                }
+            }
+        }
+    }
+
+    int size() {
+        return codes.size();
+    }
+
+    @Override
+    public void destroy() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+    private void schedule(AuthCode authCode) {
+        long due = tickOf(authCode.getExpiresAt().toEpochMilli()) + 1;
+        // nunca no slot atual, que pode já ter sido percorrido
+        long tick = Math.max(due, currentTick + 1);
+        wheel[(int) (tick % WHEEL_SLOTS)].add(authCode);
+    }
+
+    private long tickOf(long epochMillis) {
+        return Math.max(0, (epochMillis - startMillis) / TICK.toMillis());
+    }
+}
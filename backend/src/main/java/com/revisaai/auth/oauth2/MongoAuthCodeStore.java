@@ -0,0 +1,29 @@
+package com.revisaai.auth.oauth2;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/** Códigos compartilhados entre nós via MongoDB, com expiração pelo índice TTL de {@code expiresAt}. */
+@Component
+@ConditionalOnProperty(name = "app.oauth2.auth-code-store", havingValue = "mongo", matchIfMissing = true)
+class MongoAuthCodeStore implements AuthCodeStore {
+
+    private final AuthCodeRepository repository;
+
+    MongoAuthCodeStore(AuthCodeRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void save(AuthCode authCode) {
+        repository.insert(authCode);
+    }
+
+    @Override
+    public Optional<AuthCode> consume(String code) {
+        return repository.consume(code, Instant.now());
+    }
+}
@@ -18,13 +18,13 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
 
     private static final Logger log = LoggerFactory.getLogger(OAuth2SuccessHandler.class);
 
-    private final AuthCodeRepository authCodeRepository;
+    private final AuthCodeStore authCodeStore;
     private final String authorizedRedirectUri;
 
     public OAuth2SuccessHandler(
-            AuthCodeRepository authCodeRepository,
+            AuthCodeStore authCodeStore,
             @Value("${app.oauth2.authorized-redirect-uri}") String authorizedRedirectUri) {
-        this.authCodeRepository = authCodeRepository;
+        this.authCodeStore = authCodeStore;
         this.authorizedRedirectUri = authorizedRedirectUri;
     }
 
@@ -38,7 +38,7 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
 
         String code = UUID.randomUUID().toString();
         var authCode = new AuthCode(code, userId, Instant.now().plusSeconds(60));
-        authCodeRepository.save(authCode);
+        authCodeStore.save(authCode);
 
         log.info("Auth code gerado para userId={}", userId);
         response.sendRedirect(authorizedRedirectUri + "?code=" + code);
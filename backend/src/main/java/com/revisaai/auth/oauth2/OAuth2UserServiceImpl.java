@@ -2,9 +2,11 @@ package com.revisaai.auth.oauth2;
 
 import com.revisaai.user.AuthProvider;
 import com.revisaai.user.User;
+import com.revisaai.user.UserChangedEvent;
 import com.revisaai.user.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
@@ -20,9 +22,11 @@ public class OAuth2UserServiceImpl extends DefaultOAuth2UserService {
     private static final Logger log = LoggerFactory.getLogger(OAuth2UserServiceImpl.class);
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public OAuth2UserServiceImpl(UserRepository userRepository) {
+    public OAuth2UserServiceImpl(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -52,27 +56,18 @@ public class OAuth2UserServiceImpl extends DefaultOAuth2UserService {
             );
         }
 
-        User user = userRepository.findByEmail(email)
-                .map(existing -> updateUser(existing, userInfo))
-                .orElseGet(() -> createUser(userInfo));
+        var upsert = userRepository.upsertSocialUser(
+                email, userInfo.getName(), userInfo.getPictureUrl(), AuthProvider.GOOGLE, userInfo.getId());
+        User user = upsert.user();
+        switch (upsert.outcome()) {
+            case CREATED -> log.info("Novo usuário Google registrado: {}", user.getEmail());
+            case UPDATED -> {
+                eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+                log.info("Usuário Google atualizado: {}", user.getEmail());
+            }
+            case UNCHANGED -> log.debug("Login Google sem mudanças no perfil: {}", user.getEmail());
+        }
 
         return new UserPrincipal(user, attributes);
     }
-
-    private User createUser(OAuth2UserInfo userInfo) {
-        var user = new User(userInfo.getEmail(), null, userInfo.getName(), AuthProvider.GOOGLE);
-        user.setPictureUrl(userInfo.getPictureUrl());
-        User saved = userRepository.save(user);
-        log.info("Novo usuário Google registrado: {}", saved.getEmail());
-        return saved;
-    }
-
-    private User updateUser(User existing, OAuth2UserInfo userInfo) {
-        existing.setName(userInfo.getName());
-        existing.setPictureUrl(userInfo.getPictureUrl());
-        existing.setProviderId(userInfo.getId());
-        User saved = userRepository.save(existing);
-        log.info("Usuário Google atualizado: {}", saved.getEmail());
-        return saved;
-    }
 }
@@ -0,0 +1,33 @@
+package com.revisaai.ingestion;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sinal de cancelamento cooperativo de um job: as etapas de download, extração e
+ * processamento consultam o token entre blocos e páginas e interrompem o trabalho.
+ */
+public class CancellationToken {
+
+    public enum Reason {
+        USER_REQUEST,
+        SHUTDOWN,
+        LEASE_LOST
+    }
+
+    private final AtomicReference<Reason> reason = new AtomicReference<>();
+
+    public void cancel(Reason reason) {
+        this.reason.compareAndSet(null, reason);
+    }
+
+    public boolean isCancelled() {
+        return reason.get() != null;
+    }
+
+    public void throwIfCancelled() {
+        var current = reason.get();
+        if (current != null) {
+            throw new IngestionCancelledException(current);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.revisaai.ingestion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reconstrói as linhas de uma página a partir das posições das palavras.
+ *
+ * <p>Provas em duas colunas saem do {@code PDFTextStripper} intercaladas linha a linha.
+ * Aqui a página é agrupada em linhas pela coordenada vertical e, se houver uma calha vertical
+ * livre perto do centro, cada bloco é emitido coluna esquerda primeiro, depois a direita.
+ * A calha sai só do perfil de cobertura horizontal das palavras, então colunas com
+ * entrelinhas diferentes, cujas linhas nunca se alinham, também são separadas.
+ * Linhas que atravessam a calha (títulos, enunciados de largura total) encerram o bloco
+ * corrente e são emitidas no lugar em que aparecem.
+ */
+final class ColumnLayout {
+
+    private static final float GUTTER_SEARCH_FROM = 0.3f;
+    private static final float GUTTER_SEARCH_TO = 0.7f;
+    private static final double MAX_CROSSING_RATIO = 0.2;
+    private static final int MIN_COLUMN_LINES = 3;
+
+    private ColumnLayout() {}
+
+    record Word(String text, float x0, float x1, float y, float height) {}
+
+    static List<CharSequence> arrange(List<Word> words, float pageWidth) {
+        if (words.isEmpty()) return List.of();
+
+        var lines = groupLines(words);
+        int gutter = findGutter(lines, pageWidth);
+        var result = new ArrayList<CharSequence>(lines.size() + 8);
+        if (gutter < 0) {
+            lines.forEach(line -> result.add(join(line, 0, line.size())));
+            return result;
+        }
+
+        var left = new ArrayList<CharSequence>();
+        var right = new ArrayList<CharSequence>();
+        for (var line : lines) {
+            if (crosses(line, gutter)) {
+                flush(result, left, right);
+                result.add(join(line, 0, line.size()));
+                continue;
+            }
+            int split = splitIndex(line, gutter);
+            if (split > 0) left.add(join(line, 0, split));
+            if (split < line.size()) right.add(join(line, split, line.size()));
+        }
+        flush(result, left, right);
+        return result;
+    }
+
+    private static List<List<Word>> groupLines(List<Word> words) {
+        var sorted = new ArrayList<>(words);
+        sorted.sort(Comparator.comparingDouble(Word::y).thenComparingDouble(Word::x0));
+
+        var lines = new ArrayList<List<Word>>();
+        List<Word> current = null;
+        float currentY = 0;
+        float currentHeight = 0;
+        for (var word : sorted) {
+            float tolerance = Math.max(currentHeight, word.height()) * 0.5f;
+            if (current == null || Math.abs(word.y() - currentY) > tolerance) {
+                current = new ArrayList<>();
+                lines.add(current);
+                currentY = word.y();
+                currentHeight = word.height();
+            }
+            current.add(word);
+        }
+        lines.forEach(line -> line.sort(Comparator.comparingDouble(Word::x0)));
+        return lines;
+    }
+
+    /**
+     * Procura, na faixa central do texto da página, a coordenada x atravessada pelo menor número
+     * de linhas. Só é aceita como calha se poucas linhas a atravessam e há texto empilhado dos
+     * dois lados; do contrário a página é tratada como coluna única.
+     */
+    private static int findGutter(List<List<Word>> lines, float pageWidth) {
+        int width = (int) Math.ceil(pageWidth) + 2;
+        var delta = new int[width + 1];
+        int minX = width;
+        int maxX = 0;
+        for (var line : lines) {
+            for (var word : line) {
+                int from = clamp((int) Math.floor(word.x0()), width);
+                int to = clamp((int) Math.ceil(word.x1()), width);
+                delta[from]++;
+                delta[to + 1]--;
+                minX = Math.min(minX, from);
+                maxX = Math.max(maxX, to);
+            }
+        }
+
+        int span = maxX - minX;
+        int from = minX + (int) (span * GUTTER_SEARCH_FROM);
+        int to = minX + (int) (span * GUTTER_SEARCH_TO);
+        int center = minX + span / 2;
+        int best = -1;
+        int bestCoverage = Integer.MAX_VALUE;
+        int coverage = 0;
+        for (int x = 0; x <= to; x++) {
+            coverage += delta[x];
+            if (x < from) continue;
+            if (coverage < bestCoverage
+                    || (coverage == bestCoverage && Math.abs(x - center) < Math.abs(best - center))) {
+                best = x;
+                bestCoverage = coverage;
+            }
+        }
+
+        if (best < 0 || bestCoverage > lines.size() * MAX_CROSSING_RATIO) return -1;
+
+        // só o perfil decide: cada lado da calha precisa de texto empilhado em algumas linhas;
+        // as linhas de uma coluna não precisam estar na mesma altura das da outra
+        int leftPeak = 0;
+        int rightPeak = 0;
+        coverage = 0;
+        for (int x = 0; x <= maxX; x++) {
+            coverage += delta[x];
+            if (x < best) leftPeak = Math.max(leftPeak, coverage);
+            else if (x > best) rightPeak = Math.max(rightPeak, coverage);
+        }
+        return leftPeak >= MIN_COLUMN_LINES && rightPeak >= MIN_COLUMN_LINES ? best : -1;
+    }
+
+    private static boolean crosses(List<Word> line, int gutter) {
+        for (var word : line) {
+            if (word.x0() < gutter && word.x1() > gutter) return true;
+        }
+        return false;
+    }
+
+    // índice da primeira palavra à direita da calha; a linha já está ordenada por x
+    private static int splitIndex(List<Word> line, int gutter) {
+        int index = 0;
+        while (index < line.size() && line.get(index).x1() <= gutter) index++;
+        return index;
+    }
+
+    private static void flush(List<CharSequence> result, List<CharSequence> left, List<CharSequence> right) {
+        result.addAll(left);
+        result.addAll(right);
+        left.clear();
+        right.clear();
+    }
+
+    private static CharSequence join(List<Word> line, int from, int to) {
+        var text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) text.append(' ');
+            text.append(line.get(i).text());
+        }
+        return text;
+    }
+
+    private static int clamp(int x, int width) {
+        return Math.max(0, Math.min(x, width - 1));
+    }
+}
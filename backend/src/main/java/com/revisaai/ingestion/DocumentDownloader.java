@@ -1,10 +1,20 @@
 package com.revisaai.ingestion;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.time.Duration;
 
 @Component
@@ -14,22 +24,148 @@ public class DocumentDownloader {
     private static final Duration TIMEOUT = Duration.ofSeconds(30);
 
     private final WebClient webClient;
+    private final PdfDownloadCache cache;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary networkBytes;
+    private final DistributionSummary cacheBytes;
 
-    public DocumentDownloader(WebClient.Builder webClientBuilder) {
+    public DocumentDownloader(WebClient.Builder webClientBuilder, PdfDownloadCache cache,
+                              MeterRegistry meterRegistry) {
         this.webClient = webClientBuilder.build();
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+        this.networkBytes = bytesSummary(meterRegistry, "network");
+        this.cacheBytes = bytesSummary(meterRegistry, "cache");
     }
 
-    public byte[] download(String url) {
-        log.debug("Baixando PDF via URL: {}", url);
-        var bytes = webClient.get()
+    public byte[] download(String url, CancellationToken token) {
+        var event = new IngestionJfrEvents.DownloadEvent();
+        event.url = url;
+        event.begin();
+        var sample = Timer.start(meterRegistry);
+        var outcome = "error";
+        try {
+            var result = fetch(url, token);
+            outcome = result.source();
+            event.source = result.source();
+            event.bytes = result.body().length;
+            (result.fromCache() ? cacheBytes : networkBytes).record(result.body().length);
+            return result.body();
+        } catch (IngestionCancelledException e) {
+            outcome = "cancelled";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("ingestion.download.duration")
+                    .description("Tempo de download de um PDF, incluindo revalidação do cache")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            event.commit();
+        }
+    }
+
+    private Downloaded fetch(String url, CancellationToken token) {
+        var cached = cache.lookup(url).orElse(null);
+        log.debug("Baixando PDF via URL: {} (em cache: {})", url, cached != null);
+
+        var fetched = webClient.get()
                 .uri(url)
-                .retrieve()
-                .bodyToMono(byte[].class)
+                .headers(headers -> {
+                    if (cached != null) addValidators(headers, cached);
+                })
+                .exchangeToMono(response -> {
+                    var headers = response.headers().asHttpHeaders();
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached != null) {
+                        return response.releaseBody().thenReturn(Fetched.notModified(headers));
+                    }
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return readBody(response.bodyToFlux(DataBuffer.class), token)
+                                .map(body -> Fetched.of(body, headers));
+                    }
+                    return response.createError();
+                })
+                .switchIfEmpty(Mono.error(() ->
+                        new IllegalStateException("Download sem conteúdo para URL: " + url)))
                 .block(TIMEOUT);
 
-        if (bytes == null) {
-            throw new IllegalStateException("Download sem conteúdo para URL: " + url);
+        if (fetched.notModified()) {
+            return readCached(url, cached, fetched, token);
+        }
+
+        cache.store(url, fetched.body(), fetched.etag(), fetched.lastModified());
+        return new Downloaded(fetched.body(), false);
+    }
+
+    // checa o cancelamento a cada bloco recebido, descartando o que já foi lido
+    private Mono<byte[]> readBody(Flux<DataBuffer> body, CancellationToken token) {
+        var checked = body.<DataBuffer>handle((buffer, sink) -> {
+            try {
+                token.throwIfCancelled();
+                sink.next(buffer);
+            } catch (IngestionCancelledException e) {
+                DataBufferUtils.release(buffer);
+                sink.error(e);
+            }
+        });
+        return DataBufferUtils.join(checked).map(buffer -> {
+            try {
+                var bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                return bytes;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        });
+    }
+
+    private Downloaded readCached(String url, PdfDownloadCache.CachedDocument cached, Fetched fetched,
+                              CancellationToken token) {
+        try {
+            byte[] bytes = cache.read(cached);
+            cache.revalidated(cached, fetched.etag(), fetched.lastModified());
+            log.debug("PDF não modificado, servido do cache: {}", url);
+            return new Downloaded(bytes, true);
+        } catch (IOException e) {
+            // entrada removida entre a consulta e a leitura: descarta e baixa de novo sem validadores
+            log.warn("Falha ao ler PDF do cache, baixando novamente: {}", url);
+            cache.invalidate(url);
+            return fetch(url, token);
+        }
+    }
+
+    private void addValidators(HttpHeaders headers, PdfDownloadCache.CachedDocument cached) {
+        if (cached.etag() != null) {
+            headers.setIfNoneMatch(cached.etag());
+        }
+        if (cached.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        }
+    }
+
+    private static DistributionSummary bytesSummary(MeterRegistry meterRegistry, String source) {
+        return DistributionSummary.builder("ingestion.download.bytes")
+                .description("Tamanho dos PDFs obtidos por download")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record Downloaded(byte[] body, boolean fromCache) {
+
+        String source() {
+            return fromCache ? "cache" : "network";
+        }
+    }
+
+    private record Fetched(byte[] body, boolean notModified, String etag, String lastModified) {
+
+        static Fetched of(byte[] body, HttpHeaders headers) {
+            return new Fetched(body, false, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+        }
+
+        static Fetched notModified(HttpHeaders headers) {
+            return new Fetched(null, true, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
         }
-        return bytes;
     }
 }
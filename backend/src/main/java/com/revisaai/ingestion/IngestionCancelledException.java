@@ -0,0 +1,15 @@
+package com.revisaai.ingestion;
+
+public class IngestionCancelledException extends RuntimeException {
+
+    private final CancellationToken.Reason reason;
+
+    public IngestionCancelledException(CancellationToken.Reason reason) {
+        super("Processamento cancelado: " + reason);
+        this.reason = reason;
+    }
+
+    public CancellationToken.Reason getReason() {
+        return reason;
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.security.Principal;
+
 @RestController
 @RequestMapping("/ingestion/jobs")
 public class IngestionController {
@@ -24,11 +26,26 @@ public class IngestionController {
             @RequestParam(required = false) MultipartFile provaArquivo,
             @RequestParam(required = false) String provaUrl,
             @RequestParam(required = false) MultipartFile gabaritoArquivo,
-            @RequestParam(required = false) String gabaritoUrl) {
+            @RequestParam(required = false) String gabaritoUrl,
+            @RequestParam(defaultValue = "INTERACTIVE") IngestionPriority prioridade,
+            Principal principal) {
 
-        var job = ingestionService.process(banca, ano, cargo,
+        var job = ingestionService.submit(principal.getName(), prioridade, banca, ano, cargo,
                 provaArquivo, provaUrl, gabaritoArquivo, gabaritoUrl);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(job);
     }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<IngestionJob> findById(@PathVariable String id, Principal principal) {
+        return ResponseEntity.ok(ingestionService.findById(id, principal.getName()));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<IngestionJob> cancel(@PathVariable String id, Principal principal) {
+        var job = ingestionService.cancel(id, principal.getName());
+        // em PROCESSING o cancelamento foi só pedido; o worker dono interrompe depois
+        var status = job.getStatus() == IngestionStatus.PROCESSING ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(job);
+    }
 }
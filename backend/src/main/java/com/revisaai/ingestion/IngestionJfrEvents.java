@@ -0,0 +1,76 @@
+package com.revisaai.ingestion;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Eventos do JDK Flight Recorder para as etapas da ingestão. Emitidos na thread do worker,
+ * permitem cruzar uma etapa lenta com GC, alocação e bloqueios na mesma gravação.
+ * Custo desprezível quando nenhuma gravação está ativa.
+ */
+final class IngestionJfrEvents {
+
+    private IngestionJfrEvents() {}
+
+    @Name("com.revisaai.ingestion.Job")
+    @Label("Ingestion Job")
+    @Category({"Revisa AI", "Ingestion"})
+    @Description("Processamento completo de um IngestionJob")
+    @StackTrace(false)
+    static final class JobEvent extends Event {
+        @Label("Job Id")
+        String jobId;
+
+        @Label("Status")
+        String status;
+    }
+
+    @Name("com.revisaai.ingestion.Download")
+    @Label("Ingestion Download")
+    @Category({"Revisa AI", "Ingestion"})
+    @Description("Download de um PDF de prova ou gabarito")
+    @StackTrace(false)
+    static final class DownloadEvent extends Event {
+        @Label("URL")
+        String url;
+
+        @Label("Source")
+        String source;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.revisaai.ingestion.Extraction")
+    @Label("Ingestion Extraction")
+    @Category({"Revisa AI", "Ingestion"})
+    @Description("Extração de texto de um PDF")
+    @StackTrace(false)
+    static final class ExtractionEvent extends Event {
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Pages")
+        int pages;
+    }
+
+    @Name("com.revisaai.ingestion.Persistence")
+    @Label("Ingestion Persistence")
+    @Category({"Revisa AI", "Ingestion"})
+    @Description("Gravação do resultado do job no MongoDB")
+    @StackTrace(false)
+    static final class PersistenceEvent extends Event {
+        @Label("Job Id")
+        String jobId;
+
+        @Label("Status")
+        String status;
+    }
+}
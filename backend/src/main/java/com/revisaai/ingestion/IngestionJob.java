@@ -4,6 +4,7 @@ import com.revisaai.question.Banca;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -18,12 +19,27 @@ public class IngestionJob {
     private Integer ano;
     private String cargo;
 
+    private String provaUrl;
+    private String gabaritoUrl;
+    private String provaUploadId;
+    private String gabaritoUploadId;
+
+    private String submittedBy;
+    private IngestionPriority priority;
+
     private String textProva;
     private String textGabarito;
 
+    @Indexed
     private IngestionStatus status;
     private String errorMessage;
 
+    // lease do job em PROCESSING: nó que o executa e último sinal de vida dele
+    private String claimedBy;
+    private Instant heartbeatAt;
+    // pedido de cancelamento de um job em PROCESSING, lido pelo heartbeat do nó dono
+    private Instant cancelRequestedAt;
+
     @CreatedDate
     private Instant createdAt;
 
@@ -43,15 +59,36 @@ public class IngestionJob {
     public Banca getBanca() { return banca; }
     public Integer getAno() { return ano; }
     public String getCargo() { return cargo; }
+    public String getProvaUrl() { return provaUrl; }
+    public String getGabaritoUrl() { return gabaritoUrl; }
+    public String getProvaUploadId() { return provaUploadId; }
+    public String getGabaritoUploadId() { return gabaritoUploadId; }
+    public String getSubmittedBy() { return submittedBy; }
+    public IngestionPriority getPriority() { return priority; }
     public String getTextProva() { return textProva; }
     public String getTextGabarito() { return textGabarito; }
     public IngestionStatus getStatus() { return status; }
     public String getErrorMessage() { return errorMessage; }
+    public String getClaimedBy() { return claimedBy; }
+    public Instant getHeartbeatAt() { return heartbeatAt; }
+    public Instant getCancelRequestedAt() { return cancelRequestedAt; }
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
 
     public void setStatus(IngestionStatus status) { this.status = status; }
+    public void setProvaUrl(String provaUrl) { this.provaUrl = provaUrl; }
+    public void setGabaritoUrl(String gabaritoUrl) { this.gabaritoUrl = gabaritoUrl; }
+    public void setProvaUploadId(String provaUploadId) { this.provaUploadId = provaUploadId; }
+    public void setGabaritoUploadId(String gabaritoUploadId) { this.gabaritoUploadId = gabaritoUploadId; }
+    public void setSubmittedBy(String submittedBy) { this.submittedBy = submittedBy; }
+    public void setPriority(IngestionPriority priority) { this.priority = priority; }
     public void setTextProva(String textProva) { this.textProva = textProva; }
     public void setTextGabarito(String textGabarito) { this.textGabarito = textGabarito; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    /** Devolve o job sem dono, como se nunca tivesse sido reivindicado. */
+    public void releaseClaim() {
+        this.claimedBy = null;
+        this.heartbeatAt = null;
+    }
 }
@@ -0,0 +1,42 @@
+package com.revisaai.ingestion;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Tokens de cancelamento dos jobs em execução neste nó. */
+@Component
+public class IngestionJobRegistry {
+
+    private final ConcurrentHashMap<String, CancellationToken> running = new ConcurrentHashMap<>();
+
+    public CancellationToken register(String jobId) {
+        var token = new CancellationToken();
+        running.put(jobId, token);
+        return token;
+    }
+
+    public void unregister(String jobId) {
+        running.remove(jobId);
+    }
+
+    public boolean cancel(String jobId, CancellationToken.Reason reason) {
+        var token = running.get(jobId);
+        if (token == null) return false;
+        token.cancel(reason);
+        return true;
+    }
+
+    public void cancelAll(CancellationToken.Reason reason) {
+        running.values().forEach(token -> token.cancel(reason));
+    }
+
+    public Set<String> runningIds() {
+        return Set.copyOf(running.keySet());
+    }
+
+    public int size() {
+        return running.size();
+    }
+}
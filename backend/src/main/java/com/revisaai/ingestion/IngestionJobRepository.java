@@ -2,5 +2,9 @@ package com.revisaai.ingestion;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface IngestionJobRepository extends MongoRepository<IngestionJob, String> {
+import java.util.List;
+
+public interface IngestionJobRepository extends MongoRepository<IngestionJob, String>, IngestionJobRepositoryCustom {
+
+    List<IngestionJob> findByStatus(IngestionStatus status);
 }
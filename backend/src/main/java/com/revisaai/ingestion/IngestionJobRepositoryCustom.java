@@ -0,0 +1,48 @@
+package com.revisaai.ingestion;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IngestionJobRepositoryCustom {
+
+    /**
+     * Troca o status do job de {@code expected} para {@code target} numa única operação atômica.
+     * Retorna o job atualizado, ou vazio se ele não estava mais em {@code expected}.
+     */
+    Optional<IngestionJob> compareAndSetStatus(String id, IngestionStatus expected, IngestionStatus target);
+
+    /** Passa o job de PENDING para PROCESSING em nome de {@code nodeId}, com o heartbeat em {@code now}. */
+    Optional<IngestionJob> claim(String id, String nodeId, Instant now);
+
+    /**
+     * Renova o heartbeat dos jobs em PROCESSING que pertencem a {@code nodeId} e retorna quantos
+     * ainda eram dele.
+     */
+    long renewLeases(Collection<String> ids, String nodeId, Instant now);
+
+    /**
+     * Jobs, dentre {@code ids}, que seguem em PROCESSING em nome de {@code nodeId}, só com
+     * {@code id} e {@code cancelRequestedAt} preenchidos.
+     */
+    List<IngestionJob> findClaimed(Collection<String> ids, String nodeId);
+
+    /**
+     * Registra um pedido de cancelamento no job em PROCESSING, para o nó dono interromper no próximo
+     * heartbeat. Retorna o job atualizado, ou vazio se ele não estava em PROCESSING.
+     */
+    Optional<IngestionJob> requestCancel(String id);
+
+    /**
+     * Grava o resultado do job só se ele ainda estiver em PROCESSING em nome de {@code nodeId}.
+     * Retorna false se o lease foi perdido: o job já voltou para a fila ou tem outro dono.
+     */
+    boolean completeClaim(IngestionJob job, String nodeId);
+
+    /**
+     * Devolve para PENDING um job em PROCESSING cujo heartbeat é anterior a {@code heartbeatBefore},
+     * ou vazio se não houver nenhum. Jobs sem heartbeat contam pelo {@code updatedAt}.
+     */
+    Optional<IngestionJob> releaseStale(Instant heartbeatBefore);
+}
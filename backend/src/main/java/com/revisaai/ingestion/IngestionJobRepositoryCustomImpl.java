@@ -0,0 +1,112 @@
+package com.revisaai.ingestion;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+class IngestionJobRepositoryCustomImpl implements IngestionJobRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    IngestionJobRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<IngestionJob> compareAndSetStatus(String id, IngestionStatus expected, IngestionStatus target) {
+        var job = mongoTemplate.findAndModify(
+                query(where("_id").is(id).and("status").is(expected)),
+                new Update().set("status", target).currentDate("updatedAt"),
+                FindAndModifyOptions.options().returnNew(true),
+                IngestionJob.class);
+        return Optional.ofNullable(job);
+    }
+
+    @Override
+    public Optional<IngestionJob> claim(String id, String nodeId, Instant now) {
+        var job = mongoTemplate.findAndModify(
+                query(where("_id").is(id).and("status").is(IngestionStatus.PENDING)),
+                new Update().set("status", IngestionStatus.PROCESSING)
+                        .set("claimedBy", nodeId)
+                        .set("heartbeatAt", now)
+                        .currentDate("updatedAt"),
+                FindAndModifyOptions.options().returnNew(true),
+                IngestionJob.class);
+        return Optional.ofNullable(job);
+    }
+
+    @Override
+    public long renewLeases(Collection<String> ids, String nodeId, Instant now) {
+        if (ids.isEmpty()) return 0;
+        return mongoTemplate.updateMulti(
+                query(where("_id").in(ids).and("status").is(IngestionStatus.PROCESSING).and("claimedBy").is(nodeId)),
+                new Update().set("heartbeatAt", now),
+                IngestionJob.class).getMatchedCount();
+    }
+
+    @Override
+    public List<IngestionJob> findClaimed(Collection<String> ids, String nodeId) {
+        if (ids.isEmpty()) return List.of();
+        var claimed = query(where("_id").in(ids).and("status").is(IngestionStatus.PROCESSING).and("claimedBy").is(nodeId));
+        claimed.fields().include("_id").include("cancelRequestedAt");
+        return mongoTemplate.find(claimed, IngestionJob.class);
+    }
+
+    @Override
+    public Optional<IngestionJob> requestCancel(String id) {
+        var job = mongoTemplate.findAndModify(
+                query(where("_id").is(id).and("status").is(IngestionStatus.PROCESSING)),
+                new Update().currentDate("cancelRequestedAt").currentDate("updatedAt"),
+                FindAndModifyOptions.options().returnNew(true),
+                IngestionJob.class);
+        return Optional.ofNullable(job);
+    }
+
+    @Override
+    public boolean completeClaim(IngestionJob job, String nodeId) {
+        var update = new Update().set("status", job.getStatus()).currentDate("updatedAt");
+        setOrUnset(update, "textProva", job.getTextProva());
+        setOrUnset(update, "textGabarito", job.getTextGabarito());
+        setOrUnset(update, "errorMessage", job.getErrorMessage());
+        if (job.getClaimedBy() == null) {
+            update.unset("claimedBy").unset("heartbeatAt");
+        }
+        return mongoTemplate.updateFirst(
+                query(where("_id").is(job.getId()).and("status").is(IngestionStatus.PROCESSING).and("claimedBy").is(nodeId)),
+                update,
+                IngestionJob.class).getMatchedCount() > 0;
+    }
+
+    private static void setOrUnset(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        } else {
+            update.unset(field);
+        }
+    }
+
+    @Override
+    public Optional<IngestionJob> releaseStale(Instant heartbeatBefore) {
+        var stale = new Criteria().orOperator(
+                where("heartbeatAt").lt(heartbeatBefore),
+                where("heartbeatAt").exists(false).and("updatedAt").lt(heartbeatBefore));
+        var job = mongoTemplate.findAndModify(
+                query(where("status").is(IngestionStatus.PROCESSING).andOperator(stale)),
+                new Update().set("status", IngestionStatus.PENDING)
+                        .unset("claimedBy")
+                        .unset("heartbeatAt")
+                        .currentDate("updatedAt"),
+                FindAndModifyOptions.options().returnNew(true),
+                IngestionJob.class);
+        return Optional.ofNullable(job);
+    }
+}
@@ -0,0 +1,142 @@
+package com.revisaai.ingestion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lease dos jobs em PROCESSING. O nó que reivindica um job grava seu id em {@code claimedBy} e
+ * renova {@code heartbeatAt} a cada {@code heartbeat-interval} enquanto o job roda. Um heartbeat
+ * mais velho que {@code lease.timeout} indica um nó que parou sem devolver o job (kill -9, OOM,
+ * drenagem estourada); a varredura o devolve para PENDING, e quem o reprocessar libera os uploads.
+ * Se um nó pausado (GC, rede) volta depois de perder o lease, a renovação detecta a perda e
+ * cancela o token local, e a gravação final condicional descarta o resultado dele. Pedidos de
+ * cancelamento feitos em outra réplica chegam pelo mesmo heartbeat.
+ */
+@Component
+public class IngestionLease implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionLease.class);
+
+    private final IngestionJobRepository repository;
+    private final IngestionJobRegistry registry;
+    private final Duration timeout;
+    private final Duration heartbeatInterval;
+    private final Clock clock;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService heartbeat;
+
+    @Autowired
+    public IngestionLease(
+            IngestionJobRepository repository,
+            IngestionJobRegistry registry,
+            @Value("${app.ingestion.lease.timeout:2m}") Duration timeout,
+            @Value("${app.ingestion.lease.heartbeat-interval:30s}") Duration heartbeatInterval) {
+        this(repository, registry, timeout, heartbeatInterval, Clock.systemUTC());
+    }
+
+    IngestionLease(IngestionJobRepository repository, IngestionJobRegistry registry,
+                   Duration timeout, Duration heartbeatInterval, Clock clock) {
+        if (heartbeatInterval.compareTo(timeout) >= 0) {
+            throw new IllegalArgumentException("app.ingestion.lease.heartbeat-interval deve ser menor que o timeout");
+        }
+        this.repository = repository;
+        this.registry = registry;
+        this.timeout = timeout;
+        this.heartbeatInterval = heartbeatInterval;
+        this.clock = clock;
+    }
+
+    public Optional<IngestionJob> claim(String jobId) {
+        var claimed = repository.claim(jobId, nodeId, clock.instant());
+        claimed.ifPresent(job -> held.add(jobId));
+        return claimed;
+    }
+
+    /**
+     * Grava o resultado de um job reivindicado por este nó e encerra o lease dele. Retorna false
+     * se o lease já tinha sido perdido; nesse caso nada é gravado.
+     */
+    public boolean complete(IngestionJob job) {
+        try {
+            return repository.completeClaim(job, nodeId);
+        } finally {
+            held.remove(job.getId());
+        }
+    }
+
+    /** Devolve para PENDING todos os jobs cujo dono parou de renovar o lease. */
+    public List<IngestionJob> releaseStale() {
+        var cutoff = clock.instant().minus(timeout);
+        var released = new ArrayList<IngestionJob>();
+        for (var job = repository.releaseStale(cutoff); job.isPresent(); job = repository.releaseStale(cutoff)) {
+            released.add(job.get());
+        }
+        return released;
+    }
+
+    /**
+     * Renova o heartbeat dos jobs deste nó e relê o estado deles: os que não são mais do nó têm o
+     * token cancelado com LEASE_LOST, e os que receberam pedido de cancelamento em outra réplica,
+     * com USER_REQUEST.
+     */
+    void renew() {
+        var ids = Set.copyOf(held);
+        if (ids.isEmpty()) return;
+        repository.renewLeases(ids, nodeId, clock.instant());
+
+        var claimed = repository.findClaimed(ids, nodeId).stream()
+                .collect(Collectors.toMap(IngestionJob::getId, Function.identity()));
+        for (var jobId : ids) {
+            var job = claimed.get(jobId);
+            // o job pode ter terminado entre a cópia e a consulta
+            if (job == null && held.contains(jobId)) {
+                log.warn("Lease do IngestionJob {} perdido para outro nó; interrompendo o processamento local", jobId);
+                registry.cancel(jobId, CancellationToken.Reason.LEASE_LOST);
+            } else if (job != null && job.getCancelRequestedAt() != null) {
+                log.info("Cancelamento do IngestionJob {} pedido em {}; interrompendo", jobId, job.getCancelRequestedAt());
+                registry.cancel(jobId, CancellationToken.Reason.USER_REQUEST);
+            }
+        }
+    }
+
+    /** Inicia o heartbeat dos jobs deste nó, rodando {@code sweep} a cada renovação. */
+    public synchronized void start(Runnable sweep) {
+        if (heartbeat != null) return;
+        var threadFactory = new CustomizableThreadFactory("ingestion-lease-");
+        threadFactory.setDaemon(true);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        heartbeat.scheduleWithFixedDelay(() -> {
+            try {
+                renew();
+                sweep.run();
+            } catch (RuntimeException e) {
+                log.warn("Falha ao renovar leases de ingestão: {}", e.getMessage());
+            }
+        }, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (heartbeat != null) heartbeat.shutdownNow();
+    }
+}
@@ -0,0 +1,6 @@
+package com.revisaai.ingestion;
+
+public enum IngestionPriority {
+    INTERACTIVE,
+    BULK
+}
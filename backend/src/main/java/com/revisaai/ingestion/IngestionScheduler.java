@@ -0,0 +1,296 @@
+package com.revisaai.ingestion;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Fila justa na frente dos workers de ingestão.
+ *
+ * <p>Cada classe de prioridade mantém uma fila por usuário atendida por deficit round-robin,
+ * de modo que uma carga em lote de um usuário não atrasa o único job de outro. Entre as classes,
+ * INTERACTIVE recebe {@code interactive-weight} despachos para cada despacho BULK, sem deixar
+ * BULK sem atendimento. Um usuário com {@code per-user-concurrency} jobs em execução é pulado
+ * até que algum termine.
+ *
+ * <p>A prioridade pedida pelo cliente só vale para o primeiro job: quem já tem um job
+ * INTERACTIVE na fila ou qualquer job em execução tem os seguintes rebaixados para BULK. Uma
+ * rajada de submissões é carga em lote, declarada ou não.
+ */
+@Component
+public class IngestionScheduler {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final int quantum;
+    private final int perUserConcurrency;
+    private final int interactiveWeight;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final EnumMap<IngestionPriority, DeficitRoundRobin> classes = new EnumMap<>(IngestionPriority.class);
+    private final EnumMap<IngestionPriority, Timer> waitTimers = new EnumMap<>(IngestionPriority.class);
+    private final Map<String, Integer> runningPerUser = new HashMap<>();
+    private int interactiveStreak;
+    private boolean closed;
+
+    public IngestionScheduler(
+            MeterRegistry meterRegistry,
+            @Value("${app.ingestion.scheduler.quantum:2}") int quantum,
+            @Value("${app.ingestion.scheduler.per-user-concurrency:1}") int perUserConcurrency,
+            @Value("${app.ingestion.scheduler.interactive-weight:4}") int interactiveWeight) {
+        if (quantum < 1) throw new IllegalArgumentException("app.ingestion.scheduler.quantum deve ser pelo menos 1");
+        if (perUserConcurrency < 1) {
+            throw new IllegalArgumentException("app.ingestion.scheduler.per-user-concurrency deve ser pelo menos 1");
+        }
+        if (interactiveWeight < 1) {
+            throw new IllegalArgumentException("app.ingestion.scheduler.interactive-weight deve ser pelo menos 1");
+        }
+        this.quantum = quantum;
+        this.perUserConcurrency = perUserConcurrency;
+        this.interactiveWeight = interactiveWeight;
+
+        for (var priority : IngestionPriority.values()) {
+            classes.put(priority, new DeficitRoundRobin());
+            waitTimers.put(priority, Timer.builder("ingestion.queue.wait")
+                    .description("Tempo entre a submissão do job e o início do processamento")
+                    .tag("priority", priority.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(10))
+                    .maximumExpectedValue(Duration.ofMinutes(30))
+                    .register(meterRegistry));
+            Gauge.builder("ingestion.queue.size", this, s -> s.queued(priority))
+                    .description("Jobs aguardando um worker")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+            TimeGauge.builder("ingestion.queue.oldest.age", this, TimeUnit.NANOSECONDS, s -> s.oldestWaitNanos(priority))
+                    .description("Há quanto tempo o job mais antigo da fila aguarda um worker")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("ingestion.jobs.running", this, IngestionScheduler::running)
+                .description("Jobs entregues aos workers e ainda não concluídos")
+                .register(meterRegistry);
+    }
+
+    /** Retorna {@code false} se o scheduler já foi fechado para o desligamento. */
+    public boolean enqueue(IngestionTask task) {
+        lock.lock();
+        try {
+            if (closed) return false;
+            var user = userOf(task);
+            if (task.priority() == IngestionPriority.INTERACTIVE && hasInteractiveLoad(user)) {
+                task = new IngestionTask(task.jobId(), task.userId(), IngestionPriority.BULK,
+                        task.cost(), task.work(), task.enqueuedAtNanos());
+            }
+            classes.get(task.priority()).add(user, task);
+            changed.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Bloqueia até haver um job elegível; retorna {@code null} quando o scheduler é fechado. */
+    public IngestionTask take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) return null;
+                var task = next();
+                if (task != null) {
+                    runningPerUser.merge(userOf(task), 1, Integer::sum);
+                    waitTimers.get(task.priority())
+                            .record(System.nanoTime() - task.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                    return task;
+                }
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void complete(IngestionTask task) {
+        lock.lock();
+        try {
+            runningPerUser.computeIfPresent(userOf(task), (user, running) -> running > 1 ? running - 1 : null);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Fecha o scheduler, acorda os workers e devolve os jobs que ainda não começaram. */
+    public List<IngestionTask> close() {
+        lock.lock();
+        try {
+            closed = true;
+            var pending = new ArrayList<IngestionTask>();
+            classes.values().forEach(drr -> drr.drainTo(pending));
+            changed.signalAll();
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued(IngestionPriority priority) {
+        lock.lock();
+        try {
+            return classes.get(priority).size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int running() {
+        lock.lock();
+        try {
+            return runningPerUser.values().stream().mapToInt(Integer::intValue).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Espera do job mais antigo da fila, ou zero se ela estiver vazia. */
+    public long oldestWaitNanos(IngestionPriority priority) {
+        lock.lock();
+        try {
+            var oldest = classes.get(priority).oldestEnqueuedAtNanos();
+            return oldest == Long.MAX_VALUE ? 0 : System.nanoTime() - oldest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private IngestionTask next() {
+        var interactive = classes.get(IngestionPriority.INTERACTIVE);
+        var bulk = classes.get(IngestionPriority.BULK);
+
+        if (interactiveStreak < interactiveWeight) {
+            var task = interactive.poll(this::hasCapacity);
+            if (task != null) {
+                interactiveStreak++;
+                return task;
+            }
+        }
+        var task = bulk.poll(this::hasCapacity);
+        if (task != null) {
+            interactiveStreak = 0;
+            return task;
+        }
+        // BULK vazio ou sem usuários elegíveis: INTERACTIVE segue sendo atendido
+        return interactive.poll(this::hasCapacity);
+    }
+
+    private boolean hasInteractiveLoad(String userId) {
+        return runningPerUser.containsKey(userId) || classes.get(IngestionPriority.INTERACTIVE).contains(userId);
+    }
+
+    private boolean hasCapacity(String userId) {
+        return runningPerUser.getOrDefault(userId, 0) < perUserConcurrency;
+    }
+
+    private static String userOf(IngestionTask task) {
+        return task.userId() != null ? task.userId() : ANONYMOUS;
+    }
+
+    private final class DeficitRoundRobin {
+
+        private final ArrayDeque<UserQueue> ring = new ArrayDeque<>();
+        private final Map<String, UserQueue> byUser = new HashMap<>();
+        private int size;
+
+        void add(String userId, IngestionTask task) {
+            var queue = byUser.computeIfAbsent(userId, id -> {
+                var created = new UserQueue(id);
+                ring.addLast(created);
+                return created;
+            });
+            queue.tasks.addLast(task);
+            size++;
+        }
+
+        boolean contains(String userId) {
+            return byUser.containsKey(userId);
+        }
+
+        IngestionTask poll(Predicate<String> eligible) {
+            int skipped = 0;
+            while (!ring.isEmpty() && skipped < ring.size()) {
+                var queue = ring.peekFirst();
+                if (!eligible.test(queue.userId)) {
+                    // usuário no limite de concorrência: não acumula déficit enquanto espera
+                    ring.addLast(ring.pollFirst());
+                    skipped++;
+                    continue;
+                }
+
+                var head = queue.tasks.peekFirst();
+                if (queue.deficit < head.cost()) {
+                    queue.deficit += quantum;
+                    skipped = 0;
+                    if (queue.deficit < head.cost()) {
+                        ring.addLast(ring.pollFirst());
+                        continue;
+                    }
+                }
+
+                queue.deficit -= head.cost();
+                queue.tasks.pollFirst();
+                size--;
+                if (queue.tasks.isEmpty()) {
+                    ring.pollFirst();
+                    byUser.remove(queue.userId);
+                } else if (queue.deficit < queue.tasks.peekFirst().cost()) {
+                    ring.addLast(ring.pollFirst());
+                }
+                return head;
+            }
+            return null;
+        }
+
+        // cada fila de usuário é FIFO: o mais antigo da classe está entre as cabeças
+        long oldestEnqueuedAtNanos() {
+            long oldest = Long.MAX_VALUE;
+            for (var queue : ring) {
+                oldest = Math.min(oldest, queue.tasks.peekFirst().enqueuedAtNanos());
+            }
+            return oldest;
+        }
+
+        void drainTo(List<IngestionTask> target) {
+            ring.forEach(queue -> target.addAll(queue.tasks));
+            ring.clear();
+            byUser.clear();
+            size = 0;
+        }
+    }
+
+    private static final class UserQueue {
+
+        private final String userId;
+        private final ArrayDeque<IngestionTask> tasks = new ArrayDeque<>();
+        private long deficit;
+
+        private UserQueue(String userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package com.revisaai.ingestion;
 
 import com.revisaai.question.Banca;
+import com.revisaai.shared.exception.IngestionJobNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
 @Service
 public class IngestionService {
 
@@ -14,18 +25,42 @@ public class IngestionService {
     private final IngestionJobRepository repository;
     private final DocumentDownloader downloader;
     private final PdfTextExtractor extractor;
+    private final IngestionUploadStore uploadStore;
+    private final IngestionJobRegistry registry;
+    private final IngestionWorkerPool workerPool;
+    private final IngestionLease lease;
+    private final MeterRegistry meterRegistry;
+    private final Timer persistTimer;
+    private final long costUnitBytes;
 
     public IngestionService(IngestionJobRepository repository,
                             DocumentDownloader downloader,
-                            PdfTextExtractor extractor) {
+                            PdfTextExtractor extractor,
+                            IngestionUploadStore uploadStore,
+                            IngestionJobRegistry registry,
+                            IngestionWorkerPool workerPool,
+                            IngestionLease lease,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.ingestion.scheduler.cost-unit:5MB}") DataSize costUnit) {
         this.repository = repository;
         this.downloader = downloader;
         this.extractor = extractor;
+        this.uploadStore = uploadStore;
+        this.registry = registry;
+        this.workerPool = workerPool;
+        this.lease = lease;
+        this.meterRegistry = meterRegistry;
+        this.persistTimer = Timer.builder("ingestion.persist.duration")
+                .description("Tempo de gravação do resultado do job no MongoDB")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.costUnitBytes = Math.max(1, costUnit.toBytes());
     }
 
-    public IngestionJob process(String banca, Integer ano, String cargo,
-                                MultipartFile provaArquivo, String provaUrl,
-                                MultipartFile gabaritoArquivo, String gabaritoUrl) {
+    public IngestionJob submit(String userId, IngestionPriority priority,
+                               String banca, Integer ano, String cargo,
+                               MultipartFile provaArquivo, String provaUrl,
+                               MultipartFile gabaritoArquivo, String gabaritoUrl) {
         var bancaEnum = Banca.valueOf(banca.toUpperCase());
 
         boolean semProva = isEmpty(provaArquivo) && isBlank(provaUrl);
@@ -40,30 +75,213 @@ public class IngestionService {
                     "É necessário fornecer arquivo ou URL para o gabarito");
         }
 
-        var job = repository.save(new IngestionJob(bancaEnum, ano, cargo));
-        log.debug("IngestionJob criado: {} — banca={}", job.getId(), bancaEnum);
+        var job = new IngestionJob(bancaEnum, ano, cargo);
+        job.setSubmittedBy(userId);
+        job.setPriority(priority != null ? priority : IngestionPriority.INTERACTIVE);
+        try {
+            if (isEmpty(provaArquivo)) {
+                job.setProvaUrl(provaUrl);
+            } else {
+                job.setProvaUploadId(uploadStore.store(provaArquivo));
+            }
+            if (isEmpty(gabaritoArquivo)) {
+                job.setGabaritoUrl(gabaritoUrl);
+            } else {
+                job.setGabaritoUploadId(uploadStore.store(gabaritoArquivo));
+            }
+        } catch (IOException e) {
+            uploadStore.delete(job.getProvaUploadId());
+            throw new UncheckedIOException("Falha ao armazenar arquivo enviado", e);
+        }
 
+        IngestionJob saved;
         try {
-            var provaBytes = isEmpty(provaArquivo)
-                    ? downloader.download(provaUrl)
-                    : provaArquivo.getBytes();
+            saved = repository.save(job);
+        } catch (RuntimeException e) {
+            releaseUploads(job);
+            throw e;
+        }
+        log.debug("IngestionJob criado: {} — banca={}", saved.getId(), bancaEnum);
+
+        enqueue(saved, cost(provaArquivo, gabaritoArquivo));
+        return saved;
+    }
+
+    /** Job de {@code userId}; jobs de outros usuários respondem como inexistentes. */
+    public IngestionJob findById(String id, String userId) {
+        return repository.findById(id)
+                .filter(job -> userId.equals(job.getSubmittedBy()))
+                .orElseThrow(() -> new IngestionJobNotFoundException(id));
+    }
+
+    /**
+     * Cancela um job de {@code userId}: se ainda está na fila, vira CANCELLED na hora. Se está em
+     * PROCESSING, o pedido fica gravado no job e o job é devolvido ainda em PROCESSING; o nó dono
+     * interrompe na hora se for este, ou no próximo heartbeat se for outra réplica. Jobs já
+     * finalizados são devolvidos sem alteração.
+     */
+    public IngestionJob cancel(String id, String userId) {
+        findById(id, userId);
+        var cancelled = repository.compareAndSetStatus(id, IngestionStatus.PENDING, IngestionStatus.CANCELLED);
+        if (cancelled.isPresent()) {
+            log.info("IngestionJob {} cancelado antes de iniciar", id);
+            releaseUploads(cancelled.get());
+            return cancelled.get();
+        }
+
+        var requested = repository.requestCancel(id);
+        if (requested.isEmpty()) {
+            return findById(id, userId);
+        }
+        if (registry.cancel(id, CancellationToken.Reason.USER_REQUEST)) {
+            log.info("Cancelamento solicitado para IngestionJob {} em execução neste nó", id);
+        } else {
+            log.info("Cancelamento do IngestionJob {} registrado para o nó {}", id, requested.get().getClaimedBy());
+        }
+        return requested.get();
+    }
 
-            var gabaritoBytes = isEmpty(gabaritoArquivo)
-                    ? downloader.download(gabaritoUrl)
-                    : gabaritoArquivo.getBytes();
+    /**
+     * Na subida, devolve à fila os jobs de nós que pararam no meio do processamento e retoma os
+     * PENDING; depois, a mesma varredura roda a cada renovação do lease.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingJobs() {
+        logReleased(lease.releaseStale());
+        var pending = repository.findByStatus(IngestionStatus.PENDING);
+        if (!pending.isEmpty()) {
+            log.info("Retomando {} IngestionJobs pendentes", pending.size());
+        }
+        pending.forEach(job -> enqueue(job, 1));
+        lease.start(this::resumeStaleJobs);
+    }
+
+    void resumeStaleJobs() {
+        var released = lease.releaseStale();
+        logReleased(released);
+        released.forEach(job -> enqueue(job, 1));
+    }
+
+    private static void logReleased(List<IngestionJob> released) {
+        if (!released.isEmpty()) {
+            log.warn("{} IngestionJobs em PROCESSING sem heartbeat devolvidos para PENDING: {}",
+                    released.size(), released.stream().map(IngestionJob::getId).toList());
+        }
+    }
+
+    void execute(String jobId) {
+        // registra antes de reivindicar, para não perder um cancelamento entre as duas operações
+        var token = registry.register(jobId);
+        try {
+            var claimed = lease.claim(jobId);
+            if (claimed.isEmpty()) {
+                log.debug("IngestionJob {} já reivindicado ou cancelado", jobId);
+                return;
+            }
+            // pedido de cancelamento feito enquanto o job estava com um nó que perdeu o lease
+            if (claimed.get().getCancelRequestedAt() != null) {
+                token.cancel(CancellationToken.Reason.USER_REQUEST);
+            }
+            run(claimed.get(), token);
+        } finally {
+            registry.unregister(jobId);
+        }
+    }
+
+    private void run(IngestionJob job, CancellationToken token) {
+        var event = new IngestionJfrEvents.JobEvent();
+        event.jobId = job.getId();
+        event.begin();
+        var sample = Timer.start(meterRegistry);
+        try {
+            token.throwIfCancelled();
+            var provaBytes = load(job.getProvaUploadId(), job.getProvaUrl(), token);
+            token.throwIfCancelled();
+            var gabaritoBytes = load(job.getGabaritoUploadId(), job.getGabaritoUrl(), token);
+            token.throwIfCancelled();
+
+            job.setTextProva(extractor.extract(provaBytes, token));
+            job.setTextGabarito(extractor.extract(gabaritoBytes, token));
+            token.throwIfCancelled();
 
-            job.setTextProva(extractor.extract(provaBytes));
-            job.setTextGabarito(extractor.extract(gabaritoBytes));
             job.setStatus(IngestionStatus.COMPLETED);
             log.info("IngestionJob {} concluído com sucesso", job.getId());
 
+        } catch (IngestionCancelledException e) {
+            job.setTextProva(null);
+            job.setTextGabarito(null);
+            if (e.getReason() == CancellationToken.Reason.SHUTDOWN) {
+                job.setStatus(IngestionStatus.PENDING);
+                job.releaseClaim();
+                log.info("IngestionJob {} interrompido pelo desligamento e devolvido à fila", job.getId());
+            } else if (e.getReason() == CancellationToken.Reason.LEASE_LOST) {
+                log.info("IngestionJob {} interrompido: o lease passou para outro nó", job.getId());
+            } else {
+                job.setStatus(IngestionStatus.CANCELLED);
+                log.info("IngestionJob {} cancelado durante o processamento", job.getId());
+            }
+
         } catch (Exception e) {
             log.error("Falha ao processar IngestionJob {}: {}", job.getId(), e.getMessage(), e);
             job.setStatus(IngestionStatus.FAILED);
             job.setErrorMessage(e.getMessage());
         }
 
-        return repository.save(job);
+        // sem o lease, o job é de outro nó: nem o resultado nem os uploads são mais deste worker
+        var outcome = job.getStatus().name();
+        if (!persist(job)) {
+            outcome = "LEASE_LOST";
+            log.warn("IngestionJob {} perdeu o lease antes de gravar o resultado; resultado descartado", job.getId());
+        } else if (job.getStatus() != IngestionStatus.PENDING) {
+            releaseUploads(job);
+        }
+
+        sample.stop(Timer.builder("ingestion.job.duration")
+                .description("Tempo total de processamento de um job pelo worker")
+                .tag("status", outcome.toLowerCase())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        event.status = outcome;
+        event.commit();
+    }
+
+    private boolean persist(IngestionJob job) {
+        var event = new IngestionJfrEvents.PersistenceEvent();
+        event.jobId = job.getId();
+        event.status = job.getStatus().name();
+        event.begin();
+        boolean written = persistTimer.record(() -> lease.complete(job));
+        event.commit();
+        return written;
+    }
+
+    private void enqueue(IngestionJob job, int cost) {
+        var jobId = job.getId();
+        var priority = job.getPriority() != null ? job.getPriority() : IngestionPriority.INTERACTIVE;
+        var task = new IngestionTask(jobId, job.getSubmittedBy(), priority, cost, () -> execute(jobId));
+        if (!workerPool.submit(task)) {
+            log.info("Workers de ingestão indisponíveis; IngestionJob {} permanece PENDING", jobId);
+        }
+    }
+
+    /** Custo no DRR proporcional ao volume enviado; downloads contam como uma unidade. */
+    private int cost(MultipartFile... arquivos) {
+        long bytes = 0;
+        for (var arquivo : arquivos) {
+            if (!isEmpty(arquivo)) bytes += arquivo.getSize();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, 1 + bytes / costUnitBytes);
+    }
+
+    private byte[] load(String uploadId, String url, CancellationToken token) throws IOException {
+        return uploadId != null
+                ? uploadStore.load(uploadId)
+                : downloader.download(url, token);
+    }
+
+    private void releaseUploads(IngestionJob job) {
+        uploadStore.delete(job.getProvaUploadId());
+        uploadStore.delete(job.getGabaritoUploadId());
     }
 
     private boolean isEmpty(MultipartFile file) {
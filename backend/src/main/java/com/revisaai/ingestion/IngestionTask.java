@@ -0,0 +1,18 @@
+package com.revisaai.ingestion;
+
+/**
+ * Unidade de trabalho entregue ao {@link IngestionScheduler}. O custo é usado pelo
+ * deficit round-robin: jobs com PDFs maiores consomem mais da cota do usuário.
+ */
+public record IngestionTask(
+        String jobId,
+        String userId,
+        IngestionPriority priority,
+        int cost,
+        Runnable work,
+        long enqueuedAtNanos
+) {
+    public IngestionTask(String jobId, String userId, IngestionPriority priority, int cost, Runnable work) {
+        this(jobId, userId, priority, Math.max(1, cost), work, System.nanoTime());
+    }
+}
@@ -0,0 +1,51 @@
+package com.revisaai.ingestion;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Guarda os PDFs enviados por upload no GridFS até o job terminar, para que um job
+ * devolvido à fila no desligamento possa ser retomado por qualquer réplica.
+ */
+@Component
+public class IngestionUploadStore {
+
+    private static final String BUCKET = "ingestion_uploads";
+
+    private final GridFsTemplate gridFs;
+
+    public IngestionUploadStore(MongoDatabaseFactory databaseFactory, MongoConverter converter) {
+        this.gridFs = new GridFsTemplate(databaseFactory, converter, BUCKET);
+    }
+
+    public String store(MultipartFile file) throws IOException {
+        try (var in = file.getInputStream()) {
+            return gridFs.store(in, file.getOriginalFilename(), file.getContentType()).toHexString();
+        }
+    }
+
+    public byte[] load(String id) throws IOException {
+        var file = gridFs.findOne(query(where("_id").is(new ObjectId(id))));
+        if (file == null) {
+            throw new IllegalStateException("Upload não encontrado: " + id);
+        }
+        try (var in = gridFs.getResource(file).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    public void delete(String id) {
+        if (id != null) {
+            gridFs.delete(query(where("_id").is(new ObjectId(id))));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.revisaai.ingestion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Workers que consomem o {@link IngestionScheduler} fora da thread da requisição.
+ *
+ * <p>No desligamento, fecha o scheduler e aguarda os jobs em execução até
+ * {@code app.ingestion.shutdown.drain-timeout}; os que não terminam a tempo são cancelados
+ * com {@link CancellationToken.Reason#SHUTDOWN} e voltam para PENDING. Jobs ainda na fila
+ * já estão PENDING no banco e são retomados na próxima inicialização. Um job que nem assim
+ * solta o worker fica em PROCESSING até o {@link IngestionLease} expirar e devolvê-lo à fila.
+ *
+ * <p>Com {@code spring.threads.virtual.enabled} os workers são virtual threads: o número continua
+ * limitado por {@code app.ingestion.workers}, mas a espera pelo download não ocupa uma thread
+ * do sistema.
+ */
+@Component
+public class IngestionWorkerPool implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionWorkerPool.class);
+    private static final Duration CANCEL_GRACE = Duration.ofSeconds(5);
+
+    private final IngestionScheduler scheduler;
+    private final IngestionJobRegistry registry;
+    private final int workers;
+    private final Duration drainTimeout;
+    private final ExecutorService executor;
+    private volatile boolean running;
+
+    public IngestionWorkerPool(
+            IngestionScheduler scheduler,
+            IngestionJobRegistry registry,
+            @Value("${app.ingestion.workers:2}") int workers,
+            @Value("${app.ingestion.shutdown.drain-timeout:25s}") Duration drainTimeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.scheduler = scheduler;
+        this.registry = registry;
+        this.workers = workers;
+        this.drainTimeout = drainTimeout;
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("ingestion-worker-", 1).factory()
+                : new CustomizableThreadFactory("ingestion-worker-");
+        this.executor = Executors.newFixedThreadPool(workers, threadFactory);
+    }
+
+    /** Retorna {@code false} se o pool está drenando; o job permanece PENDING para retomada. */
+    public boolean submit(IngestionTask task) {
+        return running && scheduler.enqueue(task);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::workLoop);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        var queued = scheduler.close();
+        if (!queued.isEmpty()) {
+            log.info("{} jobs de ingestão na fila permanecem PENDING para retomada", queued.size());
+        }
+
+        executor.shutdown();
+        if (awaitTermination(drainTimeout)) return;
+
+        log.warn("Prazo de drenagem esgotado; devolvendo {} jobs em execução para a fila", registry.size());
+        registry.cancelAll(CancellationToken.Reason.SHUTDOWN);
+        if (!awaitTermination(CANCEL_GRACE)) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void workLoop() {
+        try {
+            IngestionTask task;
+            while ((task = scheduler.take()) != null) {
+                try {
+                    task.work().run();
+                } catch (RuntimeException e) {
+                    log.error("Erro inesperado no worker de ingestão (job {})", task.jobId(), e);
+                } finally {
+                    scheduler.complete(task);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean awaitTermination(Duration timeout) {
+        try {
+            return executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.revisaai.ingestion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Cache em disco dos PDFs baixados por URL, com validadores HTTP (ETag/Last-Modified)
+ * para revalidação condicional e despejo LRU limitado por tamanho total em bytes.
+ */
+@Component
+public class PdfDownloadCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfDownloadCache.class);
+    private static final String BODY_SUFFIX = ".pdf";
+    private static final String META_SUFFIX = ".properties";
+
+    private final Path directory;
+    private final long maxSizeBytes;
+    private final boolean enabled;
+
+    // ordem de acesso: o primeiro elemento é o menos recentemente usado
+    private final LinkedHashMap<String, CachedDocument> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long totalBytes;
+
+    public PdfDownloadCache(
+            @Value("${app.ingestion.download-cache.dir:${java.io.tmpdir}/revisaai/pdf-cache}") Path directory,
+            @Value("${app.ingestion.download-cache.max-size:512MB}") DataSize maxSize,
+            @Value("${app.ingestion.download-cache.enabled:true}") boolean enabled) {
+        this.directory = directory;
+        this.maxSizeBytes = maxSize.toBytes();
+        this.enabled = enabled;
+        if (enabled) {
+            loadIndex();
+        }
+    }
+
+    public record CachedDocument(String url, String etag, String lastModified, long size, Path file) {
+    }
+
+    public Optional<CachedDocument> lookup(String url) {
+        if (!enabled) return Optional.empty();
+        lock.lock();
+        try {
+            return Optional.ofNullable(index.get(keyOf(url)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public byte[] read(CachedDocument document) throws IOException {
+        return Files.readAllBytes(document.file());
+    }
+
+    public void store(String url, byte[] body, String etag, String lastModified) {
+        if (!enabled || (etag == null && lastModified == null)) return;
+        if (body.length > maxSizeBytes) {
+            log.debug("PDF de {} bytes excede o orçamento do cache, não será armazenado: {}", body.length, url);
+            return;
+        }
+
+        String key = keyOf(url);
+        var document = new CachedDocument(url, etag, lastModified, body.length, directory.resolve(key + BODY_SUFFIX));
+        lock.lock();
+        try {
+            writeAtomically(document.file(), body);
+            writeMetadata(key, document);
+            var previous = index.put(key, document);
+            totalBytes += body.length - (previous != null ? previous.size() : 0);
+            evictIfNeeded();
+        } catch (IOException e) {
+            log.warn("Falha ao gravar PDF no cache para {}: {}", url, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Atualiza os validadores de uma entrada revalidada com 304, sem regravar o corpo. */
+    public void revalidated(CachedDocument document, String etag, String lastModified) {
+        String newEtag = etag != null ? etag : document.etag();
+        String newLastModified = lastModified != null ? lastModified : document.lastModified();
+        if (Objects.equals(newEtag, document.etag())
+                && Objects.equals(newLastModified, document.lastModified())) {
+            return;
+        }
+
+        String key = keyOf(document.url());
+        var updated = new CachedDocument(document.url(), newEtag, newLastModified, document.size(), document.file());
+        lock.lock();
+        try {
+            if (index.containsKey(key)) {
+                writeMetadata(key, updated);
+                index.put(key, updated);
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao atualizar metadados do cache para {}: {}", document.url(), e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(String url) {
+        if (!enabled) return;
+        lock.lock();
+        try {
+            String key = keyOf(url);
+            var removed = index.remove(key);
+            if (removed != null) {
+                totalBytes -= removed.size();
+                deleteFiles(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long totalBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIfNeeded() {
+        var iterator = index.entrySet().iterator();
+        while (totalBytes > maxSizeBytes && iterator.hasNext()) {
+            var eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue().size();
+            deleteFiles(eldest.getKey());
+            log.debug("PDF removido do cache por LRU: {}", eldest.getValue().url());
+        }
+    }
+
+    private void loadIndex() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório do cache de PDFs: " + directory, e);
+        }
+
+        // reconstrói o índice a partir do disco; a data de modificação aproxima a ordem LRU
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().endsWith(META_SUFFIX))
+                    .sorted((a, b) -> lastModifiedTime(a).compareTo(lastModifiedTime(b)))
+                    .forEach(this::loadEntry);
+        } catch (IOException e) {
+            log.warn("Falha ao carregar índice do cache de PDFs: {}", e.getMessage());
+        }
+        evictIfNeeded();
+        log.info("Cache de PDFs carregado: {} entradas, {} bytes em {}", index.size(), totalBytes, directory);
+    }
+
+    private void loadEntry(Path metaFile) {
+        String fileName = metaFile.getFileName().toString();
+        String key = fileName.substring(0, fileName.length() - META_SUFFIX.length());
+        Path body = directory.resolve(key + BODY_SUFFIX);
+        var props = new Properties();
+        try (Reader reader = Files.newBufferedReader(metaFile, StandardCharsets.UTF_8)) {
+            props.load(reader);
+            if (!Files.exists(body)) {
+                Files.deleteIfExists(metaFile);
+                return;
+            }
+            var document = new CachedDocument(
+                    props.getProperty("url"),
+                    props.getProperty("etag"),
+                    props.getProperty("lastModified"),
+                    Files.size(body),
+                    body);
+            index.put(key, document);
+            totalBytes += document.size();
+        } catch (IOException e) {
+            log.warn("Entrada de cache ilegível descartada: {}", metaFile);
+            deleteFiles(key);
+        }
+    }
+
+    private void writeMetadata(String key, CachedDocument document) throws IOException {
+        var props = new Properties();
+        props.setProperty("url", document.url());
+        if (document.etag() != null) props.setProperty("etag", document.etag());
+        if (document.lastModified() != null) props.setProperty("lastModified", document.lastModified());
+
+        Path tmp = Files.createTempFile(directory, key, ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            props.store(writer, null);
+        }
+        Files.move(tmp, directory.resolve(key + META_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeAtomically(Path target, byte[] body) throws IOException {
+        Path tmp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        Files.write(tmp, body);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(directory.resolve(key + META_SUFFIX));
+            Files.deleteIfExists(directory.resolve(key + BODY_SUFFIX));
+        } catch (IOException e) {
+            log.warn("Falha ao remover arquivos do cache {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static FileTime lastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String keyOf(String url) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
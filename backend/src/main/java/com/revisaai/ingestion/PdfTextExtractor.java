@@ -1,23 +1,126 @@
 package com.revisaai.ingestion;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class PdfTextExtractor {
 
     private static final Logger log = LoggerFactory.getLogger(PdfTextExtractor.class);
 
-    public String extract(byte[] pdfBytes) throws IOException {
+    private final TextPostProcessor postProcessor;
+    private final Timer duration;
+    private final DistributionSummary pages;
+    private final DistributionSummary msPerPage;
+
+    public PdfTextExtractor(TextPostProcessor postProcessor, MeterRegistry meterRegistry) {
+        this.postProcessor = postProcessor;
+        this.duration = Timer.builder("ingestion.extraction.duration")
+                .description("Tempo de extração de texto de um PDF")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.pages = DistributionSummary.builder("ingestion.extraction.pages")
+                .description("Páginas por PDF extraído")
+                .baseUnit("pages")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.msPerPage = DistributionSummary.builder("ingestion.extraction.page.time")
+                .description("Tempo médio de extração por página de cada PDF")
+                .baseUnit("milliseconds")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public String extract(byte[] pdfBytes, CancellationToken token) throws IOException {
         log.debug("Extraindo texto de PDF ({} bytes)", pdfBytes.length);
+        var event = new IngestionJfrEvents.ExtractionEvent();
+        event.bytes = pdfBytes.length;
+        event.begin();
+        long start = System.nanoTime();
+
         try (var doc = Loader.loadPDF(pdfBytes)) {
-            var stripper = new PDFTextStripper();
-            return stripper.getText(doc);
+            event.pages = doc.getNumberOfPages();
+            var stripper = new PositionalTextStripper(token);
+            stripper.writeText(doc, Writer.nullWriter());
+            var text = postProcessor.process(stripper.pages);
+            record(System.nanoTime() - start, event.pages);
+            return text;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private void record(long elapsedNanos, int pageCount) {
+        duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        pages.record(pageCount);
+        if (pageCount > 0) {
+            msPerPage.record(elapsedNanos / 1_000_000.0 / pageCount);
+        }
+    }
+
+    /**
+     * Em vez de escrever o texto, guarda cada palavra com sua posição e monta as linhas da página
+     * ao final dela via {@link ColumnLayout}. Verifica o cancelamento no início de cada página,
+     * sem quebrar a extração em várias passadas.
+     */
+    private static class PositionalTextStripper extends PDFTextStripper {
+
+        private final CancellationToken token;
+        private final List<List<CharSequence>> pages = new ArrayList<>();
+        private final List<ColumnLayout.Word> words = new ArrayList<>();
+
+        PositionalTextStripper(CancellationToken token) {
+            this.token = token;
+            setSortByPosition(true);
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            token.throwIfCancelled();
+            words.clear();
+            super.startPage(page);
+        }
+
+        @Override
+        protected void writeString(String text, List<TextPosition> positions) {
+            if (positions.isEmpty() || text.isBlank()) return;
+            var first = positions.get(0);
+            var last = positions.get(positions.size() - 1);
+            float height = 0;
+            for (var position : positions) height = Math.max(height, position.getHeightDir());
+            words.add(new ColumnLayout.Word(text, first.getXDirAdj(),
+                    last.getXDirAdj() + last.getWidthDirAdj(), first.getYDirAdj(), height));
+        }
+
+        @Override
+        protected void writeWordSeparator() {
+            // separação reconstruída pelo ColumnLayout
+        }
+
+        @Override
+        protected void writeLineSeparator() {
+            // separação reconstruída pelo ColumnLayout
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            pages.add(ColumnLayout.arrange(words, page.getCropBox().getWidth()));
+            words.clear();
+            super.endPage(page);
         }
     }
 }
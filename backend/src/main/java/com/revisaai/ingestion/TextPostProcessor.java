@@ -0,0 +1,228 @@
+package com.revisaai.ingestion;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Limpa o texto extraído de um PDF de prova, página a página, em uma única passada de escrita:
+ *
+ * <ul>
+ *   <li>remove cabeçalhos e rodapés que se repetem nas bordas da maioria das páginas
+ *       (números de página incluídos, já que dígitos são ignorados na comparação);</li>
+ *   <li>desfaz hifenização de fim de linha quando a linha seguinte continua em minúscula;</li>
+ *   <li>normaliza espaços: colapsa sequências, remove espaços nas bordas e linhas vazias.</li>
+ * </ul>
+ *
+ * A detecção de cabeçalhos olha só as primeiras e últimas linhas de cada página, então o custo
+ * total é linear no tamanho do documento e o texto é copiado uma única vez para a saída.
+ */
+@Component
+public class TextPostProcessor {
+
+    private static final int EDGE_LINES = 2;
+    private static final int MIN_PAGES = 3;
+    private static final double REPEAT_RATIO = 0.5;
+    private static final char SOFT_HYPHEN = '\u00AD';
+
+    public String process(List<List<CharSequence>> pages) {
+        var repeated = repeatedEdges(pages);
+        var out = new Writer(capacity(pages));
+
+        for (var lines : pages) {
+            int size = lines.size();
+            for (int i = 0; i < size; i++) {
+                var line = lines.get(i);
+                if (!repeated.isEmpty() && isEdge(i, size) && repeated.contains(edgeKey(line))) continue;
+                out.line(line);
+            }
+        }
+        return out.finish();
+    }
+
+    private Set<String> repeatedEdges(List<List<CharSequence>> pages) {
+        if (pages.size() < MIN_PAGES) return Set.of();
+
+        Map<String, EdgeStats> stats = new HashMap<>();
+        for (int page = 0; page < pages.size(); page++) {
+            var lines = pages.get(page);
+            var seen = new HashSet<String>();
+            int size = lines.size();
+            for (int i = 0; i < size; i++) {
+                if (i == EDGE_LINES && size > 2 * EDGE_LINES) i = size - EDGE_LINES;
+                var line = lines.get(i);
+                var key = edgeKey(line);
+                if (key.isEmpty() || !seen.add(key)) continue;
+                int current = page;
+                stats.computeIfAbsent(key, k -> new EdgeStats()).add(numbers(line), current);
+            }
+        }
+
+        int threshold = Math.max(2, (int) Math.ceil(pages.size() * REPEAT_RATIO));
+        var repeated = new HashSet<String>();
+        stats.forEach((key, edge) -> {
+            if (edge.count >= threshold && edge.consistent) repeated.add(key);
+        });
+        return repeated;
+    }
+
+    private static boolean isEdge(int index, int size) {
+        return index < EDGE_LINES || index >= size - EDGE_LINES;
+    }
+
+    // minúsculas, espaços colapsados e dígitos trocados por '#': "Página 3 de 12" ~ "Página 4 de 12"
+    static String edgeKey(CharSequence line) {
+        var key = new StringBuilder(line.length());
+        boolean space = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (isSpace(c)) {
+                space = key.length() > 0;
+            } else {
+                if (space) key.append(' ');
+                space = false;
+                if (Character.isDigit(c)) {
+                    if (key.isEmpty() || key.charAt(key.length() - 1) != '#') key.append('#');
+                } else {
+                    key.append(Character.toLowerCase(c));
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    private static long[] numbers(CharSequence line) {
+        var found = new ArrayList<Long>(2);
+        long value = -1;
+        for (int i = 0; i <= line.length(); i++) {
+            char c = i < line.length() ? line.charAt(i) : ' ';
+            if (Character.isDigit(c)) {
+                value = value < 0 ? 0 : value;
+                if (value < Long.MAX_VALUE / 10) value = value * 10 + Character.digit(c, 10);
+            } else if (value >= 0) {
+                found.add(value);
+                value = -1;
+            }
+        }
+        var result = new long[found.size()];
+        for (int i = 0; i < result.length; i++) result[i] = found.get(i);
+        return result;
+    }
+
+    /**
+     * Ocorrências de uma mesma linha de borda. Cada número da linha precisa ser fixo (ano, código
+     * do caderno) ou acompanhar o número da página; assim "Página 3" conta como rodapé, mas
+     * "Questão 12" no topo de várias páginas não.
+     */
+    private static final class EdgeStats {
+
+        private int count;
+        private boolean consistent = true;
+        private long[] first;
+        private int firstPage;
+        private boolean[] fixed;
+        private boolean[] paged;
+
+        void add(long[] numbers, int page) {
+            count++;
+            if (first == null) {
+                first = numbers;
+                firstPage = page;
+                fixed = new boolean[numbers.length];
+                paged = new boolean[numbers.length];
+                Arrays.fill(fixed, true);
+                Arrays.fill(paged, true);
+                return;
+            }
+            if (numbers.length != first.length) {
+                consistent = false;
+                return;
+            }
+            for (int i = 0; i < numbers.length; i++) {
+                fixed[i] &= numbers[i] == first[i];
+                paged[i] &= numbers[i] - first[i] == page - firstPage;
+                if (!fixed[i] && !paged[i]) consistent = false;
+            }
+        }
+    }
+
+    private static int capacity(List<List<CharSequence>> pages) {
+        long total = 0;
+        for (var lines : pages) {
+            for (var line : lines) total += line.length() + 1;
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE - 16);
+    }
+
+    private static boolean isSpace(char c) {
+        return Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+
+    private static final class Writer {
+
+        private final StringBuilder out;
+        private boolean pendingHyphen;
+
+        Writer(int capacity) {
+            this.out = new StringBuilder(capacity);
+        }
+
+        void line(CharSequence line) {
+            int first = firstVisible(line);
+            if (first < 0) return;
+
+            if (pendingHyphen) {
+                pendingHyphen = false;
+                if (!Character.isLowerCase(line.charAt(first))) out.append('-').append('\n');
+            }
+
+            int start = out.length();
+            boolean space = false;
+            boolean endsWithSoftHyphen = false;
+            for (int i = first; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == SOFT_HYPHEN) {
+                    endsWithSoftHyphen = true;
+                    continue;
+                }
+                if (isSpace(c)) {
+                    space = true;
+                    continue;
+                }
+                if (space) out.append(' ');
+                space = false;
+                endsWithSoftHyphen = false;
+                out.append(c);
+            }
+
+            int length = out.length() - start;
+            if (endsWithSoftHyphen) return;
+            if (length >= 2 && out.charAt(out.length() - 1) == '-'
+                    && Character.isLetter(out.charAt(out.length() - 2))) {
+                out.setLength(out.length() - 1);
+                pendingHyphen = true;
+                return;
+            }
+            out.append('\n');
+        }
+
+        String finish() {
+            if (pendingHyphen) out.append('-').append('\n');
+            return out.toString();
+        }
+
+        private static int firstVisible(CharSequence line) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (!isSpace(c) && c != SOFT_HYPHEN) return i;
+            }
+            return -1;
+        }
+    }
+}
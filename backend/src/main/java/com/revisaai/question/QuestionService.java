@@ -24,6 +24,20 @@ public class QuestionService {
     }
 
     public List<Question> findAll(String banca, String area, Integer ano) {
+        log.debug("Consultando questões — banca={}, area={}, ano={}", banca, area, ano);
+        return mongoTemplate.find(filter(banca, area, ano), Question.class);
+    }
+
+    public Question findById(String id) {
+        return questionRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Questão não encontrada: {}", id);
+                    return new QuestionNotFoundException(id);
+                });
+    }
+
+    /** Filtros do catálogo, compartilhados com a leitura reativa. */
+    public static Query filter(String banca, String area, Integer ano) {
         var query = new Query();
 
         if (banca != null && !banca.isBlank()) {
@@ -36,15 +50,6 @@ public class QuestionService {
             query.addCriteria(Criteria.where("ano").is(ano));
         }
 
-        log.debug("Consultando questões — banca={}, area={}, ano={}", banca, area, ano);
-        return mongoTemplate.find(query, Question.class);
-    }
-
-    public Question findById(String id) {
-        return questionRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.warn("Questão não encontrada: {}", id);
-                    return new QuestionNotFoundException(id);
-                });
+        return query;
     }
 }
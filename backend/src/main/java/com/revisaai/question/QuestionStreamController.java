@@ -0,0 +1,32 @@
+package com.revisaai.question;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Mesma consulta de {@code GET /questions}, transmitida em NDJSON (uma questão por linha) à
+ * medida que sai do banco. A requisição libera a thread do servidor enquanto espera o MongoDB, e
+ * um cliente lento segura o cursor em vez de acumular a resposta no servidor.
+ */
+@RestController
+@RequestMapping("/questions/stream")
+public class QuestionStreamController {
+
+    private final ReactiveQuestionService reactiveQuestionService;
+
+    public QuestionStreamController(ReactiveQuestionService reactiveQuestionService) {
+        this.reactiveQuestionService = reactiveQuestionService;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Question> stream(
+            @RequestParam(required = false) String banca,
+            @RequestParam(required = false) String area,
+            @RequestParam(required = false) Integer ano) {
+        return reactiveQuestionService.stream(banca, area, ano);
+    }
+}
@@ -0,0 +1,38 @@
+package com.revisaai.question;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Leitura do catálogo pelo driver reativo do MongoDB, sem thread bloqueada à espera do banco.
+ *
+ * <p>O cursor avança conforme o cliente consome: a demanda de quem escreve a resposta chega ao
+ * driver, que busca um lote de {@code app.questions.stream.batch-size} documentos por vez. Uma
+ * conexão aberta segura no máximo um lote em memória, e não a lista inteira como em
+ * {@link QuestionService#findAll}.
+ */
+@Service
+public class ReactiveQuestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveQuestionService.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public ReactiveQuestionService(
+            ReactiveMongoTemplate mongoTemplate,
+            @Value("${app.questions.stream.batch-size:100}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public Flux<Question> stream(String banca, String area, Integer ano) {
+        var query = QuestionService.filter(banca, area, ano).cursorBatchSize(batchSize);
+        log.debug("Transmitindo questões — banca={}, area={}, ano={}", banca, area, ano);
+        return mongoTemplate.find(query, Question.class).limitRate(batchSize);
+    }
+}
@@ -0,0 +1,15 @@
+package com.revisaai.shared.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoCommandMonitoringConfig {
+
+    // vale para o cliente síncrono e para o reativo, que montam as settings pelo mesmo customizer
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowMongoCommandCustomizer(SlowMongoCommandListener listener) {
+        return settings -> settings.addCommandListener(listener);
+    }
+}
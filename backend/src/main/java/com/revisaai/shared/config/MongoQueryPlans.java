@@ -0,0 +1,85 @@
+package com.revisaai.shared.config;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Monta o {@code explain} de um comando capturado pelo driver e lê o plano vencedor da resposta.
+ * Compartilhado entre o log de comandos lentos e os testes que barram COLLSCAN.
+ */
+final class MongoQueryPlans {
+
+    /** Comandos de leitura ou escrita com plano de consulta; os demais não têm o que explicar. */
+    static final Set<String> EXPLAINABLE = Set.of(
+            "find", "aggregate", "count", "distinct", "findAndModify", "update", "delete");
+
+    // campos de sessão, transação e roteamento que o driver acrescenta e o explain recusa
+    private static final Set<String> SESSION_FIELDS = Set.of(
+            "lsid", "txnNumber", "autocommit", "startTransaction", "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+    private MongoQueryPlans() {
+    }
+
+    static BsonDocument explainCommand(BsonDocument command) {
+        var explained = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !SESSION_FIELDS.contains(key)) explained.put(key, value);
+        });
+        return new BsonDocument("explain", explained).append("verbosity", new BsonString("queryPlanner"));
+    }
+
+    /**
+     * Estágios do plano vencedor em pré-ordem, da raiz às folhas ({@code FETCH, IXSCAN}). Em
+     * agregações o plano fica dentro do primeiro estágio; a busca vai até ele.
+     */
+    static List<String> winningStages(Document explain) {
+        var stages = new ArrayList<String>();
+        var winningPlan = find(explain, "winningPlan");
+        if (winningPlan != null) collect(winningPlan, "stage", stages);
+        return stages;
+    }
+
+    /** Índices usados pelo plano vencedor, sem repetição e na ordem em que aparecem. */
+    static List<String> indexNames(Document explain) {
+        var names = new ArrayList<String>();
+        var winningPlan = find(explain, "winningPlan");
+        if (winningPlan != null) collect(winningPlan, "indexName", names);
+        return names.stream().distinct().toList();
+    }
+
+    static String summary(Document explain) {
+        var stages = winningStages(explain);
+        return stages.isEmpty() ? "(sem plano)" : String.join(" > ", stages);
+    }
+
+    private static Object find(Object node, String key) {
+        if (node instanceof Map<?, ?> map) {
+            if (map.containsKey(key)) return map.get(key);
+            for (var value : map.values()) {
+                var found = find(value, key);
+                if (found != null) return found;
+            }
+        } else if (node instanceof List<?> list) {
+            for (var value : list) {
+                var found = find(value, key);
+                if (found != null) return found;
+            }
+        }
+        return null;
+    }
+
+    private static void collect(Object node, String key, List<String> values) {
+        if (node instanceof Map<?, ?> map) {
+            if (map.get(key) instanceof String value) values.add(value);
+            map.values().forEach(child -> collect(child, key, values));
+        } else if (node instanceof List<?> list) {
+            list.forEach(child -> collect(child, key, values));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.revisaai.shared.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loga comandos MongoDB mais lentos que {@code app.mongo.slow-command.threshold} e os conta em
+ * {@code mongodb.driver.commands.slow}, por coleção e comando. A latência de todos os comandos
+ * já sai no {@code mongodb.driver.commands} do Micrometer, registrado pelo Spring Boot.
+ *
+ * <p>Uma fração {@code explain-sample-rate} dos comandos é copiada na partida; se uma dessas
+ * cópias ficar lenta, o {@code explain} dela roda numa thread à parte e os estágios e índices do
+ * plano vencedor vão para o log, no máximo uma vez por coleção e comando a cada
+ * {@code explain-interval}. Só os comandos amostrados pagam a cópia do documento.
+ */
+@Component
+public class SlowMongoCommandListener implements CommandListener, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowMongoCommandListener.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long thresholdNanos;
+    private final double explainSampleRate;
+    private final Duration explainInterval;
+    private final Explainer explainer;
+    private final Executor executor;
+    private final Clock clock;
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastExplained = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SlowMongoCommandListener(
+            MeterRegistry meterRegistry,
+            ObjectProvider<MongoTemplate> mongoTemplate,
+            @Value("${app.mongo.slow-command.threshold:100ms}") Duration threshold,
+            @Value("${app.mongo.slow-command.explain-sample-rate:0.1}") double explainSampleRate,
+            @Value("${app.mongo.slow-command.explain-interval:5m}") Duration explainInterval) {
+        this(meterRegistry, threshold, explainSampleRate, explainInterval,
+                (database, command) -> mongoTemplate.getObject().getMongoDatabaseFactory()
+                        .getMongoDatabase(database).runCommand(command),
+                explainExecutor(), Clock.systemUTC());
+    }
+
+    SlowMongoCommandListener(MeterRegistry meterRegistry, Duration threshold, double explainSampleRate,
+                             Duration explainInterval, Explainer explainer, Executor executor, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.thresholdNanos = threshold.toNanos();
+        this.explainSampleRate = explainSampleRate;
+        this.explainInterval = explainInterval;
+        this.explainer = explainer;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        var command = event.getCommand();
+        var collection = command.isString(event.getCommandName())
+                ? command.getString(event.getCommandName()).getValue()
+                : null;
+        // o documento do evento só vale durante o callback: quem pode ser explicado leva uma cópia
+        var sampled = MongoQueryPlans.EXPLAINABLE.contains(event.getCommandName())
+                && ThreadLocalRandom.current().nextDouble() < explainSampleRate;
+        inFlight.put(event.getRequestId(), new Started(collection, sampled ? command.clone() : null));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        finished(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS), "SUCCESS");
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finished(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS), "FAILED");
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ThreadPoolExecutor pool) pool.shutdownNow();
+    }
+
+    private void finished(int requestId, String database, String commandName, long elapsedNanos, String status) {
+        var started = inFlight.remove(requestId);
+        if (started == null || elapsedNanos < thresholdNanos) return;
+
+        var collection = started.collection() != null ? started.collection() : "unknown";
+        Counter.builder("mongodb.driver.commands.slow")
+                .description("Comandos MongoDB acima do limiar de lentidão")
+                .tag("collection", collection)
+                .tag("command", commandName)
+                .tag("status", status)
+                .register(meterRegistry)
+                .increment();
+        log.warn("Comando MongoDB lento: {} em {} levou {} ms ({})",
+                commandName, collection, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), status);
+
+        if (started.command() != null && claimExplain(collection + "." + commandName)) {
+            executor.execute(() -> explain(database, collection, commandName, started.command()));
+        }
+    }
+
+    private boolean claimExplain(String key) {
+        var now = clock.instant();
+        var previous = lastExplained.get(key);
+        if (previous != null && previous.plus(explainInterval).isAfter(now)) return false;
+        return previous == null
+                ? lastExplained.putIfAbsent(key, now) == null
+                : lastExplained.replace(key, previous, now);
+    }
+
+    private void explain(String database, String collection, String commandName, BsonDocument command) {
+        try {
+            var plan = explainer.explain(database, MongoQueryPlans.explainCommand(command));
+            // só estágios e nomes de índice: o plano completo repete os valores do filtro (tokens, e-mails)
+            log.warn("Plano do comando lento {} em {}.{}: {} (índices: {})", commandName, database, collection,
+                    MongoQueryPlans.summary(plan), MongoQueryPlans.indexNames(plan));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao obter o explain de {} em {}: {}", commandName, collection, e.getMessage());
+        }
+    }
+
+    // uma thread e fila curta: sob muitos comandos lentos os explains excedentes são descartados
+    private static ThreadPoolExecutor explainExecutor() {
+        var threadFactory = new CustomizableThreadFactory("mongo-explain-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+                threadFactory, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    private record Started(String collection, BsonDocument command) {}
+
+    @FunctionalInterface
+    interface Explainer {
+        Document explain(String database, BsonDocument explainCommand);
+    }
+}
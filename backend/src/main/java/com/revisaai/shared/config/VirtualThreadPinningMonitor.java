@@ -0,0 +1,104 @@
+package com.revisaai.shared.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta virtual threads presas à carrier thread ({@code jdk.VirtualThreadPinned} do JFR):
+ * bloquear dentro de {@code synchronized} ou de código nativo segura a carrier, e com poucas
+ * carriers algumas dezenas de requisições assim param o servidor inteiro.
+ *
+ * <p>Só roda com {@code spring.threads.virtual.enabled}. Cada ocorrência acima de
+ * {@code app.threads.pinning.threshold} conta em {@code jvm.threads.virtual.pinned}; a pilha é
+ * logada na primeira vez que aparece, para apontar o trecho sem inundar o log.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+    private static final int MAX_DISTINCT_STACKS = 256;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private final Timer pinnedDuration;
+    private final Set<String> reportedStacks = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.threads.pinning.threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads que bloquearam presas à carrier thread")
+                .register(meterRegistry);
+        this.pinnedDuration = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Tempo que a carrier thread ficou presa")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        var recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Monitor de pinning de virtual threads ativo (limiar {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        var recording = stream;
+        stream = null;
+        if (recording != null) recording.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    long pinnedCount() {
+        return (long) pinned.count();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        pinnedDuration.record(event.getDuration());
+        var stack = describe(event);
+        if (reportedStacks.size() < MAX_DISTINCT_STACKS && reportedStacks.add(stack)) {
+            log.warn("Virtual thread presa à carrier por {} ms:\n{}", event.getDuration().toMillis(), stack);
+        }
+    }
+
+    private static String describe(RecordedEvent event) {
+        var trace = event.getStackTrace();
+        if (trace == null) return "    (sem pilha)";
+        return trace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                // os frames de estacionamento da própria VirtualThread não dizem onde está o bloqueio
+                .dropWhile(frame -> frame.getMethod().getType().getName().equals("java.lang.VirtualThread"))
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "    at " + frame.getMethod().getType().getName() + "."
+                        + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
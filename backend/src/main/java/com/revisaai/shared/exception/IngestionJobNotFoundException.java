@@ -0,0 +1,8 @@
+package com.revisaai.shared.exception;
+
+public class IngestionJobNotFoundException extends RuntimeException {
+
+    public IngestionJobNotFoundException(String id) {
+        super("IngestionJob não encontrado: " + id);
+    }
+}
@@ -0,0 +1,8 @@
+package com.revisaai.shared.exception;
+
+public class SessionNotFoundException extends RuntimeException {
+
+    public SessionNotFoundException(String id) {
+        super("Sessão não encontrada: " + id);
+    }
+}
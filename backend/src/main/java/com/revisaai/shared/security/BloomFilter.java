@@ -0,0 +1,75 @@
+package com.revisaai.shared.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de strings, sem remoção. {@code mightContain} falso é definitivo; verdadeiro
+ * precisa ser confirmado no conjunto exato. Leituras não travam; escritas concorrentes só ligam
+ * bits, então nenhuma se perde.
+ *
+ * <p>As {@code k} posições saem de dois hashes de 64 bits (Kirsch–Mitzenmacher), calculados numa
+ * única passada pela string.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashes;
+
+    private BloomFilter(long bitCount, int hashes) {
+        this.bitCount = bitCount;
+        this.hashes = hashes;
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+    }
+
+    /** Dimensiona para {@code expectedEntries} com taxa de falso positivo {@code fpp}. */
+    static BloomFilter create(int expectedEntries, double fpp) {
+        long n = Math.max(1, expectedEntries);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(m, k);
+    }
+
+    void put(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.weakCompareAndSetVolatile(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    long sizeInBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    // FNV-1a com semente, finalizado pelo fmix64 do MurmurHash3
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,31 @@
+package com.revisaai.shared.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** Chaves locais ao nó, para desenvolvimento e instância única. */
+@Component
+@ConditionalOnProperty(name = "app.jwt.key-store", havingValue = "memory")
+public class InMemorySigningKeyStore implements SigningKeyStore {
+
+    private final List<SigningKey> keys = new CopyOnWriteArrayList<>();
+
+    @Override
+    public List<SigningKey> findUnexpired(Instant now) {
+        keys.removeIf(key -> !key.getExpiresAt().isAfter(now));
+        return List.copyOf(keys);
+    }
+
+    @Override
+    public synchronized boolean insertIfAbsent(SigningKey key) {
+        for (var existing : keys) {
+            if (key.getSucceeds() != null && key.getSucceeds().equals(existing.getSucceeds())) return false;
+        }
+        keys.add(key);
+        return true;
+    }
+}
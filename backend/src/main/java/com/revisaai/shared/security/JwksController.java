@@ -0,0 +1,30 @@
+package com.revisaai.shared.security;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/** Chaves públicas de verificação dos access tokens (RFC 7517), inclusive a próxima a ser ativada. */
+@RestController
+public class JwksController {
+
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    private final JwtKeyRing keyRing;
+
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(keyRing.jwksMaxAge()).cachePublic())
+                .contentType(JWK_SET)
+                .body(keyRing.jwks());
+    }
+}
@@ -1,11 +1,17 @@
 package com.revisaai.shared.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -16,18 +22,54 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    /** Atributo da requisição com os {@link JwtClaims} do token que autenticou a chamada. */
+    public static final String CLAIMS_ATTRIBUTE = "com.revisaai.shared.security.JwtClaims";
+
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenDenylist denylist;
+    private final PrincipalSource principalSource;
+    private final Timer authenticated;
+    private final Timer invalid;
+    private final Timer revoked;
+    private final Timer failed;
+    private final Timer skipped;
+
+    @Autowired
+    public JwtAuthenticationFilter(
+            JwtService jwtService,
+            UserDetailsServiceImpl userDetailsService,
+            TokenDenylist denylist,
+            @Value("${app.security.principal-source:jwt}") PrincipalSource principalSource,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        // slices de teste (@WebMvcTest) não têm MeterRegistry no contexto
+        this(jwtService, userDetailsService, denylist, principalSource,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthenticationFilter(
+            JwtService jwtService,
+            UserDetailsServiceImpl userDetailsService,
+            TokenDenylist denylist,
+            PrincipalSource principalSource,
+            MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.denylist = denylist;
+        this.principalSource = principalSource;
+        this.authenticated = filterTimer(meterRegistry, "authenticated");
+        this.invalid = filterTimer(meterRegistry, "invalid");
+        this.revoked = filterTimer(meterRegistry, "revoked");
+        this.failed = filterTimer(meterRegistry, "failed");
+        this.skipped = filterTimer(meterRegistry, "skipped");
     }
 
     @Override
@@ -43,28 +85,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = authHeader.substring(7);
+        // só o trabalho do filtro: o restante da cadeia fica fora da medição
+        long start = System.nanoTime();
+        var outcome = tryAuthenticate(request, authHeader.substring(7));
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
-        if (!jwtService.isTokenValid(token)) {
-            filterChain.doFilter(request, response);
-            return;
+        filterChain.doFilter(request, response);
+    }
+
+    private Timer tryAuthenticate(HttpServletRequest request, String token) {
+        var claims = jwtService.validate(token).orElse(null);
+        if (claims == null) return invalid;
+        if (denylist.isRevoked(claims)) return revoked;
+
+        if (claims.userId() == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return skipped;
+        }
+        try {
+            var authentication = authenticate(claims);
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+            log.debug("Usuário autenticado via JWT: {}", claims.userId());
+            return authenticated;
+        } catch (Exception e) {
+            log.warn("Falha ao autenticar usuário com JWT: {}", e.getMessage());
+            return failed;
         }
+    }
 
-        String userId = jwtService.extractUserId(token);
-
-        if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userId);
-                var authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("Usuário autenticado via JWT: {}", userId);
-            } catch (Exception e) {
-                log.warn("Falha ao autenticar usuário com JWT: {}", e.getMessage());
-            }
+    private UsernamePasswordAuthenticationToken authenticate(JwtClaims claims) {
+        if (principalSource == PrincipalSource.JWT) {
+            var principal = JwtPrincipal.from(claims);
+            return new UsernamePasswordAuthenticationToken(principal, null, principal.authorities());
         }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.userId());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
 
-        filterChain.doFilter(request, response);
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("security.jwt.filter.duration")
+                .description("Tempo do filtro JWT por requisição com Bearer, sem o restante da cadeia")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(meterRegistry);
     }
 }
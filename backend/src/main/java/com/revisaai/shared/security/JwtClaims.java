@@ -0,0 +1,18 @@
+package com.revisaai.shared.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims de um access token já verificado. {@code tokenId} é o {@code jti} e {@code sessionId} o
+ * {@code sid}, a família de refresh tokens que emitiu o token; ambos ausentes em tokens antigos.
+ */
+public record JwtClaims(
+        String userId,
+        String email,
+        List<String> roles,
+        Instant issuedAt,
+        Instant expiresAt,
+        String tokenId,
+        String sessionId
+) {}
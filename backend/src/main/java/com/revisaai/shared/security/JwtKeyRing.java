@@ -0,0 +1,279 @@
+package com.revisaai.shared.security;
+
+import io.jsonwebtoken.security.Jwks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chaves assimétricas dos access tokens: assina com a privada da chave ativa e publica as
+ * públicas no JWKS, de modo que quem só valida tokens não precisa de segredo nenhum.
+ *
+ * <p>Cada nó relê as chaves do {@link SigningKeyStore} a cada {@code refresh-interval} e monta um
+ * snapshot imutável com as chaves já decodificadas; validar um token é só um {@code get} no mapa
+ * por {@code kid}. A sucessora é criada {@code publish-ahead} antes de começar a assinar, tempo
+ * para todos os nós (e os caches de JWKS de terceiros) a conhecerem; se dois nós a criarem ao
+ * mesmo tempo, o store grava só uma e o outro relê. A antecessora continua válida para
+ * verificação até os últimos tokens assinados por ela expirarem.
+ */
+@Component
+public class JwtKeyRing implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String KEY_LABEL = "revisa-ai/jwt-signing-key:";
+
+    private final SigningKeyStore store;
+    private final Algorithm algorithm;
+    private final Duration rotationPeriod;
+    private final Duration publishAhead;
+    private final Duration retention;
+    private final SecretBox box;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public JwtKeyRing(
+            SigningKeyStore store,
+            @Value("${app.jwt.algorithm:ES256}") String algorithm,
+            @Value("${app.jwt.keys.rotation-period:7d}") Duration rotationPeriod,
+            @Value("${app.jwt.keys.publish-ahead:10m}") Duration publishAhead,
+            @Value("${app.jwt.keys.refresh-interval:1m}") Duration refreshInterval,
+            @Value("${app.jwt.expiration}") long tokenLifetimeMs,
+            @Value("${app.jwt.secret}") String secret) {
+        this(store, algorithm, rotationPeriod, publishAhead, refreshInterval,
+                Duration.ofMillis(tokenLifetimeMs), secret, Clock.systemUTC(), true);
+    }
+
+    JwtKeyRing(SigningKeyStore store, String algorithm, Duration rotationPeriod, Duration publishAhead,
+               Duration refreshInterval, Duration tokenLifetime, String secret, Clock clock,
+               boolean startScheduler) {
+        if (publishAhead.compareTo(refreshInterval) <= 0) {
+            throw new IllegalArgumentException("app.jwt.keys.publish-ahead deve ser maior que refresh-interval");
+        }
+        this.store = store;
+        this.algorithm = Algorithm.valueOf(algorithm);
+        this.rotationPeriod = rotationPeriod;
+        this.publishAhead = publishAhead;
+        // folga de publish-ahead para o caso de a sucessora atrasar
+        this.retention = rotationPeriod.plus(publishAhead).plus(tokenLifetime);
+        this.box = new SecretBox(secret, KEY_LABEL);
+        this.clock = clock;
+        if (startScheduler) {
+            var threadFactory = new CustomizableThreadFactory("jwt-key-refresh-");
+            threadFactory.setDaemon(true);
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            scheduler.scheduleWithFixedDelay(this::refreshQuietly,
+                    0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /** Chave que assina agora: a mais recente já ativada. */
+    ActiveKey signingKey() {
+        var key = current().activeAt(clock.instant());
+        if (key != null) return key;
+        // nenhuma ativa (primeira subida ou chaves expiradas): recarrega, criando uma imediata
+        refresh();
+        return snapshot.activeAt(clock.instant());
+    }
+
+    /** Chave pública já decodificada para o {@code kid}, ou {@code null} se desconhecido. */
+    PublicKey verificationKey(String kid) {
+        if (kid == null) return null;
+        return current().verification().get(kid);
+    }
+
+    /** JWK Set com as chaves públicas publicadas, pronto para serialização. */
+    public Map<String, Object> jwks() {
+        return current().jwks();
+    }
+
+    /** Por quanto tempo o JWKS pode ficar em cache sem perder uma sucessora antes da ativação. */
+    public Duration jwksMaxAge() {
+        return publishAhead.dividedBy(2);
+    }
+
+    /** Relê as chaves do store, cria a sucessora se for a hora e troca o snapshot. */
+    void refresh() {
+        lock.lock();
+        try {
+            var now = clock.instant();
+            var keys = new ArrayList<>(store.findUnexpired(now));
+            var successor = successorIfDue(keys, now);
+            if (successor != null) {
+                if (store.insertIfAbsent(successor)) {
+                    keys.add(successor);
+                    log.info("Nova chave JWT {} ({}) ativa a partir de {}",
+                            successor.getKid(), successor.getAlgorithm(), successor.getActivatesAt());
+                } else {
+                    // outro nó criou a sucessora primeiro: descarta a nossa e usa a dele
+                    keys = new ArrayList<>(store.findUnexpired(now));
+                    log.debug("Sucessora da chave JWT criada por outro nó");
+                }
+            }
+            snapshot = Snapshot.of(keys, snapshot, box);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    private Snapshot current() {
+        var current = snapshot;
+        if (current != null) return current;
+        lock.lock();
+        try {
+            if (snapshot == null) refresh();
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao recarregar as chaves JWT: {}", e.getMessage());
+        }
+    }
+
+    private SigningKey successorIfDue(List<SigningKey> keys, Instant now) {
+        SigningKey active = null;
+        for (var key : keys) {
+            if (key.getActivatesAt().isAfter(now)) return null; // sucessora já publicada
+            if (active == null || key.getActivatesAt().isAfter(active.getActivatesAt())) active = key;
+        }
+        if (active == null) return generate(now, now, SigningKey.GENESIS);
+
+        var rotatesAt = active.getActivatesAt().plus(rotationPeriod);
+        if (now.isBefore(rotatesAt.minus(publishAhead))) return null;
+        var activatesAt = rotatesAt.isAfter(now.plus(publishAhead)) ? rotatesAt : now.plus(publishAhead);
+        return generate(now, activatesAt, active.getKid());
+    }
+
+    private SigningKey generate(Instant now, Instant activatesAt, String succeeds) {
+        try {
+            var generator = KeyPairGenerator.getInstance(algorithm.keyAlgorithm);
+            if (algorithm.parameters != null) generator.initialize(algorithm.parameters);
+            var pair = generator.generateKeyPair();
+            return new SigningKey(
+                    UUID.randomUUID().toString(),
+                    algorithm.name(),
+                    pair.getPublic().getEncoded(),
+                    box.seal(pair.getPrivate().getEncoded()),
+                    now,
+                    activatesAt,
+                    succeeds,
+                    activatesAt.plus(retention));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao gerar chave JWT " + algorithm, e);
+        }
+    }
+
+    record ActiveKey(String kid, PrivateKey privateKey, Instant activatesAt) {}
+
+    private enum Algorithm {
+        ES256("EC", new ECGenParameterSpec("secp256r1")),
+        EdDSA("Ed25519", null);
+
+        final String keyAlgorithm;
+        final AlgorithmParameterSpec parameters;
+
+        Algorithm(String keyAlgorithm, AlgorithmParameterSpec parameters) {
+            this.keyAlgorithm = keyAlgorithm;
+            this.parameters = parameters;
+        }
+    }
+
+    private record Loaded(PublicKey publicKey, ActiveKey signer, Map<String, ?> jwk) {}
+
+    /**
+     * Estado imutável entre duas recargas. Chaves já conhecidas são reaproveitadas do snapshot
+     * anterior, então cada chave é decodificada uma única vez por nó.
+     */
+    private record Snapshot(
+            Map<String, Loaded> loaded,
+            List<ActiveKey> signers,
+            Map<String, PublicKey> verification,
+            Map<String, Object> jwks) {
+
+        static Snapshot of(List<SigningKey> keys, Snapshot previous, SecretBox box) {
+            var loaded = new HashMap<String, Loaded>();
+            for (var key : keys) {
+                var known = previous != null ? previous.loaded().get(key.getKid()) : null;
+                try {
+                    loaded.put(key.getKid(), known != null ? known : load(key, box));
+                } catch (GeneralSecurityException | IllegalArgumentException e) {
+                    log.error("Chave JWT {} ignorada: {}", key.getKid(), e.getMessage());
+                }
+            }
+
+            var signers = new ArrayList<ActiveKey>();
+            var verification = new HashMap<String, PublicKey>();
+            var jwks = new ArrayList<Map<String, ?>>();
+            loaded.forEach((kid, key) -> {
+                signers.add(key.signer());
+                verification.put(kid, key.publicKey());
+                jwks.add(key.jwk());
+            });
+            signers.sort(Comparator.comparing(ActiveKey::activatesAt).reversed());
+            return new Snapshot(Map.copyOf(loaded), List.copyOf(signers), Map.copyOf(verification),
+                    Map.of("keys", List.copyOf(jwks)));
+        }
+
+        ActiveKey activeAt(Instant now) {
+            for (var signer : signers) {
+                if (!signer.activatesAt().isAfter(now)) return signer;
+            }
+            return null;
+        }
+
+        private static Loaded load(SigningKey key, SecretBox box) throws GeneralSecurityException {
+            var algorithm = Algorithm.valueOf(key.getAlgorithm());
+            var factory = KeyFactory.getInstance(algorithm.keyAlgorithm);
+            var publicKey = factory.generatePublic(new X509EncodedKeySpec(key.getPublicKey()));
+            var privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(box.open(key.getPrivateKey())));
+            var jwk = Jwks.builder().key(publicKey)
+                    .id(key.getKid())
+                    .publicKeyUse("sig")
+                    .algorithm(algorithm.name())
+                    .build();
+            return new Loaded(publicKey, new ActiveKey(key.getKid(), privateKey, key.getActivatesAt()), jwk);
+        }
+    }
+}
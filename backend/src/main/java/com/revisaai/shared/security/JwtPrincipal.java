@@ -0,0 +1,26 @@
+package com.revisaai.shared.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/** Principal montado só a partir dos claims assinados do access token, sem consulta ao banco. */
+public record JwtPrincipal(String userId, String email, List<String> roles) implements AuthenticatedPrincipal {
+
+    public static JwtPrincipal from(JwtClaims claims) {
+        return new JwtPrincipal(claims.userId(), claims.email(), claims.roles());
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+    }
+
+    @Override
+    public String getName() {
+        return userId;
+    }
+}
@@ -2,42 +2,80 @@ package com.revisaai.shared.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.ProtectedHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Emite e valida os access tokens. A assinatura é assimétrica (ES256 ou EdDSA) com a chave ativa
+ * do {@link JwtKeyRing}; a verificação escolhe a chave pública pelo {@code kid} do header.
+ */
 @Service
 public class JwtService {
 
     private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+    static final List<String> DEFAULT_ROLES = List.of("USER");
 
-    private final SecretKey key;
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
     private final long expirationMs;
 
     public JwtService(
-            @Value("${app.jwt.secret}") String secret,
+            JwtKeyRing keyRing,
             @Value("${app.jwt.expiration}") long expirationMs) {
-        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.keyRing = keyRing;
+        // JwtParser é imutável e thread-safe: construído uma vez e reutilizado em todas as requisições.
+        // O locator só consulta o mapa de chaves já decodificadas; kid ausente ou desconhecido é rejeitado.
+        this.parser = Jwts.parser()
+                .keyLocator(header -> header instanceof ProtectedHeader protectedHeader
+                        ? keyRing.verificationKey(protectedHeader.getKeyId())
+                        : null)
+                .build();
         this.expirationMs = expirationMs;
     }
 
     public String generateAccessToken(String userId, String email) {
+        return generateAccessToken(userId, email, null);
+    }
+
+    /** Token com {@code jti} próprio, revogável individualmente, ligado à sessão {@code sessionId}. */
+    public String generateAccessToken(String userId, String email, String sessionId) {
+        var key = keyRing.signingKey();
         return Jwts.builder()
+                .header().keyId(key.kid()).and()
+                .id(UUID.randomUUID().toString())
                 .subject(userId)
+                .claim("sid", sessionId)
                 .claim("email", email)
+                .claim("roles", DEFAULT_ROLES)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(key)
+                .signWith(key.privateKey())
                 .compact();
     }
 
+    /**
+     * Verifica assinatura e expiração uma única vez e devolve os claims tipados.
+     * Retorna vazio para qualquer token inválido.
+     */
+    public Optional<JwtClaims> validate(String token) {
+        try {
+            return Optional.of(toJwtClaims(extractAllClaims(token)));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Token JWT inválido: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     public String extractUserId(String token) {
         return extractAllClaims(token).getSubject();
     }
@@ -61,10 +99,25 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    private static JwtClaims toJwtClaims(Claims claims) {
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("email", String.class),
+                roles(claims),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims.getId(),
+                claims.get("sid", String.class));
+    }
+
+    // tokens emitidos antes do claim "roles" recebem o papel padrão
+    private static List<String> roles(Claims claims) {
+        if (claims.get("roles") instanceof List<?> roles) {
+            return roles.stream().map(String::valueOf).toList();
+        }
+        return DEFAULT_ROLES;
     }
 }
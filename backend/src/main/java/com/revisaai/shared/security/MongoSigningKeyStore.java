@@ -0,0 +1,36 @@
+package com.revisaai.shared.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Chaves compartilhadas entre nós via MongoDB, removidas pelo índice TTL de {@code expiresAt}. */
+@Component
+@ConditionalOnProperty(name = "app.jwt.key-store", havingValue = "mongo", matchIfMissing = true)
+class MongoSigningKeyStore implements SigningKeyStore {
+
+    private final SigningKeyRepository repository;
+
+    MongoSigningKeyStore(SigningKeyRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public List<SigningKey> findUnexpired(Instant now) {
+        return repository.findByExpiresAtAfter(now);
+    }
+
+    // o índice único em succeeds decide qual nó cria a sucessora
+    @Override
+    public boolean insertIfAbsent(SigningKey key) {
+        try {
+            repository.insert(key);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
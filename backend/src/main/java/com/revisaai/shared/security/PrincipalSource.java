@@ -0,0 +1,9 @@
+package com.revisaai.shared.security;
+
+/** De onde o JwtAuthenticationFilter obtém o principal de uma requisição autenticada. */
+public enum PrincipalSource {
+    /** Claims do próprio token; nenhuma consulta ao MongoDB por requisição. */
+    JWT,
+    /** Usuário recarregado via UserDetailsServiceImpl a cada requisição. */
+    DATABASE
+}
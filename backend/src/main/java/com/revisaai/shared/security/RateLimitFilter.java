@@ -0,0 +1,250 @@
+package com.revisaai.shared.security;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revisaai.shared.exception.ApiError;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Limita tentativas nos endpoints públicos de autenticação antes de qualquer trabalho do
+ * {@code AuthService} (BCrypt, consultas ao MongoDB).
+ *
+ * <p>Cada rota tem um limite por IP e, em login e registro, outro por e-mail — o primeiro contém
+ * um cliente disparando contra muitas contas, o segundo muitos clientes contra a mesma conta.
+ * O e-mail é lido do início do corpo JSON, que é repassado intacto ao controller. Os limites vivem
+ * em tabelas de tamanho fixo ({@link TokenBucketLimiter}) e são locais ao nó.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    // login e registro cabem com folga; corpos maiores são recusados para que o e-mail não escape do limite
+    static final int MAX_BODY_BYTES = 4096;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final boolean enabled;
+    private final Map<String, Route> routes;
+
+    public RateLimitFilter(
+            ObjectMapper objectMapper,
+            @Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.security.rate-limit.table-size:16384}") int tableSize,
+            @Value("${app.security.rate-limit.login.ip:20/1m}") String loginIp,
+            @Value("${app.security.rate-limit.login.email:5/1m}") String loginEmail,
+            @Value("${app.security.rate-limit.register.ip:10/1m}") String registerIp,
+            @Value("${app.security.rate-limit.register.email:5/1h}") String registerEmail,
+            @Value("${app.security.rate-limit.refresh.ip:30/1m}") String refreshIp) {
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+        this.enabled = enabled;
+        this.routes = Map.of(
+                "/auth/login", new Route("login",
+                        limiter(loginIp, tableSize), limiter(loginEmail, tableSize)),
+                "/auth/register", new Route("register",
+                        limiter(registerIp, tableSize), limiter(registerEmail, tableSize)),
+                "/auth/refresh", new Route("refresh",
+                        limiter(refreshIp, tableSize), null));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !routes.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        var route = routes.get(path(request));
+
+        long wait = route.ip().tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            reject(response, route, "ip", wait);
+            return;
+        }
+
+        if (route.email() == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        var body = readBody(request);
+        if (body == null) {
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            writeError(response, new ApiError(413, "Corpo da requisição muito grande"));
+            return;
+        }
+
+        var email = extractEmail(body);
+        if (email != null) {
+            wait = route.email().tryAcquire(email);
+            if (wait > 0) {
+                reject(response, route, "email", wait);
+                return;
+            }
+        }
+
+        filterChain.doFilter(new ReplayedBodyRequest(request, body), response);
+    }
+
+    // null se o corpo passar do limite; com Content-Length conhecido, lê direto no tamanho exato
+    private static byte[] readBody(HttpServletRequest request) throws IOException {
+        int length = request.getContentLength();
+        if (length > MAX_BODY_BYTES) return null;
+        if (length >= 0) {
+            var body = new byte[length];
+            int read = request.getInputStream().readNBytes(body, 0, length);
+            return read == length ? body : Arrays.copyOf(body, read);
+        }
+        var body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    /** Valor do campo {@code email} no objeto JSON de topo, normalizado, ou null. */
+    String extractEmail(byte[] body) {
+        String email = null;
+        try (var parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                boolean isEmail = "email".equals(parser.currentName());
+                token = parser.nextToken();
+                if (isEmail && token == JsonToken.VALUE_STRING) {
+                    email = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            // JSON malformado: o controller responde 400 sem chegar ao AuthService
+            return null;
+        }
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void reject(HttpServletResponse response, Route route, String key, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        log.debug("Limite de tentativas atingido: rota={}, chave={}", route.name(), key);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        writeError(response, new ApiError(429, "Muitas tentativas. Tente novamente em instantes."));
+    }
+
+    private void writeError(HttpServletResponse response, ApiError error) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static TokenBucketLimiter limiter(String spec, int tableSize) {
+        return new TokenBucketLimiter(RateLimitRule.parse(spec), tableSize);
+    }
+
+    private record Route(String name, TokenBucketLimiter ip, TokenBucketLimiter email) {}
+
+    /** Devolve ao controller o corpo já lido pelo filtro. */
+    private static final class ReplayedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        ReplayedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // o corpo já está todo em memória: avisa de imediato que há dados e que acabaram
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            var encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.revisaai.shared.security;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * Limite no formato {@code permissões/período}, por exemplo {@code 5/1m}: até 5 requisições
+ * em rajada e reposição contínua de uma permissão a cada 12 segundos.
+ */
+public record RateLimitRule(int permits, Duration period) {
+
+    public RateLimitRule {
+        if (permits <= 0 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Limite inválido: " + permits + "/" + period);
+        }
+    }
+
+    public static RateLimitRule parse(String spec) {
+        int slash = spec.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Limite deve ter o formato permissões/período: " + spec);
+        }
+        int permits = Integer.parseInt(spec.substring(0, slash).trim());
+        Duration period = DurationStyle.detectAndParse(spec.substring(slash + 1).trim());
+        return new RateLimitRule(permits, period);
+    }
+}
@@ -0,0 +1,53 @@
+package com.revisaai.shared.security;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Revogação de access tokens compartilhada entre os nós. Com {@code tokenId} invalida um único
+ * token (o {@code jti}); com {@code sessionId}, todos os tokens da sessão (o {@code sid}); sem
+ * nenhum dos dois, todos os tokens do usuário emitidos antes de {@code revokedAt}.
+ * O índice TTL remove o registro quando nenhum token afetado pode mais estar válido.
+ */
+@Document(collection = "revocations")
+public class Revocation {
+
+    @Id
+    private String id;
+
+    private String tokenId;
+
+    private String sessionId;
+
+    private String userId;
+
+    @Indexed
+    private Instant revokedAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    public Revocation() {}
+
+    public Revocation(String tokenId, String userId, Instant revokedAt, Instant expiresAt) {
+        this(tokenId, null, userId, revokedAt, expiresAt);
+    }
+
+    public Revocation(String tokenId, String sessionId, String userId, Instant revokedAt, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() { return id; }
+    public String getTokenId() { return tokenId; }
+    public String getSessionId() { return sessionId; }
+    public String getUserId() { return userId; }
+    public Instant getRevokedAt() { return revokedAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,11 @@
+package com.revisaai.shared.security;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+interface RevocationRepository extends MongoRepository<Revocation, String> {
+
+    List<Revocation> findByRevokedAtGreaterThanEqual(Instant since);
+}
@@ -0,0 +1,59 @@
+package com.revisaai.shared.security;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Cifra autenticada AES-256-GCM com chave derivada de um segredo da aplicação. O rótulo separa
+ * os usos: o mesmo segredo gera chaves diferentes para o cookie OAuth2 e para as chaves JWT.
+ * O resultado é {@code iv || texto cifrado || tag}.
+ */
+public final class SecretBox {
+
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    public SecretBox(String secret, String label) {
+        this.key = new SecretKeySpec(deriveKey(secret, label), "AES");
+    }
+
+    public byte[] seal(byte[] plain) {
+        try {
+            var iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            var cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            var encrypted = cipher.doFinal(plain);
+            return ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao cifrar com AES-GCM", e);
+        }
+    }
+
+    /** Lança {@link GeneralSecurityException} se o conteúdo foi alterado ou cifrado com outra chave. */
+    public byte[] open(byte[] sealed) throws GeneralSecurityException {
+        if (sealed.length <= IV_BYTES) throw new GeneralSecurityException("Conteúdo cifrado curto demais");
+        var cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 0, IV_BYTES));
+        return cipher.doFinal(sealed, IV_BYTES, sealed.length - IV_BYTES);
+    }
+
+    private static byte[] deriveKey(String secret, String label) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest((label + secret).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.revisaai.shared.security;
 
+import com.revisaai.auth.oauth2.HttpCookieOAuth2AuthorizationRequestRepository;
 import com.revisaai.auth.oauth2.OAuth2FailureHandler;
 import com.revisaai.auth.oauth2.OAuth2SuccessHandler;
 import com.revisaai.auth.oauth2.OAuth2UserServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -23,6 +29,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -34,18 +41,21 @@ public class SecurityConfig {
     private final OAuth2UserServiceImpl oauth2UserService;
     private final OAuth2SuccessHandler oauth2SuccessHandler;
     private final OAuth2FailureHandler oauth2FailureHandler;
+    private final HttpCookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
 
     public SecurityConfig(
             JwtAuthenticationFilter jwtAuthFilter,
             UserDetailsServiceImpl userDetailsService,
             OAuth2UserServiceImpl oauth2UserService,
             OAuth2SuccessHandler oauth2SuccessHandler,
-            OAuth2FailureHandler oauth2FailureHandler) {
+            OAuth2FailureHandler oauth2FailureHandler,
+            HttpCookieOAuth2AuthorizationRequestRepository authorizationRequestRepository) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.userDetailsService = userDetailsService;
         this.oauth2UserService = oauth2UserService;
         this.oauth2SuccessHandler = oauth2SuccessHandler;
         this.oauth2FailureHandler = oauth2FailureHandler;
+        this.authorizationRequestRepository = authorizationRequestRepository;
     }
 
     @Bean
@@ -53,12 +63,18 @@ public class SecurityConfig {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
-                .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
+                // sem sessão HTTP: o estado do login OAuth2 vai num cookie cifrado, e qualquer réplica atende o callback
+                .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // fim do streaming (/questions/stream): a requisição original já foi autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.POST,
                                 "/auth/register", "/auth/login", "/auth/refresh",
                                 "/auth/oauth2/exchange").permitAll()
                         .requestMatchers("/login/oauth2/**", "/oauth2/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
+                        // actuator atende só na porta de gestão, ligada à interface local
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(e -> e
@@ -66,20 +82,21 @@ public class SecurityConfig {
                                 res.sendError(HttpServletResponse.SC_FORBIDDEN))
                 )
                 .oauth2Login(oauth2 -> oauth2
+                        .authorizationEndpoint(endpoint -> endpoint
+                                .authorizationRequestRepository(authorizationRequestRepository))
                         .userInfoEndpoint(endpoint -> endpoint.userService(oauth2UserService))
                         .successHandler(oauth2SuccessHandler)
                         .failureHandler(oauth2FailureHandler)
                 )
-                .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         var provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
 
@@ -89,8 +106,16 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.security.password-hash.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${app.security.password-hash.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hash.timeout:5s}") Duration timeout,
+            @Value("${app.security.password-hash.retry-after:2s}") Duration retryAfter) {
+        // slices de teste (@WebMvcTest) não têm MeterRegistry no contexto
+        var registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), registry,
+                threads, queueCapacity, timeout, retryAfter);
     }
 
     @Bean
@@ -0,0 +1,65 @@
+package com.revisaai.shared.security;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Par de chaves de assinatura dos access tokens, identificado pelo {@code kid} do header JWT.
+ * A pública vai em X.509 e a privada em PKCS#8 cifrada com {@link SecretBox}. A chave passa a
+ * assinar em {@code activatesAt}, mas é publicada antes disso, e o índice TTL a remove quando
+ * nenhum token assinado por ela pode mais estar válido.
+ *
+ * <p>{@code succeeds} é o {@code kid} da antecessora ({@link #GENESIS} para a primeira chave). O
+ * índice único garante uma só sucessora por chave, mesmo com vários nós rotacionando ao mesmo
+ * tempo; chaves anteriores ao campo não entram no índice.
+ */
+@Document(collection = "jwt_signing_keys")
+public class SigningKey {
+
+    static final String GENESIS = "genesis";
+
+    @Id
+    private String kid;
+
+    private String algorithm;
+
+    private byte[] publicKey;
+
+    private byte[] privateKey;
+
+    private Instant createdAt;
+
+    private Instant activatesAt;
+
+    @Indexed(unique = true, sparse = true)
+    private String succeeds;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    public SigningKey() {}
+
+    public SigningKey(String kid, String algorithm, byte[] publicKey, byte[] privateKey,
+                      Instant createdAt, Instant activatesAt, String succeeds, Instant expiresAt) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.createdAt = createdAt;
+        this.activatesAt = activatesAt;
+        this.succeeds = succeeds;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getKid() { return kid; }
+    public String getAlgorithm() { return algorithm; }
+    public byte[] getPublicKey() { return publicKey; }
+    public byte[] getPrivateKey() { return privateKey; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getActivatesAt() { return activatesAt; }
+    public String getSucceeds() { return succeeds; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
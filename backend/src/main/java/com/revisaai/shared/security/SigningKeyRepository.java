@@ -0,0 +1,11 @@
+package com.revisaai.shared.security;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+interface SigningKeyRepository extends MongoRepository<SigningKey, String> {
+
+    List<SigningKey> findByExpiresAtAfter(Instant now);
+}
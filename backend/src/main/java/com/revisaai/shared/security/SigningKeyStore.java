@@ -0,0 +1,21 @@
+package com.revisaai.shared.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Guarda as chaves de assinatura JWT. A implementação é escolhida por {@code app.jwt.key-store}:
+ * {@code mongo} (padrão, chaves compartilhadas entre os nós e preservadas entre reinícios) ou
+ * {@code memory} (um único nó; cada reinício gera chaves novas e invalida os access tokens).
+ */
+public interface SigningKeyStore {
+
+    /** Chaves que ainda não expiraram, publicadas ou não. */
+    List<SigningKey> findUnexpired(Instant now);
+
+    /**
+     * Grava a chave se nenhuma outra já sucede a mesma antecessora ({@link SigningKey#getSucceeds()});
+     * {@code false} quando outro nó chegou antes.
+     */
+    boolean insertIfAbsent(SigningKey key);
+}
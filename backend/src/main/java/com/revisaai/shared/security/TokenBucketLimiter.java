@@ -0,0 +1,107 @@
+package com.revisaai.shared.security;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket sem locks e com memória fixa, para limitar tentativas por chave (IP, e-mail).
+ *
+ * <p>Cada bucket é guardado como um único {@code long}: o instante teórico em que ele volta a
+ * ficar cheio (GCRA, equivalente ao token bucket clássico). Uma requisição é aceita se esse
+ * instante, descontada a rajada permitida, já passou; aceitar avança o instante em um intervalo.
+ * A atualização é um CAS, sem lock nem alocação.
+ *
+ * <p>As chaves não são armazenadas: cada uma cai em uma célula de cada uma das duas linhas de uma
+ * tabela de tamanho fixo (como um count-min sketch), e vale a célula menos carregada. Colisões só
+ * podem deixar o limite mais rígido para a chave que colidiu nas duas linhas, nunca mais frouxo,
+ * e o hash usa uma semente aleatória por instância para que não sejam forjadas de fora.
+ */
+public final class TokenBucketLimiter {
+
+    private static final int ROWS = 2;
+
+    private final AtomicLongArray cells;
+    private final int width;
+    private final int mask;
+    private final long interval;
+    private final long tolerance;
+    private final long seed;
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    public TokenBucketLimiter(RateLimitRule rule, int tableSize) {
+        this(rule, tableSize, System::nanoTime);
+    }
+
+    TokenBucketLimiter(RateLimitRule rule, int tableSize, LongSupplier nanoClock) {
+        if (tableSize <= 0) throw new IllegalArgumentException("tableSize deve ser positivo");
+        int size = Integer.highestOneBit(tableSize);
+        this.width = size < tableSize ? size << 1 : size;
+        this.mask = width - 1;
+        this.cells = new AtomicLongArray(ROWS * width);
+        this.interval = Math.max(1, rule.period().toNanos() / rule.permits());
+        this.tolerance = interval * (rule.permits() - 1);
+        this.seed = ThreadLocalRandom.current().nextLong();
+        this.nanoClock = nanoClock;
+        // célula zerada = bucket cheio; o relógio relativo começa acima da rajada máxima
+        this.origin = nanoClock.getAsLong() - tolerance - interval;
+    }
+
+    /**
+     * Consome uma permissão da chave.
+     *
+     * @return 0 se a requisição foi aceita, ou quantos nanossegundos faltam para a próxima permissão
+     */
+    public long tryAcquire(String key) {
+        long hash = hash(key);
+        int first = index(0, (int) hash);
+        int second = index(1, (int) (hash >>> 32));
+
+        while (true) {
+            long now = nanoClock.getAsLong() - origin;
+            long tatFirst = cells.get(first);
+            long tatSecond = cells.get(second);
+            int cell = tatFirst <= tatSecond ? first : second;
+            long tat = Math.min(tatFirst, tatSecond);
+
+            long allowedAt = tat - tolerance;
+            if (now < allowedAt) return allowedAt - now;
+
+            long next = Math.max(tat, now) + interval;
+            // a outra célula sobe antes do CAS: quem ler as duas no meio da atualização continua
+            // escolhendo esta como mínima e disputa o mesmo CAS, sem aceitar a mesma permissão duas vezes
+            raise(cell == first ? second : first, next);
+            if (cells.compareAndSet(cell, tat, next)) return 0;
+        }
+    }
+
+    /** Bytes ocupados pela tabela, independentemente de quantas chaves já passaram por ela. */
+    public long footprintBytes() {
+        return (long) cells.length() * Long.BYTES;
+    }
+
+    private void raise(int cell, long value) {
+        long current;
+        do {
+            current = cells.get(cell);
+            if (current >= value) return;
+        } while (!cells.compareAndSet(cell, current, value));
+    }
+
+    private int index(int row, int hash) {
+        return row * width + (hash & mask);
+    }
+
+    private long hash(String key) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,191 @@
+package com.revisaai.shared.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revogação de access tokens checada em memória, sem I/O no caminho da requisição.
+ *
+ * <p>Três tipos de entrada: o {@code jti} de um token, o {@code sid} de uma sessão encerrada e,
+ * por usuário, o instante a partir do qual tokens emitidos antes dele deixam de valer (logout em
+ * todos os dispositivos). {@code jti} e {@code sid} ficam num conjunto exato com um filtro de
+ * Bloom na frente, então quase todo token válido é liberado pelo filtro sem consultar o mapa.
+ * Uma entrada só existe enquanto algum token afetado pode estar dentro da validade; o estado fica
+ * do tamanho das revogações recentes, não da base de usuários.
+ *
+ * <p>As revogações são gravadas no MongoDB e cada nó busca só as novas a cada
+ * {@code app.security.revocation.refresh-interval}: quem revoga aplica na hora, os demais nós em
+ * até um intervalo.
+ */
+@Component
+public class TokenDenylist implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenDenylist.class);
+    private static final double BLOOM_FPP = 0.01;
+    // revokedAt vem do relógio de quem revogou: a janela sobreposta absorve a diferença entre nós
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+
+    private final Map<String, Instant> revokedIds = new ConcurrentHashMap<>();
+    private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+    private final RevocationRepository repository;
+    private final long tokenLifetimeMs;
+    private final int expectedEntries;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService poller;
+    private volatile BloomFilter bloom;
+    private Instant polledUntil;
+
+    @Autowired
+    public TokenDenylist(
+            RevocationRepository repository,
+            @Value("${app.jwt.expiration}") long tokenLifetimeMs,
+            @Value("${app.security.revocation.expected-entries:100000}") int expectedEntries,
+            @Value("${app.security.revocation.refresh-interval:5s}") Duration refreshInterval) {
+        this(repository, tokenLifetimeMs, expectedEntries, refreshInterval, Clock.systemUTC(), true);
+    }
+
+    TokenDenylist(RevocationRepository repository, long tokenLifetimeMs, int expectedEntries,
+                  Duration refreshInterval, Clock clock, boolean startPoller) {
+        this.repository = repository;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.expectedEntries = expectedEntries;
+        this.clock = clock;
+        this.bloom = BloomFilter.create(expectedEntries, BLOOM_FPP);
+        if (startPoller) {
+            var threadFactory = new CustomizableThreadFactory("token-revocation-poll-");
+            threadFactory.setDaemon(true);
+            this.poller = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            poller.scheduleWithFixedDelay(this::pollQuietly,
+                    0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.poller = null;
+        }
+    }
+
+    /** Invalida um único access token pelo {@code jti}, até a expiração dele. */
+    public void revokeToken(JwtClaims claims) {
+        // tokens emitidos antes do jti só podem ser revogados por usuário
+        if (claims.tokenId() == null) return;
+        var expiresAt = claims.expiresAt() != null
+                ? claims.expiresAt()
+                : clock.instant().plusMillis(tokenLifetimeMs);
+        addRevokedId(claims.tokenId(), expiresAt);
+        repository.insert(new Revocation(claims.tokenId(), claims.userId(), clock.instant(), expiresAt));
+        log.info("Access token revogado para userId={}", claims.userId());
+    }
+
+    /** Invalida os access tokens já emitidos para a sessão; a sessão não emite outros. */
+    public void revokeSession(String userId, String sessionId) {
+        var now = clock.instant();
+        var expiresAt = now.plusMillis(tokenLifetimeMs);
+        addRevokedId(sessionId, expiresAt);
+        repository.insert(new Revocation(null, sessionId, userId, now, expiresAt));
+        log.info("Sessão {} revogada para userId={}", sessionId, userId);
+    }
+
+    /** Invalida todos os access tokens do usuário emitidos até agora. */
+    public void revokeUser(String userId) {
+        // iat tem precisão de segundos: tokens do mesmo segundo da revogação continuam válidos
+        var now = clock.instant().truncatedTo(ChronoUnit.SECONDS);
+        addUser(userId, now);
+        purgeExpired();
+        repository.insert(new Revocation(null, userId, now, now.plusMillis(tokenLifetimeMs)));
+        log.info("Access tokens revogados para userId={}", userId);
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        if (isRevokedId(claims.tokenId()) || isRevokedId(claims.sessionId())) return true;
+        if (revokedBefore.isEmpty() || claims.userId() == null) return false;
+        var cutoff = revokedBefore.get(claims.userId());
+        return cutoff != null && claims.issuedAt() != null && claims.issuedAt().isBefore(cutoff);
+    }
+
+    /** Busca as revogações gravadas desde a última consulta, inclusive as de outros nós. */
+    void poll() {
+        var now = clock.instant();
+        var since = polledUntil != null ? polledUntil.minus(POLL_OVERLAP) : now.minusMillis(tokenLifetimeMs);
+        for (var revocation : repository.findByRevokedAtGreaterThanEqual(since)) {
+            if (!revocation.getExpiresAt().isAfter(now)) continue;
+            if (revocation.getTokenId() != null) {
+                addRevokedId(revocation.getTokenId(), revocation.getExpiresAt());
+            } else if (revocation.getSessionId() != null) {
+                addRevokedId(revocation.getSessionId(), revocation.getExpiresAt());
+            } else {
+                addUser(revocation.getUserId(), revocation.getRevokedAt());
+            }
+        }
+        polledUntil = now;
+        purgeExpired();
+    }
+
+    int size() {
+        return revokedIds.size() + revokedBefore.size();
+    }
+
+    @Override
+    public void destroy() {
+        if (poller != null) poller.shutdownNow();
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao buscar revogações de access tokens: {}", e.getMessage());
+        }
+    }
+
+    private boolean isRevokedId(String id) {
+        return id != null && bloom.mightContain(id) && revokedIds.containsKey(id);
+    }
+
+    // mapa antes do filtro: quem vê o bit ligado já enxerga a entrada exata
+    private void addRevokedId(String id, Instant expiresAt) {
+        lock.lock();
+        try {
+            if (revokedIds.putIfAbsent(id, expiresAt) == null) bloom.put(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addUser(String userId, Instant cutoff) {
+        revokedBefore.merge(userId, cutoff, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    private void purgeExpired() {
+        var now = clock.instant();
+        var limit = now.minusMillis(tokenLifetimeMs);
+        revokedBefore.values().removeIf(cutoff -> cutoff.isBefore(limit));
+        if (revokedIds.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) rebuildBloom();
+    }
+
+    // o filtro não remove: reconstruído a partir do conjunto exato quando entradas expiram
+    private void rebuildBloom() {
+        lock.lock();
+        try {
+            var fresh = BloomFilter.create(Math.max(expectedEntries, 2 * revokedIds.size()), BLOOM_FPP);
+            revokedIds.keySet().forEach(fresh::put);
+            bloom = fresh;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
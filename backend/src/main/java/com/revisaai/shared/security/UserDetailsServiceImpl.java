@@ -1,6 +1,14 @@
 package com.revisaai.shared.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.revisaai.user.UserChangedEvent;
 import com.revisaai.user.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -8,19 +16,57 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 
+/**
+ * Carrega o principal pelo userId para o modo {@link PrincipalSource#DATABASE}.
+ *
+ * <p>Um cache limitado e com TTL curto fica na frente do MongoDB: cargas concorrentes do mesmo
+ * userId viram uma única consulta, e um {@link UserChangedEvent} remove a entrada na hora.
+ * Sem o evento (outro nó alterou o usuário), a defasagem máxima é o TTL.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final Cache<String, UserDetails> cache;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.principal-cache.ttl:30s}") Duration ttl) {
         this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user-principals");
+        Gauge.builder("security.principal.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Fração das cargas de principal atendidas sem consulta ao MongoDB")
+                .register(meterRegistry);
     }
 
     @Override
     public UserDetails loadUserByUsername(String userId) throws UsernameNotFoundException {
+        var cached = cache.get(userId, this::loadFromDatabase);
+        // cópia por requisição: eraseCredentials em uma autenticação não pode alterar a entrada do cache
+        return User.withUserDetails(cached).build();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.userId());
+    }
+
+    public void evict(String userId) {
+        cache.invalidate(userId);
+    }
+
+    private UserDetails loadFromDatabase(String userId) {
         com.revisaai.user.User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + userId));
 
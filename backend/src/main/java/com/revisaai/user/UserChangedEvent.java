@@ -0,0 +1,4 @@
+package com.revisaai.user;
+
+/** Publicado quando dados do usuário que compõem o principal (senha, perfil) mudam. */
+public record UserChangedEvent(String userId) {}
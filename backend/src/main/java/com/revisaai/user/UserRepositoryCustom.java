@@ -0,0 +1,16 @@
+package com.revisaai.user;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Cria o usuário de um login social se o e-mail ainda não existe, ou atualiza nome, foto e
+     * {@code providerId} se mudaram. Usuário existente sem mudanças não gera escrita. A unicidade
+     * vem do índice em {@code email}: logins simultâneos do mesmo e-mail criam um único usuário.
+     */
+    SocialUpsert upsertSocialUser(String email, String name, String pictureUrl,
+                                  AuthProvider provider, String providerId);
+
+    record SocialUpsert(User user, Outcome outcome) {}
+
+    enum Outcome { CREATED, UPDATED, UNCHANGED }
+}
@@ -0,0 +1,66 @@
+package com.revisaai.user;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public SocialUpsert upsertSocialUser(String email, String name, String pictureUrl,
+                                         AuthProvider provider, String providerId) {
+        var now = Instant.now();
+        // id gerado aqui para distinguir a inserção; auditoria não roda em findAndModify
+        var id = new ObjectId();
+        var current = mongoTemplate.findAndModify(
+                query(where("email").is(email)),
+                new Update()
+                        .setOnInsert("_id", id)
+                        .setOnInsert("name", name)
+                        .setOnInsert("pictureUrl", pictureUrl)
+                        .setOnInsert("provider", provider)
+                        .setOnInsert("providerId", providerId)
+                        .setOnInsert("createdAt", now)
+                        .setOnInsert("updatedAt", now),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                User.class);
+        if (id.toHexString().equals(current.getId())) {
+            return new SocialUpsert(current, Outcome.CREATED);
+        }
+        if (Objects.equals(current.getName(), name)
+                && Objects.equals(current.getPictureUrl(), pictureUrl)
+                && Objects.equals(current.getProviderId(), providerId)) {
+            return new SocialUpsert(current, Outcome.UNCHANGED);
+        }
+
+        // condicional: entre logins simultâneos só o primeiro escreve
+        var updated = mongoTemplate.findAndModify(
+                query(where("_id").is(current.getId()).orOperator(
+                        where("name").ne(name),
+                        where("pictureUrl").ne(pictureUrl),
+                        where("providerId").ne(providerId))),
+                new Update()
+                        .set("name", name)
+                        .set("pictureUrl", pictureUrl)
+                        .set("providerId", providerId)
+                        .set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        return updated != null
+                ? new SocialUpsert(updated, Outcome.UPDATED)
+                : new SocialUpsert(current, Outcome.UNCHANGED);
+    }
+}
@@ -2,12 +2,13 @@ package com.revisaai.auth;
 
 import com.revisaai.auth.dto.AuthResponse;
 import com.revisaai.auth.oauth2.AuthCode;
-import com.revisaai.auth.oauth2.AuthCodeRepository;
+import com.revisaai.auth.oauth2.AuthCodeStore;
 import com.revisaai.shared.exception.InvalidCredentialsException;
 import com.revisaai.shared.security.JwtService;
 import com.revisaai.user.AuthProvider;
 import com.revisaai.user.User;
 import com.revisaai.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,7 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 
@@ -34,58 +36,48 @@ class AuthCodeExchangeTest {
 
     @Mock private UserRepository userRepository;
     @Mock private RefreshTokenRepository refreshTokenRepository;
-    @Mock private AuthCodeRepository authCodeRepository;
+    @Mock private AuthCodeStore authCodeStore;
     @Mock private JwtService jwtService;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private SessionRegistry sessionRegistry;
 
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
         authService = new AuthService(
-                userRepository, refreshTokenRepository, authCodeRepository,
-                jwtService, passwordEncoder, 604_800_000L, false
+                userRepository, refreshTokenRepository, authCodeStore,
+                jwtService, passwordEncoder, new RefreshCoalescer(Duration.ofSeconds(10)),
+                sessionRegistry, new SimpleMeterRegistry(),
+                604_800_000L, Duration.ofHours(24), false
         );
     }
 
     @Test
-    @DisplayName("code válido → retorna AuthResponse e deleta o code")
+    @DisplayName("code válido → consome o code e retorna AuthResponse")
     void exchangeOAuth2Code_validCode_returnsTokenAndDeletesCode() {
         var user = new User("ana@test.com", null, "Ana", AuthProvider.GOOGLE);
         ReflectionTestUtils.setField(user, "id", "user-123");
         var authCode = new AuthCode("valid-code", "user-123", Instant.now().plusSeconds(60));
 
-        given(authCodeRepository.findByCode("valid-code")).willReturn(Optional.of(authCode));
+        given(authCodeStore.consume("valid-code")).willReturn(Optional.of(authCode));
         given(userRepository.findById("user-123")).willReturn(Optional.of(user));
-        given(jwtService.generateAccessToken(anyString(), anyString())).willReturn("access.token");
-        given(refreshTokenRepository.save(any())).willAnswer(inv -> inv.getArgument(0));
+        given(jwtService.generateAccessToken(anyString(), anyString(), anyString())).willReturn("access.token");
+        given(refreshTokenRepository.insert(any(RefreshToken.class))).willAnswer(inv -> inv.getArgument(0));
 
         AuthResponse result = authService.exchangeOAuth2Code("valid-code", new MockHttpServletResponse());
 
         assertThat(result.accessToken()).isEqualTo("access.token");
-        verify(authCodeRepository).deleteByCode("valid-code");
+        verify(authCodeStore).consume("valid-code");
     }
 
     @Test
     @DisplayName("code inexistente → lança InvalidCredentialsException")
     void exchangeOAuth2Code_invalidCode_throwsInvalidCredentials() {
-        given(authCodeRepository.findByCode("invalid")).willReturn(Optional.empty());
+        given(authCodeStore.consume("invalid")).willReturn(Optional.empty());
 
         assertThatThrownBy(() ->
                 authService.exchangeOAuth2Code("invalid", new MockHttpServletResponse()))
                 .isInstanceOf(InvalidCredentialsException.class);
     }
-
-    @Test
-    @DisplayName("code expirado → deleta code e lança InvalidCredentialsException")
-    void exchangeOAuth2Code_expiredCode_deletesAndThrows() {
-        var authCode = new AuthCode("expired-code", "user-123", Instant.now().minusSeconds(10));
-        given(authCodeRepository.findByCode("expired-code")).willReturn(Optional.of(authCode));
-
-        assertThatThrownBy(() ->
-                authService.exchangeOAuth2Code("expired-code", new MockHttpServletResponse()))
-                .isInstanceOf(InvalidCredentialsException.class);
-
-        verify(authCodeRepository).deleteByCode("expired-code");
-    }
 }
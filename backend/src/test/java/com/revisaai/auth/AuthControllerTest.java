@@ -4,13 +4,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.revisaai.auth.dto.AuthResponse;
 import com.revisaai.auth.dto.LoginRequest;
 import com.revisaai.auth.dto.RegisterRequest;
+import com.revisaai.auth.dto.SessionResponse;
+import com.revisaai.auth.oauth2.HttpCookieOAuth2AuthorizationRequestRepository;
 import com.revisaai.auth.oauth2.OAuth2FailureHandler;
 import com.revisaai.auth.oauth2.OAuth2SuccessHandler;
 import com.revisaai.auth.oauth2.OAuth2UserServiceImpl;
 import com.revisaai.shared.exception.InvalidCredentialsException;
+import com.revisaai.shared.exception.ServiceOverloadedException;
+import com.revisaai.shared.exception.SessionNotFoundException;
 import com.revisaai.shared.exception.UserAlreadyExistsException;
+import com.revisaai.shared.security.JwtAuthenticationFilter;
+import com.revisaai.shared.security.JwtClaims;
 import com.revisaai.shared.security.JwtService;
 import com.revisaai.shared.security.SecurityConfig;
+import com.revisaai.shared.security.TokenDenylist;
 import com.revisaai.shared.security.UserDetailsServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,9 +28,20 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,10 +57,13 @@ class AuthControllerTest {
 
     @MockBean JwtService jwtService;
     @MockBean UserDetailsServiceImpl userDetailsService;
+    @MockBean TokenDenylist tokenDenylist;
     @MockBean AuthService authService;
+    @MockBean SessionRegistry sessionRegistry;
     @MockBean OAuth2UserServiceImpl oauth2UserService;
     @MockBean OAuth2SuccessHandler oauth2SuccessHandler;
     @MockBean OAuth2FailureHandler oauth2FailureHandler;
+    @MockBean HttpCookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
 
     @Test
     @DisplayName("POST /auth/register com body válido deve retornar 201")
@@ -127,6 +148,100 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.message").exists());
     }
 
+    @Test
+    @DisplayName("POST /auth/login com pool de hash saturado deve retornar 503 com Retry-After")
+    void login_withHashPoolSaturated_returns503() throws Exception {
+        var request = new LoginRequest("ana@test.com", "senha123");
+        given(authService.login(any(), any()))
+                .willThrow(new ServiceOverloadedException("Servidor ocupado", Duration.ofSeconds(2)));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
+    @Test
+    @DisplayName("POST /auth/login acima do limite por e-mail deve retornar 429 sem chamar o AuthService")
+    void login_aboveEmailRateLimit_returns429() throws Exception {
+        var request = new LoginRequest("alvo@test.com", "errada");
+        given(authService.login(any(), any()))
+                .willThrow(new InvalidCredentialsException());
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        verify(authService, times(5)).login(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /auth/logout autenticado deve retornar 204 e encerrar a sessão do token")
+    void logout_authenticated_returns204() throws Exception {
+        var claims = new JwtClaims("user-1", "ana@test.com", List.of("USER"),
+                Instant.now(), Instant.now().plusSeconds(900), "jti-1", "family-1");
+
+        mockMvc.perform(post("/auth/logout")
+                        .with(user("user-1"))
+                        .requestAttr(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, claims))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout(eq(claims), any());
+    }
+
+    @Test
+    @DisplayName("POST /auth/logout-all sem token deve retornar 403")
+    void logoutAll_withoutToken_returns403() throws Exception {
+        mockMvc.perform(post("/auth/logout-all"))
+                .andExpect(status().isForbidden());
+
+        verify(authService, never()).logoutEverywhere(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /auth/sessions deve listar as sessões do usuário marcando a atual")
+    void sessions_authenticated_returnsSessions() throws Exception {
+        var claims = new JwtClaims("user-1", "ana@test.com", List.of("USER"),
+                Instant.now(), Instant.now().plusSeconds(900), "jti-1", "family-1");
+        var now = Instant.now();
+        given(sessionRegistry.list("user-1", "family-1")).willReturn(List.of(
+                new SessionResponse("family-1", now, now, now.plusSeconds(3600), true),
+                new SessionResponse("family-2", now, now, now.plusSeconds(3600), false)));
+
+        mockMvc.perform(get("/auth/sessions")
+                        .with(user("user-1"))
+                        .requestAttr(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, claims))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value("family-1"))
+                .andExpect(jsonPath("$[0].current").value(true));
+    }
+
+    @Test
+    @DisplayName("DELETE /auth/sessions/{id} de sessão inexistente deve retornar 404")
+    void revokeSession_unknownSession_returns404() throws Exception {
+        var claims = new JwtClaims("user-1", "ana@test.com", List.of("USER"),
+                Instant.now(), Instant.now().plusSeconds(900), "jti-1", "family-1");
+        willThrow(new SessionNotFoundException("family-9")).given(sessionRegistry).revoke("user-1", "family-9");
+
+        mockMvc.perform(delete("/auth/sessions/family-9")
+                        .with(user("user-1"))
+                        .requestAttr(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, claims))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
     @Test
     @DisplayName("POST /auth/oauth2/exchange com code válido deve retornar 200")
     void exchange_withValidCode_returns200() throws Exception {
@@ -3,22 +3,40 @@ package com.revisaai.auth;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.revisaai.auth.dto.LoginRequest;
 import com.revisaai.auth.dto.RegisterRequest;
+import com.revisaai.user.AuthProvider;
+import com.revisaai.user.User;
+import com.revisaai.user.UserRepository;
+import com.revisaai.user.UserRepositoryCustom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +48,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @DisplayName("Auth — Integration Tests")
 class AuthIntegrationTest {
 
+    private static final int MAX_SESSIONS = 3;
+
     @Container
     static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7");
 
@@ -37,11 +57,12 @@ class AuthIntegrationTest {
     static void mongoProps(DynamicPropertyRegistry registry) {
         registry.add("spring.data.mongodb.uri",
                 () -> mongoDBContainer.getConnectionString() + "/revisaai_test");
+        registry.add("app.security.sessions.max-per-user", () -> MAX_SESSIONS);
     }
 
     @Autowired MockMvc mockMvc;
     @Autowired ObjectMapper objectMapper;
-    @Autowired com.revisaai.user.UserRepository userRepository;
+    @Autowired UserRepository userRepository;
     @Autowired RefreshTokenRepository refreshTokenRepository;
 
     @BeforeEach
@@ -81,6 +102,50 @@ class AuthIntegrationTest {
                 .andExpect(jsonPath("$.accessToken", notNullValue()));
     }
 
+    @Test
+    @DisplayName("refreshes concorrentes com o mesmo token colapsam em uma única rotação")
+    void refresh_concurrentSameToken_collapseIntoOneRotation() throws Exception {
+        String cookie = registerAndGetRefreshCookie("concorrente@test.com");
+        int threads = 8;
+        var start = new CountDownLatch(1);
+        var issuedCookies = ConcurrentHashMap.<String>newKeySet();
+        var succeeded = new AtomicInteger();
+
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    var response = mockMvc.perform(post("/auth/refresh").header("Cookie", cookie))
+                            .andReturn().getResponse();
+                    if (response.getStatus() == 200) {
+                        succeeded.incrementAndGet();
+                        issuedCookies.add(response.getHeader("Set-Cookie").split(";")[0]);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) future.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(succeeded.get()).isEqualTo(threads);
+        assertThat(issuedCookies).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("refresh com token cujo sucessor já foi usado deve revogar a família inteira")
+    void refresh_reusedToken_revokesFamily() throws Exception {
+        String original = registerAndGetRefreshCookie("reuso@test.com");
+        String second = refreshAndGetCookie(original);
+        String third = refreshAndGetCookie(second);
+
+        mockMvc.perform(post("/auth/refresh").header("Cookie", original))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/refresh").header("Cookie", third))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @DisplayName("register com e-mail duplicado deve retornar 409")
     void register_duplicateEmail_returns409() throws Exception {
@@ -114,4 +179,193 @@ class AuthIntegrationTest {
         mockMvc.perform(get("/questions"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @DisplayName("logout invalida o access token e o refresh token da sessão, sem afetar as outras")
+    void logout_revokesOnlyCurrentSession() throws Exception {
+        var first = register("logout@test.com");
+        var second = login("logout@test.com");
+
+        mockMvc.perform(post("/auth/logout").header("Authorization", "Bearer " + first.accessToken()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/questions").header("Authorization", "Bearer " + first.accessToken()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/auth/refresh").header("Cookie", first.cookie()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/questions").header("Authorization", "Bearer " + second.accessToken()))
+                .andExpect(status().isOk());
+        refreshAndGetCookie(second.cookie());
+    }
+
+    @Test
+    @DisplayName("logout em todas as sessões invalida os tokens de todos os dispositivos")
+    void logoutAll_revokesEverySession() throws Exception {
+        var first = register("logout-all@test.com");
+        var second = login("logout-all@test.com");
+        // iat tem precisão de segundos: a revogação por usuário vale para tokens de segundos anteriores
+        Thread.sleep(1_100);
+
+        mockMvc.perform(post("/auth/logout-all").header("Authorization", "Bearer " + second.accessToken()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/questions").header("Authorization", "Bearer " + first.accessToken()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/auth/refresh").header("Cookie", first.cookie()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/refresh").header("Cookie", second.cookie()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("login além do limite de sessões encerra a usada há mais tempo")
+    void login_beyondSessionLimit_evictsLeastRecentlyUsed() throws Exception {
+        var oldest = register("cap@test.com");
+        var sessions = new ArrayList<Session>();
+        for (int i = 1; i < MAX_SESSIONS; i++) sessions.add(login("cap@test.com"));
+        var newest = login("cap@test.com");
+
+        mockMvc.perform(post("/auth/refresh").header("Cookie", oldest.cookie()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/questions").header("Authorization", "Bearer " + oldest.accessToken()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/auth/sessions").header("Authorization", "Bearer " + newest.accessToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(MAX_SESSIONS))
+                .andExpect(jsonPath("$[0].current").value(true));
+        refreshAndGetCookie(sessions.get(0).cookie());
+    }
+
+    @Test
+    @DisplayName("sessão antiga sem família é encerrada sozinha, sem apagar tokens sem família de outros usuários")
+    void login_beyondSessionLimit_evictsLegacyTokenOnly() throws Exception {
+        var first = register("legacy@test.com");
+        var userId = userRepository.findByEmail("legacy@test.com").orElseThrow().getId();
+        refreshTokenRepository.deleteAll();
+        refreshTokenRepository.insert(new RefreshToken("legacy-own", userId, null, Instant.now().plusSeconds(3600)));
+        refreshTokenRepository.insert(new RefreshToken("legacy-other", "other-user", null, Instant.now().plusSeconds(3600)));
+
+        for (int i = 0; i < MAX_SESSIONS; i++) login("legacy@test.com");
+
+        assertThat(refreshTokenRepository.findByToken("legacy-own")).isEmpty();
+        assertThat(refreshTokenRepository.findByToken("legacy-other")).isPresent();
+        mockMvc.perform(get("/questions").header("Authorization", "Bearer " + first.accessToken()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("sessão encerrada entre o consume e o insert da rotação não deixa o sucessor vivo")
+    void revokeFamily_duringRotation_reservesSuccessor() {
+        var now = Instant.now();
+        refreshTokenRepository.insert(new RefreshToken("rotating", "user-1", "a@test.com", "family-1", null, now.plusSeconds(3600)));
+        // a rotação consumiu o token e ainda não gravou o sucessor
+        refreshTokenRepository.consume("rotating", "successor", now, now.plusSeconds(3600));
+
+        assertThat(refreshTokenRepository.revokeFamily("user-1", "family-1", now)).isEqualTo(1);
+
+        assertThatThrownBy(() -> refreshTokenRepository.insert(
+                new RefreshToken("successor", "user-1", "a@test.com", "family-1", null, now.plusSeconds(3600))))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(refreshTokenRepository.findActiveSessions("user-1", now)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("sessão encerrada depois do insert do sucessor apaga o sucessor junto com a família")
+    void revokeFamily_afterRotation_removesSuccessor() {
+        var now = Instant.now();
+        refreshTokenRepository.insert(new RefreshToken("rotated", "user-1", "a@test.com", "family-1", null, now.plusSeconds(3600)));
+        refreshTokenRepository.consume("rotated", "successor", now, now.plusSeconds(3600));
+        refreshTokenRepository.insert(new RefreshToken("successor", "user-1", "a@test.com", "family-1", null, now.plusSeconds(3600)));
+
+        assertThat(refreshTokenRepository.revokeFamily("user-1", "family-1", now)).isEqualTo(2);
+
+        assertThat(refreshTokenRepository.findByToken("successor")).isEmpty();
+        assertThat(refreshTokenRepository.revokeFamily("other-user", "family-1", now)).isZero();
+    }
+
+    @Test
+    @DisplayName("revogar uma sessão pelo id invalida os tokens dela; de outro usuário retorna 404")
+    void revokeSession_byId_revokesOnlyThatSession() throws Exception {
+        var laptop = register("devices@test.com");
+        var phone = login("devices@test.com");
+        var intruder = register("intruder@test.com");
+        var body = mockMvc.perform(get("/auth/sessions").header("Authorization", "Bearer " + phone.accessToken()))
+                .andReturn().getResponse().getContentAsString();
+        var laptopId = objectMapper.readTree(body).get(1).get("id").asText();
+
+        mockMvc.perform(delete("/auth/sessions/" + laptopId).header("Authorization", "Bearer " + intruder.accessToken()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/auth/sessions/" + laptopId).header("Authorization", "Bearer " + phone.accessToken()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/questions").header("Authorization", "Bearer " + laptop.accessToken()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/auth/refresh").header("Cookie", laptop.cookie()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/questions").header("Authorization", "Bearer " + phone.accessToken()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("upsert de login social cria o usuário uma vez e só escreve quando o perfil muda")
+    void upsertSocialUser_writesOnlyOnChange() {
+        var created = userRepository.upsertSocialUser("social@test.com", "Ana", "http://pic.png",
+                AuthProvider.GOOGLE, "google-1");
+        var unchanged = userRepository.upsertSocialUser("social@test.com", "Ana", "http://pic.png",
+                AuthProvider.GOOGLE, "google-1");
+        var updated = userRepository.upsertSocialUser("social@test.com", "Ana Nova", "http://pic.png",
+                AuthProvider.GOOGLE, "google-1");
+
+        assertThat(created.outcome()).isEqualTo(UserRepositoryCustom.Outcome.CREATED);
+        assertThat(unchanged.outcome()).isEqualTo(UserRepositoryCustom.Outcome.UNCHANGED);
+        assertThat(unchanged.user().getId()).isEqualTo(created.user().getId());
+        assertThat(unchanged.user().getUpdatedAt()).isEqualTo(created.user().getUpdatedAt());
+        assertThat(updated.outcome()).isEqualTo(UserRepositoryCustom.Outcome.UPDATED);
+        assertThat(updated.user().getName()).isEqualTo("Ana Nova");
+        assertThat(userRepository.findByEmail("social@test.com")).get()
+                .extracting(User::getProvider).isEqualTo(AuthProvider.GOOGLE);
+    }
+
+    private Session register(String email) throws Exception {
+        var request = new RegisterRequest("Ana Silva", email, "senha123");
+        return session(mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn());
+    }
+
+    private Session login(String email) throws Exception {
+        var request = new LoginRequest(email, "senha123");
+        return session(mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn());
+    }
+
+    private Session session(MvcResult result) throws Exception {
+        var body = objectMapper.readTree(result.getResponse().getContentAsString());
+        return new Session(body.get("accessToken").asText(),
+                result.getResponse().getHeader("Set-Cookie").split(";")[0]);
+    }
+
+    private record Session(String accessToken, String cookie) {}
+
+    private String refreshAndGetCookie(String cookie) throws Exception {
+        var result = mockMvc.perform(post("/auth/refresh").header("Cookie", cookie))
+                .andExpect(status().isOk())
+                .andReturn();
+        return result.getResponse().getHeader("Set-Cookie").split(";")[0];
+    }
+
+    private String registerAndGetRefreshCookie(String email) throws Exception {
+        var request = new RegisterRequest("Ana Silva", email, "senha123");
+        var result = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return result.getResponse().getHeader("Set-Cookie").split(";")[0];
+    }
 }
@@ -3,30 +3,43 @@ package com.revisaai.auth;
 import com.revisaai.auth.dto.AuthResponse;
 import com.revisaai.auth.dto.LoginRequest;
 import com.revisaai.auth.dto.RegisterRequest;
-import com.revisaai.auth.oauth2.AuthCodeRepository;
+import com.revisaai.auth.oauth2.AuthCodeStore;
 import com.revisaai.shared.exception.InvalidCredentialsException;
 import com.revisaai.shared.exception.UserAlreadyExistsException;
+import com.revisaai.shared.security.JwtClaims;
 import com.revisaai.shared.security.JwtService;
 import com.revisaai.user.AuthProvider;
 import com.revisaai.user.User;
 import com.revisaai.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("AuthService")
@@ -34,9 +47,12 @@ class AuthServiceTest {
 
     @Mock private UserRepository userRepository;
     @Mock private RefreshTokenRepository refreshTokenRepository;
-    @Mock private AuthCodeRepository authCodeRepository;
+    @Mock private AuthCodeStore authCodeStore;
     @Mock private JwtService jwtService;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private SessionRegistry sessionRegistry;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     // Instanciado manualmente: construtor tem @Value que @InjectMocks não injeta
     private AuthService authService;
@@ -44,10 +60,12 @@ class AuthServiceTest {
     @BeforeEach
     void setUp() {
         authService = new AuthService(
-                userRepository, refreshTokenRepository, authCodeRepository,
-                jwtService, passwordEncoder,
-                604_800_000L, // refreshTokenExpirationMs
-                false          // cookieSecure
+                userRepository, refreshTokenRepository, authCodeStore,
+                jwtService, passwordEncoder, new RefreshCoalescer(Duration.ofSeconds(10)),
+                sessionRegistry, meterRegistry,
+                604_800_000L,          // refreshTokenExpirationMs
+                Duration.ofHours(24),  // reuseDetectionWindow
+                false                  // cookieSecure
         );
     }
 
@@ -55,30 +73,32 @@ class AuthServiceTest {
     @DisplayName("register com e-mail novo deve salvar usuário e retornar token")
     void register_withNewEmail_savesUserAndReturnsToken() {
         var request = new RegisterRequest("Ana", "ana@test.com", "senha123");
-        given(userRepository.existsByEmail("ana@test.com")).willReturn(false);
         given(passwordEncoder.encode("senha123")).willReturn("hashed");
-        given(userRepository.save(any())).willAnswer(inv -> {
+        given(userRepository.insert(any(User.class))).willAnswer(inv -> {
             User u = inv.getArgument(0);
             return u;
         });
-        given(refreshTokenRepository.save(any())).willAnswer(inv -> inv.getArgument(0));
-        given(jwtService.generateAccessToken(any(), anyString())).willReturn("access.token.here");
+        given(refreshTokenRepository.insert(any(RefreshToken.class))).willAnswer(inv -> inv.getArgument(0));
+        given(jwtService.generateAccessToken(any(), anyString(), any())).willReturn("access.token.here");
 
         AuthResponse response = authService.register(request, new MockHttpServletResponse());
 
         assertThat(response.accessToken()).isEqualTo("access.token.here");
         assertThat(response.tokenType()).isEqualTo("Bearer");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).insert(any(User.class));
+        verify(sessionRegistry).enforceLimit(any());
     }
 
     @Test
     @DisplayName("register com e-mail duplicado deve lançar UserAlreadyExistsException")
     void register_withExistingEmail_throwsUserAlreadyExistsException() {
         var request = new RegisterRequest("Ana", "ana@test.com", "senha123");
-        given(userRepository.existsByEmail("ana@test.com")).willReturn(true);
+        given(passwordEncoder.encode("senha123")).willReturn("hashed");
+        given(userRepository.insert(any(User.class))).willThrow(new DuplicateKeyException("E11000 email"));
 
         assertThatThrownBy(() -> authService.register(request, new MockHttpServletResponse()))
                 .isInstanceOf(UserAlreadyExistsException.class);
+        verify(refreshTokenRepository, never()).insert(any(RefreshToken.class));
     }
 
     @Test
@@ -88,8 +108,8 @@ class AuthServiceTest {
         var user = new User("ana@test.com", "hashed", "Ana", AuthProvider.EMAIL);
         given(userRepository.findByEmail("ana@test.com")).willReturn(Optional.of(user));
         given(passwordEncoder.matches("senha123", "hashed")).willReturn(true);
-        given(refreshTokenRepository.save(any())).willAnswer(inv -> inv.getArgument(0));
-        given(jwtService.generateAccessToken(any(), anyString())).willReturn("access.token.here");
+        given(refreshTokenRepository.insert(any(RefreshToken.class))).willAnswer(inv -> inv.getArgument(0));
+        given(jwtService.generateAccessToken(any(), anyString(), any())).willReturn("access.token.here");
 
         var response = new MockHttpServletResponse();
         AuthResponse result = authService.login(request, response);
@@ -119,5 +139,197 @@ class AuthServiceTest {
 
         assertThatThrownBy(() -> authService.login(request, new MockHttpServletResponse()))
                 .isInstanceOf(InvalidCredentialsException.class);
+        assertThat(outcome("auth.login", "failure")).isEqualTo(1);
+        assertThat(outcome("auth.login", "success")).isZero();
+    }
+
+    @Test
+    @DisplayName("refresh com token válido deve consumi-lo e emitir o próximo na mesma família em duas idas ao banco")
+    void refresh_withValidToken_rotatesWithinFamily() {
+        var stored = new RefreshToken("old-token", "user-1", "ana@test.com", "family-1", null, Instant.now().plusSeconds(60));
+        given(refreshTokenRepository.consume(eq("old-token"), anyString(), any(), any())).willReturn(Optional.of(stored));
+        given(refreshTokenRepository.insert(any(RefreshToken.class))).willAnswer(inv -> inv.getArgument(0));
+        given(jwtService.generateAccessToken(any(), anyString(), any())).willReturn("access.token.here");
+
+        var response = new MockHttpServletResponse();
+        AuthResponse result = authService.refresh(refreshRequest("old-token"), response);
+
+        var issued = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).consume(eq("old-token"), anyString(), any(), any());
+        verify(refreshTokenRepository).insert(issued.capture());
+        verifyNoMoreInteractions(refreshTokenRepository);
+        verifyNoInteractions(userRepository);
+        assertThat(result.accessToken()).isEqualTo("access.token.here");
+        assertThat(issued.getValue().getFamilyId()).isEqualTo("family-1");
+        assertThat(issued.getValue().getEmail()).isEqualTo("ana@test.com");
+        assertThat(response.getCookie("refreshToken").getValue()).isEqualTo(issued.getValue().getToken());
+        verify(jwtService).generateAccessToken(eq("user-1"), eq("ana@test.com"), eq("family-1"));
+        verify(sessionRegistry, never()).enforceLimit(any());
+        assertThat(outcome("auth.refresh", "rotated")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("refresh de token emitido sem e-mail deve buscar o usuário e gravar o e-mail no sucessor")
+    void refresh_withLegacyTokenWithoutEmail_looksUpUser() {
+        var stored = new RefreshToken("old-token", "user-1", "family-1", Instant.now().plusSeconds(60));
+        var user = new User("ana@test.com", "hashed", "Ana", AuthProvider.EMAIL);
+        ReflectionTestUtils.setField(user, "id", "user-1");
+        given(refreshTokenRepository.consume(eq("old-token"), anyString(), any(), any())).willReturn(Optional.of(stored));
+        given(userRepository.findById("user-1")).willReturn(Optional.of(user));
+        given(refreshTokenRepository.insert(any(RefreshToken.class))).willAnswer(inv -> inv.getArgument(0));
+        given(jwtService.generateAccessToken(any(), anyString(), any())).willReturn("access.token.here");
+
+        authService.refresh(refreshRequest("old-token"), new MockHttpServletResponse());
+
+        var issued = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).insert(issued.capture());
+        assertThat(issued.getValue().getEmail()).isEqualTo("ana@test.com");
+        verify(jwtService).generateAccessToken(eq("user-1"), eq("ana@test.com"), eq("family-1"));
+    }
+
+    @Test
+    @DisplayName("refresh deve manter o início da sessão e guardar o token consumido só pela janela de reuso")
+    void refresh_withValidToken_keepsSessionStartAndBoundsRetention() {
+        var startedAt = Instant.now().minus(Duration.ofDays(3));
+        var stored = new RefreshToken("old-token", "user-1", "ana@test.com", "family-1", startedAt, Instant.now().plusSeconds(60));
+        given(refreshTokenRepository.consume(eq("old-token"), anyString(), any(), any())).willReturn(Optional.of(stored));
+        given(refreshTokenRepository.insert(any(RefreshToken.class))).willAnswer(inv -> inv.getArgument(0));
+        given(jwtService.generateAccessToken(any(), anyString(), any())).willReturn("access.token.here");
+
+        authService.refresh(refreshRequest("old-token"), new MockHttpServletResponse());
+
+        var now = ArgumentCaptor.forClass(Instant.class);
+        var retainUntil = ArgumentCaptor.forClass(Instant.class);
+        verify(refreshTokenRepository).consume(eq("old-token"), anyString(), now.capture(), retainUntil.capture());
+        assertThat(Duration.between(now.getValue(), retainUntil.getValue())).isEqualTo(Duration.ofHours(24));
+        var issued = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).insert(issued.capture());
+        assertThat(issued.getValue().getSessionStartedAt()).isEqualTo(startedAt);
+    }
+
+    @Test
+    @DisplayName("refresh cuja sessão é encerrada durante a rotação deve recusar quando o sucessor foi reservado")
+    void refresh_sessionRevokedDuringRotation_rejects() {
+        var stored = new RefreshToken("old-token", "user-1", "ana@test.com", "family-1", null, Instant.now().plusSeconds(60));
+        given(refreshTokenRepository.consume(eq("old-token"), anyString(), any(), any())).willReturn(Optional.of(stored));
+        // o logout apagou a família entre o consume e o insert e reservou o valor do sucessor
+        given(refreshTokenRepository.insert(any(RefreshToken.class))).willThrow(new DuplicateKeyException("E11000 token"));
+
+        var response = new MockHttpServletResponse();
+        assertThatThrownBy(() -> authService.refresh(refreshRequest("old-token"), response))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        assertThat(response.getCookie("refreshToken")).isNull();
+        verify(jwtService, never()).generateAccessToken(any(), any(), any());
+        assertThat(outcome("auth.refresh", "invalid")).isEqualTo(1);
+        assertThat(outcome("auth.refresh", "rotated")).isZero();
+    }
+
+    @Test
+    @DisplayName("refresh com token consumido fora da janela de tolerância deve revogar a família inteira")
+    void refresh_withConsumedToken_revokesFamily() {
+        var stored = new RefreshToken("old-token", "user-1", "family-1", Instant.now().plusSeconds(60));
+        ReflectionTestUtils.setField(stored, "consumedAt", Instant.now().minusSeconds(60));
+        ReflectionTestUtils.setField(stored, "replacedBy", "new-token");
+        given(refreshTokenRepository.consume(eq("old-token"), anyString(), any(), any())).willReturn(Optional.empty());
+        given(refreshTokenRepository.findByToken("old-token")).willReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> authService.refresh(refreshRequest("old-token"), new MockHttpServletResponse()))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        verify(sessionRegistry).revokeSession("user-1", "family-1");
+        verify(refreshTokenRepository, never()).insert(any(RefreshToken.class));
+        assertThat(outcome("auth.refresh", "reused")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("refresh com token rotacionado há pouco deve devolver o sucessor já emitido")
+    void refresh_withinGracePeriod_returnsSuccessor() {
+        var stored = new RefreshToken("old-token", "user-1", "ana@test.com", "family-1", null, Instant.now().plusSeconds(60));
+        ReflectionTestUtils.setField(stored, "consumedAt", Instant.now().minusSeconds(2));
+        ReflectionTestUtils.setField(stored, "replacedBy", "new-token");
+        var successor = new RefreshToken("new-token", "user-1", "ana@test.com", "family-1", null, Instant.now().plusSeconds(60));
+        given(refreshTokenRepository.consume(eq("old-token"), anyString(), any(), any())).willReturn(Optional.empty());
+        given(refreshTokenRepository.findByToken("old-token")).willReturn(Optional.of(stored));
+        given(refreshTokenRepository.findByToken("new-token")).willReturn(Optional.of(successor));
+        given(jwtService.generateAccessToken(any(), anyString(), any())).willReturn("access.token.here");
+
+        var response = new MockHttpServletResponse();
+        AuthResponse result = authService.refresh(refreshRequest("old-token"), response);
+
+        assertThat(result.accessToken()).isEqualTo("access.token.here");
+        assertThat(response.getCookie("refreshToken").getValue()).isEqualTo("new-token");
+        verify(jwtService).generateAccessToken(eq("user-1"), eq("ana@test.com"), eq("family-1"));
+        verify(sessionRegistry, never()).revokeSession(any(), any());
+        verify(refreshTokenRepository, never()).insert(any(RefreshToken.class));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("refresh na janela de tolerância com sucessor ainda não gravado deve recusar sem revogar")
+    void refresh_withinGracePeriodBeforeSuccessorInsert_rejectsWithoutRevoking() {
+        // outro nó consumiu o token e gravou replacedBy, mas ainda não inseriu o sucessor
+        var stored = new RefreshToken("old-token", "user-1", "family-1", Instant.now().plusSeconds(60));
+        ReflectionTestUtils.setField(stored, "consumedAt", Instant.now().minusSeconds(1));
+        ReflectionTestUtils.setField(stored, "replacedBy", "new-token");
+        given(refreshTokenRepository.consume(eq("old-token"), anyString(), any(), any())).willReturn(Optional.empty());
+        given(refreshTokenRepository.findByToken("old-token")).willReturn(Optional.of(stored));
+        given(refreshTokenRepository.findByToken("new-token")).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authService.refresh(refreshRequest("old-token"), new MockHttpServletResponse()))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        verify(refreshTokenRepository, never()).deleteByToken(any());
+        verify(sessionRegistry, never()).revokeSession(any(), any());
+        assertThat(outcome("auth.refresh", "invalid")).isEqualTo(1);
+        assertThat(outcome("auth.refresh", "reused")).isZero();
+    }
+
+    @Test
+    @DisplayName("refresh com token expirado deve apagá-lo sem revogar a família")
+    void refresh_withExpiredToken_deletesOnlyToken() {
+        var stored = new RefreshToken("old-token", "user-1", "family-1", Instant.now().minusSeconds(1));
+        given(refreshTokenRepository.consume(eq("old-token"), anyString(), any(), any())).willReturn(Optional.empty());
+        given(refreshTokenRepository.findByToken("old-token")).willReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> authService.refresh(refreshRequest("old-token"), new MockHttpServletResponse()))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        verify(refreshTokenRepository).deleteByToken("old-token");
+        verify(sessionRegistry, never()).revokeSession(any(), any());
+        assertThat(outcome("auth.refresh", "expired")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("logout deve encerrar a sessão do token e limpar o cookie")
+    void logout_revokesCurrentSession() {
+        var claims = new JwtClaims("user-1", "ana@test.com", List.of("USER"),
+                Instant.now(), Instant.now().plusSeconds(900), "jti-1", "family-1");
+
+        var response = new MockHttpServletResponse();
+        authService.logout(claims, response);
+
+        verify(sessionRegistry).revokeCurrent(claims);
+        assertThat(response.getCookie("refreshToken").getMaxAge()).isZero();
+    }
+
+    @Test
+    @DisplayName("logout em todas as sessões deve encerrar todas as sessões do usuário")
+    void logoutEverywhere_revokesAllSessions() {
+        var response = new MockHttpServletResponse();
+        authService.logoutEverywhere("user-1", response);
+
+        verify(sessionRegistry).revokeAll("user-1");
+        assertThat(response.getCookie("refreshToken").getMaxAge()).isZero();
+    }
+
+    private double outcome(String counter, String outcome) {
+        return meterRegistry.get(counter).tag("outcome", outcome).counter().count();
+    }
+
+    private static MockHttpServletRequest refreshRequest(String token) {
+        var request = new MockHttpServletRequest("POST", "/auth/refresh");
+        request.addHeader("Cookie", "refreshToken=" + token);
+        return request;
     }
 }
@@ -0,0 +1,100 @@
+package com.revisaai.auth;
+
+import com.revisaai.auth.dto.AuthResponse;
+import com.revisaai.shared.exception.InvalidCredentialsException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RefreshCoalescer")
+class RefreshCoalescerTest {
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private final Clock clock = new Clock() {
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    };
+
+    private final RefreshCoalescer coalescer = new RefreshCoalescer(Duration.ofSeconds(10), clock);
+
+    @Test
+    @DisplayName("refreshes concorrentes do mesmo token executam uma única rotação")
+    void coalesce_concorrente_rotacionaUmaVez() throws Exception {
+        var rotations = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var issued = new IssuedTokens(new AuthResponse("access", 900_000L), "next");
+
+        var results = new ArrayList<Future<IssuedTokens>>();
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> coalescer.coalesce("token", () -> {
+                    rotations.incrementAndGet();
+                    await(release);
+                    return issued;
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (var result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(issued);
+            }
+        }
+
+        assertThat(rotations.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("depois da janela, o mesmo token volta a passar pela rotação")
+    void coalesce_aposJanela_rotacionaDeNovo() {
+        var rotations = new AtomicInteger();
+        var issued = new IssuedTokens(new AuthResponse("access", 900_000L), "next");
+
+        coalescer.coalesce("token", () -> { rotations.incrementAndGet(); return issued; });
+        now = now.plusSeconds(5);
+        coalescer.coalesce("token", () -> { rotations.incrementAndGet(); return issued; });
+        now = now.plusSeconds(6);
+        coalescer.coalesce("token", () -> { rotations.incrementAndGet(); return issued; });
+
+        assertThat(rotations.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("rotação que falha não fica registrada e propaga a exceção")
+    void coalesce_rotacaoFalha_naoGuardaResultado() {
+        assertThatThrownBy(() -> coalescer.coalesce("token", () -> { throw new InvalidCredentialsException(); }))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        assertThat(coalescer.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("janela de tolerância conta a partir do consumo")
+    void withinGracePeriod_respeitaJanela() {
+        assertThat(coalescer.withinGracePeriod(now.minusSeconds(9))).isTrue();
+        assertThat(coalescer.withinGracePeriod(now.minusSeconds(11))).isFalse();
+        assertThat(coalescer.withinGracePeriod(null)).isFalse();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.revisaai.auth;
+
+import com.revisaai.shared.exception.SessionNotFoundException;
+import com.revisaai.shared.security.JwtClaims;
+import com.revisaai.shared.security.TokenDenylist;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SessionRegistry")
+class SessionRegistryTest {
+
+    @Mock private RefreshTokenRepository refreshTokenRepository;
+    @Mock private TokenDenylist tokenDenylist;
+
+    private SessionRegistry sessionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        sessionRegistry = new SessionRegistry(refreshTokenRepository, tokenDenylist, 3);
+    }
+
+    @Test
+    @DisplayName("enforceLimit deve revogar pelo sid as sessões encerradas por excesso")
+    void enforceLimit_acimaDoLimite_revogaSessoesEncerradas() {
+        given(refreshTokenRepository.evictSessionsBeyond(eq("user-1"), eq(3), any()))
+                .willReturn(List.of("family-1", "family-2"));
+
+        sessionRegistry.enforceLimit("user-1");
+
+        verify(tokenDenylist).revokeSession("user-1", "family-1");
+        verify(tokenDenylist).revokeSession("user-1", "family-2");
+    }
+
+    @Test
+    @DisplayName("list deve mapear o token vivo de cada sessão e marcar a atual")
+    void list_marcaSessaoAtual() {
+        var startedAt = Instant.now().minusSeconds(3600);
+        given(refreshTokenRepository.findActiveSessions(eq("user-1"), any())).willReturn(List.of(
+                new RefreshToken("t-1", "user-1", "family-1", startedAt, Instant.now().plusSeconds(60)),
+                new RefreshToken("t-2", "user-1", "family-2", Instant.now().plusSeconds(60))));
+
+        var sessions = sessionRegistry.list("user-1", "family-2");
+
+        assertThat(sessions).extracting("id").containsExactly("family-1", "family-2");
+        assertThat(sessions).extracting("current").containsExactly(false, true);
+        assertThat(sessions.get(0).startedAt()).isEqualTo(startedAt);
+    }
+
+    @Test
+    @DisplayName("revoke de sessão de outro usuário ou inexistente deve lançar SessionNotFoundException")
+    void revoke_sessaoDesconhecida_lancaExcecao() {
+        given(refreshTokenRepository.revokeFamily(eq("user-1"), eq("family-9"), any())).willReturn(0L);
+
+        assertThatThrownBy(() -> sessionRegistry.revoke("user-1", "family-9"))
+                .isInstanceOf(SessionNotFoundException.class);
+        verify(tokenDenylist, never()).revokeSession(any(), any());
+    }
+
+    @Test
+    @DisplayName("revokeCurrent deve apagar a família e revogar pelo sid")
+    void revokeCurrent_comSid_revogaSessao() {
+        var claims = new JwtClaims("user-1", "ana@test.com", List.of("USER"),
+                Instant.now(), Instant.now().plusSeconds(900), "jti-1", "family-1");
+
+        sessionRegistry.revokeCurrent(claims);
+
+        verify(refreshTokenRepository).revokeFamily(eq("user-1"), eq("family-1"), any());
+        verify(tokenDenylist).revokeSession("user-1", "family-1");
+        verify(tokenDenylist, never()).revokeToken(any());
+    }
+
+    @Test
+    @DisplayName("revokeSession deve apagar a família e revogar pelo sid mesmo sem tokens ativos")
+    void revokeSession_apagaFamiliaERevogaSid() {
+        sessionRegistry.revokeSession("user-1", "family-1");
+
+        verify(refreshTokenRepository).revokeFamily(eq("user-1"), eq("family-1"), any());
+        verify(tokenDenylist).revokeSession("user-1", "family-1");
+    }
+}
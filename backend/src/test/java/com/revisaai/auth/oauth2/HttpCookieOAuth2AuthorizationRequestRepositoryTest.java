@@ -0,0 +1,134 @@
+package com.revisaai.auth.oauth2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HttpCookieOAuth2AuthorizationRequestRepository")
+class HttpCookieOAuth2AuthorizationRequestRepositoryTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci1yZXZpc2EtYWktdGVzdGluZy1vbmx5IQ==";
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private final Clock clock = new Clock() {
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    };
+
+    private final HttpCookieOAuth2AuthorizationRequestRepository repository =
+            new HttpCookieOAuth2AuthorizationRequestRepository(SECRET, true, new ObjectMapper(), clock);
+
+    @Test
+    @DisplayName("pedido salvo no cookie é recuperado no callback, em qualquer instância")
+    void save_thenLoad_roundTrip() {
+        var saved = authorizationRequest();
+        var cookie = save(saved);
+
+        var otherNode = new HttpCookieOAuth2AuthorizationRequestRepository(SECRET, true, new ObjectMapper(), clock);
+        var loaded = otherNode.loadAuthorizationRequest(callback(cookie, "state-123"));
+
+        assertThat(loaded).isNotNull();
+        assertThat(loaded.getState()).isEqualTo("state-123");
+        assertThat(loaded.getClientId()).isEqualTo("client-id");
+        assertThat(loaded.getRedirectUri()).isEqualTo(saved.getRedirectUri());
+        assertThat(loaded.getScopes()).containsExactlyInAnyOrder("openid", "email", "profile");
+        assertThat(loaded.getAttributes()).containsEntry("code_verifier", "verifier-secreto");
+        assertThat(loaded.getAdditionalParameters()).containsEntry("code_challenge", "challenge");
+        assertThat(loaded.getAuthorizationRequestUri()).isEqualTo(saved.getAuthorizationRequestUri());
+    }
+
+    @Test
+    @DisplayName("cookie é HttpOnly, Secure, SameSite=Lax e não expõe o conteúdo")
+    void save_cookieCifradoEProtegido() {
+        var response = new MockHttpServletResponse();
+        repository.saveAuthorizationRequest(authorizationRequest(), new MockHttpServletRequest(), response);
+
+        var header = response.getHeader("Set-Cookie");
+        assertThat(header).contains("HttpOnly").contains("Secure").contains("SameSite=Lax");
+        assertThat(header).doesNotContain("verifier-secreto").doesNotContain("client-id");
+    }
+
+    @Test
+    @DisplayName("cookie adulterado é ignorado")
+    void load_cookieAdulterado_retornaNull() {
+        var cookie = save(authorizationRequest());
+        var value = cookie.getValue().toCharArray();
+        value[20] = value[20] == 'A' ? 'B' : 'A';
+
+        var loaded = repository.loadAuthorizationRequest(
+                callback(new Cookie(cookie.getName(), new String(value)), "state-123"));
+
+        assertThat(loaded).isNull();
+    }
+
+    @Test
+    @DisplayName("cookie cifrado com outra chave é ignorado")
+    void load_outraChave_retornaNull() {
+        var cookie = save(authorizationRequest());
+        var otherKey = new HttpCookieOAuth2AuthorizationRequestRepository("outro-segredo", true, new ObjectMapper(), clock);
+
+        assertThat(otherKey.loadAuthorizationRequest(callback(cookie, "state-123"))).isNull();
+    }
+
+    @Test
+    @DisplayName("state diferente do salvo ou cookie vencido não é aceito")
+    void load_stateDiferenteOuVencido_retornaNull() {
+        var cookie = save(authorizationRequest());
+
+        assertThat(repository.loadAuthorizationRequest(callback(cookie, "outro-state"))).isNull();
+
+        now = now.plusSeconds(301);
+        assertThat(repository.loadAuthorizationRequest(callback(cookie, "state-123"))).isNull();
+    }
+
+    @Test
+    @DisplayName("remove devolve o pedido e apaga o cookie")
+    void remove_apagaCookie() {
+        var cookie = save(authorizationRequest());
+        var response = new MockHttpServletResponse();
+
+        var removed = repository.removeAuthorizationRequest(callback(cookie, "state-123"), response);
+
+        assertThat(removed).isNotNull();
+        assertThat(response.getHeader("Set-Cookie")).contains("Max-Age=0");
+    }
+
+    private Cookie save(OAuth2AuthorizationRequest authorizationRequest) {
+        var response = new MockHttpServletResponse();
+        repository.saveAuthorizationRequest(authorizationRequest, new MockHttpServletRequest(), response);
+        return response.getCookie(HttpCookieOAuth2AuthorizationRequestRepository.COOKIE_NAME);
+    }
+
+    private static MockHttpServletRequest callback(Cookie cookie, String state) {
+        var request = new MockHttpServletRequest("GET", "/login/oauth2/code/google");
+        request.setParameter("state", state);
+        request.setCookies(cookie);
+        return request;
+    }
+
+    private static OAuth2AuthorizationRequest authorizationRequest() {
+        return OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+                .clientId("client-id")
+                .redirectUri("http://localhost:8080/login/oauth2/code/google")
+                .scopes(Set.of("openid", "email", "profile"))
+                .state("state-123")
+                .additionalParameters(Map.of("code_challenge", "challenge", "code_challenge_method", "S256"))
+                .attributes(Map.of("registration_id", "google", "code_verifier", "verifier-secreto"))
+                .build();
+    }
+}
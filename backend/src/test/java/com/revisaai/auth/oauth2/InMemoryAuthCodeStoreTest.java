@@ -0,0 +1,84 @@
+package com.revisaai.auth.oauth2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("InMemoryAuthCodeStore")
+class InMemoryAuthCodeStoreTest {
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private final Clock clock = new Clock() {
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    };
+
+    private final InMemoryAuthCodeStore store = new InMemoryAuthCodeStore(clock, false);
+
+    @Test
+    @DisplayName("código válido é consumido uma única vez")
+    void consume_codigoValido_soUmaVez() {
+        store.save(new AuthCode("code-1", "user-1", now.plusSeconds(60)));
+
+        assertThat(store.consume("code-1")).get().extracting(AuthCode::getUserId).isEqualTo("user-1");
+        assertThat(store.consume("code-1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("código vencido não é devolvido, mesmo antes da roda descartá-lo")
+    void consume_codigoVencido_retornaVazio() {
+        store.save(new AuthCode("code-1", "user-1", now.plusSeconds(60)));
+        now = now.plusSeconds(61);
+
+        assertThat(store.consume("code-1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a roda descarta códigos vencidos não trocados e mantém os válidos")
+    void advance_descartaSoVencidos() {
+        store.save(new AuthCode("curto", "user-1", now.plusSeconds(60)));
+        store.save(new AuthCode("longo", "user-2", now.plusSeconds(300)));
+
+        now = now.plusSeconds(61);
+        store.advance();
+        assertThat(store.size()).isEqualTo(1);
+
+        now = now.plusSeconds(240);
+        store.advance();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("trocas concorrentes do mesmo código: só uma recebe o código")
+    void consume_concorrente_soUmaTroca() throws Exception {
+        store.save(new AuthCode("code-1", "user-1", now.plusSeconds(60)));
+        var start = new CountDownLatch(1);
+        var exchanged = new AtomicInteger();
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    if (store.consume("code-1").isPresent()) exchanged.incrementAndGet();
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(exchanged.get()).isEqualTo(1);
+    }
+}
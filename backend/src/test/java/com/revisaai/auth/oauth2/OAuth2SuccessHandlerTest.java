@@ -17,22 +17,22 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("OAuth2SuccessHandler")
 class OAuth2SuccessHandlerTest {
 
     @Mock
-    private AuthCodeRepository authCodeRepository;
+    private AuthCodeStore authCodeStore;
 
     private OAuth2SuccessHandler handler;
 
     @BeforeEach
     void setUp() {
-        handler = new OAuth2SuccessHandler(authCodeRepository, "http://localhost:5173");
+        handler = new OAuth2SuccessHandler(authCodeStore, "http://localhost:5173");
     }
 
     private Authentication mockAuth(User user) {
@@ -47,7 +47,6 @@ class OAuth2SuccessHandlerTest {
     void onSuccess_redirectContainsCodeParam() throws Exception {
         var user = new User("ana@test.com", null, "Ana", AuthProvider.GOOGLE);
         ReflectionTestUtils.setField(user, "id", "user-123");
-        given(authCodeRepository.save(any())).willAnswer(inv -> inv.getArgument(0));
 
         var response = new MockHttpServletResponse();
         handler.onAuthenticationSuccess(new MockHttpServletRequest(), response, mockAuth(user));
@@ -58,16 +57,16 @@ class OAuth2SuccessHandlerTest {
     }
 
     @Test
-    @DisplayName("authCodeRepository.save() chamado com userId correto")
+    @DisplayName("authCodeStore.save() chamado com userId correto")
     void onSuccess_savesAuthCodeWithCorrectUserId() throws Exception {
         var user = new User("ana@test.com", null, "Ana", AuthProvider.GOOGLE);
         ReflectionTestUtils.setField(user, "id", "user-123");
         var captor = ArgumentCaptor.forClass(AuthCode.class);
-        given(authCodeRepository.save(captor.capture())).willAnswer(inv -> inv.getArgument(0));
 
         handler.onAuthenticationSuccess(
                 new MockHttpServletRequest(), new MockHttpServletResponse(), mockAuth(user));
 
+        verify(authCodeStore).save(captor.capture());
         assertThat(captor.getValue().getUserId()).isEqualTo("user-123");
     }
 
@@ -76,7 +75,6 @@ class OAuth2SuccessHandlerTest {
     void onSuccess_doesNotSetRefreshTokenCookie() throws Exception {
         var user = new User("ana@test.com", null, "Ana", AuthProvider.GOOGLE);
         ReflectionTestUtils.setField(user, "id", "user-123");
-        given(authCodeRepository.save(any())).willAnswer(inv -> inv.getArgument(0));
 
         var response = new MockHttpServletResponse();
         handler.onAuthenticationSuccess(new MockHttpServletRequest(), response, mockAuth(user));
@@ -2,22 +2,26 @@ package com.revisaai.auth.oauth2;
 
 import com.revisaai.user.AuthProvider;
 import com.revisaai.user.User;
+import com.revisaai.user.UserChangedEvent;
 import com.revisaai.user.UserRepository;
+import com.revisaai.user.UserRepositoryCustom.Outcome;
+import com.revisaai.user.UserRepositoryCustom.SocialUpsert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 
 import java.util.Map;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,11 +31,14 @@ class OAuth2UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private OAuth2UserServiceImpl service;
 
     @BeforeEach
     void setUp() {
-        service = new OAuth2UserServiceImpl(userRepository);
+        service = new OAuth2UserServiceImpl(userRepository, eventPublisher);
     }
 
     @Test
@@ -43,33 +50,48 @@ class OAuth2UserServiceImplTest {
                 "email", "ana@test.com",
                 "picture", "http://pic.png"
         );
-        given(userRepository.findByEmail("ana@test.com")).willReturn(Optional.empty());
-        given(userRepository.save(any())).willAnswer(inv -> inv.getArgument(0));
+        var created = new User("ana@test.com", null, "Ana", AuthProvider.GOOGLE);
+        given(userRepository.upsertSocialUser("ana@test.com", "Ana", "http://pic.png", AuthProvider.GOOGLE, "google-123"))
+                .willReturn(new SocialUpsert(created, Outcome.CREATED));
 
         UserPrincipal result = service.processUser("google", attrs);
 
         assertThat(result.getUser().getProvider()).isEqualTo(AuthProvider.GOOGLE);
         assertThat(result.getUser().getEmail()).isEqualTo("ana@test.com");
-        verify(userRepository).save(any(User.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
-    @DisplayName("e-mail já existe → atualiza nome e foto e salva usuário existente")
-    void processUser_existingEmail_updatesNameAndPicture() {
-        var existing = new User("ana@test.com", null, "Ana Antiga", AuthProvider.EMAIL);
+    @DisplayName("e-mail já existe com perfil alterado → publica UserChangedEvent")
+    void processUser_existingEmailChanged_publishesEvent() {
+        var updated = new User("ana@test.com", null, "Ana Nova", AuthProvider.EMAIL);
         Map<String, Object> attrs = Map.of(
                 "sub", "google-123",
                 "name", "Ana Nova",
                 "email", "ana@test.com",
                 "picture", "http://new-pic.png"
         );
-        given(userRepository.findByEmail("ana@test.com")).willReturn(Optional.of(existing));
-        given(userRepository.save(existing)).willReturn(existing);
+        given(userRepository.upsertSocialUser(any(), any(), any(), any(), any()))
+                .willReturn(new SocialUpsert(updated, Outcome.UPDATED));
 
         UserPrincipal result = service.processUser("google", attrs);
 
         assertThat(result.getUser().getName()).isEqualTo("Ana Nova");
-        verify(userRepository).save(existing);
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("e-mail já existe sem mudanças → não publica evento")
+    void processUser_existingEmailUnchanged_skipsEvent() {
+        var existing = new User("ana@test.com", null, "Ana", AuthProvider.GOOGLE);
+        Map<String, Object> attrs = Map.of("sub", "google-123", "name", "Ana", "email", "ana@test.com");
+        given(userRepository.upsertSocialUser(any(), any(), any(), any(), any()))
+                .willReturn(new SocialUpsert(existing, Outcome.UNCHANGED));
+
+        UserPrincipal result = service.processUser("google", attrs);
+
+        assertThat(result.getUser()).isSameAs(existing);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -0,0 +1,111 @@
+package com.revisaai.benchmark;
+
+import com.revisaai.shared.security.InMemorySigningKeyStore;
+import com.revisaai.shared.security.JwtAuthenticationFilter;
+import com.revisaai.shared.security.JwtKeyRing;
+import com.revisaai.shared.security.JwtService;
+import com.revisaai.shared.security.PrincipalSource;
+import com.revisaai.shared.security.TokenDenylist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do JwtAuthenticationFilter por requisição, do cabeçalho {@code Authorization} até o
+ * {@code SecurityContext} preenchido, com o principal montado a partir dos claims
+ * ({@code app.security.principal-source=jwt}). {@code anonymous} é a requisição sem token, o piso
+ * do filtro. Rodar com:
+ * <pre>
+ * mvn test -Pjmh -Djmh.include=JwtAuthenticationFilterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET =
+            "dGVzdC1zZWNyZXQta2V5LWZvci1yZXZpc2EtYWktdGVzdGluZy1vbmx5IQ==";
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    private JwtKeyRing keyRing;
+    private TokenDenylist denylist;
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest authenticated;
+    private MockHttpServletRequest anonymous;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup
+    public void setUp() {
+        keyRing = new JwtKeyRing(new InMemorySigningKeyStore(), "ES256", Duration.ofDays(7),
+                Duration.ofMinutes(10), Duration.ofMinutes(1), 900_000L, SECRET);
+        var jwtService = new JwtService(keyRing, 900_000L);
+        // sem repositório a busca periódica só loga a falha; a consulta do filtro é em memória
+        denylist = new TokenDenylist(null, 900_000L, 100_000, Duration.ofDays(1));
+        filter = new JwtAuthenticationFilter(jwtService, null, denylist, PrincipalSource.JWT, new SimpleMeterRegistry());
+
+        authenticated = new MockHttpServletRequest("GET", "/questions");
+        authenticated.addHeader(HttpHeaders.AUTHORIZATION,
+                "Bearer " + jwtService.generateAccessToken("user-123", "user@test.com", "session-123"));
+        anonymous = new MockHttpServletRequest("GET", "/questions");
+    }
+
+    @TearDown
+    public void tearDown() {
+        denylist.destroy();
+        keyRing.destroy();
+    }
+
+    @Benchmark
+    public Object authenticated() throws ServletException, IOException {
+        return run(authenticated);
+    }
+
+    @Benchmark
+    public Object anonymous() throws ServletException, IOException {
+        return run(anonymous);
+    }
+
+    private Object run(MockHttpServletRequest request) throws ServletException, IOException {
+        try {
+            filter.doFilter(request, response, CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+            request.removeAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.revisaai.benchmark;
+
+import com.revisaai.shared.security.InMemorySigningKeyStore;
+import com.revisaai.shared.security.JwtKeyRing;
+import com.revisaai.shared.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e validação de access tokens nos dois algoritmos aceitos em {@code app.jwt.algorithm}.
+ * {@code generate} roda em todo login e refresh; {@code validate} em toda requisição autenticada.
+ * Rodar com:
+ * <pre>
+ * mvn test -Pjmh -Djmh.include=JwtServiceBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET =
+            "dGVzdC1zZWNyZXQta2V5LWZvci1yZXZpc2EtYWktdGVzdGluZy1vbmx5IQ==";
+
+    @Param({"ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwtKeyRing keyRing;
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        keyRing = new JwtKeyRing(new InMemorySigningKeyStore(), algorithm, Duration.ofDays(7),
+                Duration.ofMinutes(10), Duration.ofMinutes(1), 900_000L, SECRET);
+        jwtService = new JwtService(keyRing, 900_000L);
+        token = jwtService.generateAccessToken("user-123", "user@test.com", "session-123");
+    }
+
+    @TearDown
+    public void tearDown() {
+        keyRing.destroy();
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateAccessToken("user-123", "user@test.com", "session-123");
+    }
+
+    @Benchmark
+    public String validate() {
+        return jwtService.validate(token).orElseThrow().userId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
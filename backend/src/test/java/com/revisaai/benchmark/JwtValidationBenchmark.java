@@ -0,0 +1,104 @@
+package com.revisaai.benchmark;
+
+import com.revisaai.shared.security.InMemorySigningKeyStore;
+import com.revisaai.shared.security.JwtKeyRing;
+import com.revisaai.shared.security.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jsonwebtoken.JwtParser;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição da validação do access token no JwtAuthenticationFilter.
+ *
+ * <p>{@code twoParses} reproduz o caminho antigo (isTokenValid + extractUserId, cada um
+ * construindo um parser novo e verificando o HMAC); {@code singleParse} é o caminho atual, com
+ * assinatura ES256 e chave pública escolhida pelo {@code kid} num mapa já decodificado;
+ * {@code hmacSingleParse} isola o custo da verificação HMAC com um parser reutilizado.
+ * Rodar com:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     "-Dexec.args=-cp %classpath com.revisaai.benchmark.JwtValidationBenchmark"
+ * </pre>
+ * O GCProfiler reporta {@code gc.alloc.rate.norm} (bytes alocados por operação).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET =
+            "dGVzdC1zZWNyZXQta2V5LWZvci1yZXZpc2EtYWktdGVzdGluZy1vbmx5IQ==";
+
+    private JwtKeyRing keyRing;
+    private JwtService jwtService;
+    private SecretKey key;
+    private JwtParser hmacParser;
+    private String token;
+    private String hmacToken;
+
+    @Setup
+    public void setUp() {
+        keyRing = new JwtKeyRing(new InMemorySigningKeyStore(), "ES256", Duration.ofDays(7),
+                Duration.ofMinutes(10), Duration.ofMinutes(1), 900_000L, SECRET);
+        jwtService = new JwtService(keyRing, 900_000L);
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        hmacParser = Jwts.parser().verifyWith(key).build();
+        token = jwtService.generateAccessToken("user-123", "user@test.com");
+        hmacToken = Jwts.builder().subject("user-123")
+                .expiration(new Date(System.currentTimeMillis() + 900_000L))
+                .signWith(key).compact();
+    }
+
+    @TearDown
+    public void tearDown() {
+        keyRing.destroy();
+    }
+
+    @Benchmark
+    public String twoParses() {
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(hmacToken);
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(hmacToken).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String hmacSingleParse() {
+        return hmacParser.parseSignedClaims(hmacToken).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return jwtService.validate(token).orElseThrow().userId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.revisaai.benchmark;
+
+import com.revisaai.ingestion.CancellationToken;
+import com.revisaai.ingestion.ExamPdfGenerator;
+import com.revisaai.ingestion.PdfTextExtractor;
+import com.revisaai.ingestion.TextPostProcessor;
+import com.revisaai.question.Banca;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extração de texto de uma prova em duas colunas, com cabeçalho e rodapé em toda página, por
+ * número de páginas e layout de banca. Os PDFs saem do {@link ExamPdfGenerator} no setup. Rodar com:
+ * <pre>
+ * mvn test -Pjmh -Djmh.include=PdfExtractionBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfExtractionBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int pages;
+
+    @Param({"CEBRASPE", "FGV"})
+    public Banca banca;
+
+    private PdfTextExtractor extractor;
+    private byte[] pdf;
+
+    @Setup
+    public void setUp() throws IOException {
+        extractor = new PdfTextExtractor(new TextPostProcessor(), new SimpleMeterRegistry());
+        pdf = ExamPdfGenerator.generate(ExamPdfGenerator.Spec.of(banca, pages)).prova();
+    }
+
+    @Benchmark
+    public String extract() throws IOException {
+        return extractor.extract(pdf, new CancellationToken());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PdfExtractionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.revisaai.benchmark;
+
+import com.revisaai.question.QuestionService;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem do filtro de {@code GET /questions} até o documento que vai para o driver, sem o
+ * MongoDB. {@code allFilters} inclui o regex de área, compilado a cada requisição. Rodar com:
+ * <pre>
+ * mvn test -Pjmh -Djmh.include=QuestionQueryBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionQueryBenchmark {
+
+    public String banca = "cebraspe";
+    public String area = "Direito Administrativo";
+    public Integer ano = 2024;
+
+    @Benchmark
+    public Document noFilters() {
+        return QuestionService.filter(null, null, null).getQueryObject();
+    }
+
+    @Benchmark
+    public Document allFilters() {
+        return QuestionService.filter(banca, area, ano).getQueryObject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QuestionQueryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,158 @@
+package com.revisaai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revisaai.shared.security.RateLimitFilter;
+import com.revisaai.shared.security.RateLimitRule;
+import com.revisaai.shared.security.TokenBucketLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sobrecarga do RateLimitFilter por requisição de login.
+ *
+ * <p>{@code baseline} monta a requisição e chama a chain direto; {@code filtered} passa pelo filtro
+ * (limite por IP, leitura do corpo, extração do e-mail e limite por e-mail). A diferença entre os
+ * dois é o custo do filtro. {@code limiter} e {@code limiterContended} medem só o token bucket,
+ * com uma e quatro threads disputando a mesma tabela. Os limites são altos o bastante para que
+ * toda requisição seja aceita, que é o caminho comum. Rodar com:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     "-Dexec.args=-cp %classpath com.revisaai.benchmark.RateLimitBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final int KEYS = 1024;
+    private static final String UNLIMITED = "1000000000/1s";
+    private static final FilterChain CHAIN = (request, response) -> {};
+
+    private RateLimitFilter filter;
+    private TokenBucketLimiter limiter;
+    private String[] ips;
+    private byte[][] bodies;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitFilter(new ObjectMapper(), true, 16384,
+                UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED);
+        limiter = new TokenBucketLimiter(RateLimitRule.parse(UNLIMITED), 16384);
+        ips = new String[KEYS];
+        bodies = new byte[KEYS][];
+        for (int i = 0; i < KEYS; i++) {
+            ips[i] = "10.0." + (i >> 8) + "." + (i & 0xFF);
+            bodies[i] = ("{\"email\":\"usuario" + i + "@test.com\",\"password\":\"senha123\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public int baseline() throws Exception {
+        var response = new MockHttpServletResponse();
+        CHAIN.doFilter(request(ThreadLocalRandom.current().nextInt(KEYS)), response);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int filtered() throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request(ThreadLocalRandom.current().nextInt(KEYS)), response, CHAIN);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public long limiter() {
+        return limiter.tryAcquire(ips[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long limiterContended() {
+        return limiter.tryAcquire(ips[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    private MockHttpServletRequest request(int key) {
+        var request = new BulkReadRequest();
+        request.setRemoteAddr(ips[key]);
+        request.setContentType("application/json");
+        request.setContent(bodies[key]);
+        return request;
+    }
+
+    /**
+     * O stream do MockHttpServletRequest só implementa leitura byte a byte; o do Tomcat lê em bloco.
+     * Sem isto o benchmark mediria o mock, não o filtro.
+     */
+    private static final class BulkReadRequest extends MockHttpServletRequest {
+
+        BulkReadRequest() {
+            super("POST", "/auth/login");
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var in = new ByteArrayInputStream(getContentAsByteArray());
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.revisaai.benchmark;
+
+import com.revisaai.auth.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura do refresh token no cabeçalho {@code Cookie} em {@code POST /auth/refresh}.
+ * {@code alone} é o cookie sozinho; {@code browser} é o cabeçalho típico de um navegador, com
+ * cookies de analytics antes do nosso. Rodar com:
+ * <pre>
+ * mvn test -Pjmh -Djmh.include=RefreshCookieBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshCookieBenchmark {
+
+    private static final String TOKEN = "0b6f6c1e-8d4a-4f8e-9a57-3c2d1e0f9a8b";
+
+    @Param({"alone", "browser"})
+    public String header;
+
+    private String cookieHeader;
+
+    @Setup
+    public void setUp() {
+        cookieHeader = switch (header) {
+            case "alone" -> "refreshToken=" + TOKEN;
+            case "browser" -> "_ga=GA1.1.1234567890.1700000000; _ga_ABC123=GS1.1.1700000000.1.1.1700000100.0.0.0; "
+                    + "_fbp=fb.1.1700000000000.1234567890; consent=analytics%3Dtrue%26ads%3Dfalse; "
+                    + "theme=dark; refreshToken=" + TOKEN + "; lang=pt-BR";
+            default -> throw new IllegalArgumentException(header);
+        };
+    }
+
+    @Benchmark
+    public String extract() {
+        return AuthService.extractRefreshTokenFromCookieHeader(cookieHeader);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RefreshCookieBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
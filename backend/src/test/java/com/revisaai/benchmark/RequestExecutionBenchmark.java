@@ -0,0 +1,98 @@
+package com.revisaai.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo para atender uma rajada de {@code concurrency} requisições que passam a maior parte do
+ * tempo bloqueadas (consulta ao MongoDB, download), nos dois modos de execução.
+ *
+ * <p>{@code platform} é o pool do Tomcat padrão: 200 threads do sistema. {@code virtual} é uma
+ * virtual thread por requisição, como com {@code spring.threads.virtual.enabled}. Cada requisição
+ * bloqueia {@code blockingMillis} e faz um pouco de CPU (um SHA-256 de 4 KB, como serializar a
+ * resposta). Abaixo de 200 requisições simultâneas os dois modos empatam; acima, o pool fixo
+ * enfileira e o tempo da rajada cresce em degraus de {@code blockingMillis}. Rodar com:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     "-Dexec.args=-cp %classpath com.revisaai.benchmark.RequestExecutionBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final byte[] PAYLOAD = new byte[4096];
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"200", "2000"})
+    public int concurrency;
+
+    @Param({"20"})
+    public int blockingMillis;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        var futures = new ArrayList<Future<Integer>>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executor.submit(this::handle));
+        }
+        int sum = 0;
+        for (var future : futures) sum += future.get();
+        return sum;
+    }
+
+    private int handle() throws Exception {
+        Thread.sleep(blockingMillis);
+        return MessageDigest.getInstance("SHA-256").digest(PAYLOAD)[0];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestExecutionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
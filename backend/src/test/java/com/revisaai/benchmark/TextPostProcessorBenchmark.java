@@ -0,0 +1,75 @@
+package com.revisaai.benchmark;
+
+import com.revisaai.ingestion.TextPostProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pós-processamento do texto extraído por número de páginas. O custo deve crescer linearmente:
+ * dividido por {@code pages}, o tempo fica estável de 100 a 3200 páginas, e o
+ * {@code gc.alloc.rate.norm} por página também. Rodar com:
+ * <pre>
+ * mvn test -Pjmh -Djmh.include=TextPostProcessorBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextPostProcessorBenchmark {
+
+    private static final int LINES_PER_PAGE = 45;
+
+    @Param({"100", "800", "3200"})
+    public int pages;
+
+    private final TextPostProcessor processor = new TextPostProcessor();
+    private List<List<CharSequence>> document;
+
+    @Setup
+    public void setUp() {
+        document = new ArrayList<>(pages);
+        for (int p = 1; p <= pages; p++) {
+            var lines = new ArrayList<CharSequence>(LINES_PER_PAGE + 2);
+            lines.add(new StringBuilder("CEBRASPE  –  Concurso Público 2024   Caderno A"));
+            for (int i = 0; i < LINES_PER_PAGE; i++) {
+                lines.add(new StringBuilder("  Julgue   o item a seguir, relativo à adminis-")
+                        .append(i % 3 == 0 ? "" : " ")
+                        .append("tração pública e ao   regime jurídico   ").append(p).append('.').append(i));
+            }
+            lines.add(new StringBuilder("Página ").append(p).append(" de ").append(pages));
+            document.add(lines);
+        }
+    }
+
+    @Benchmark
+    public String process() {
+        return processor.process(document);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextPostProcessorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,183 @@
+package com.revisaai.ingestion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DocumentDownloader")
+class DocumentDownloaderTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private MockWebServer server;
+    private PdfDownloadCache cache;
+    private DocumentDownloader downloader;
+    private SimpleMeterRegistry meterRegistry;
+    private final CancellationToken token = new CancellationToken();
+
+    private static final byte[] PDF_V1 = "%PDF-1.4 versao 1".getBytes();
+    private static final byte[] PDF_V2 = "%PDF-1.4 versao 2 retificada".getBytes();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        cache = new PdfDownloadCache(cacheDir, DataSize.ofMegabytes(1), true);
+        meterRegistry = new SimpleMeterRegistry();
+        downloader = new DocumentDownloader(WebClient.builder(), cache, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("segundo download envia If-None-Match e serve 304 do disco")
+    void download_notModified_servesFromDisk() throws Exception {
+        server.enqueue(pdf(PDF_V1).addHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+        var url = server.url("/gabarito.pdf").toString();
+
+        assertThat(downloader.download(url, token)).isEqualTo(PDF_V1);
+        assertThat(downloader.download(url, token)).isEqualTo(PDF_V1);
+
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    @DisplayName("registra bytes e latência separando rede e cache")
+    void download_registraMetricasPorOrigem() {
+        server.enqueue(pdf(PDF_V1).addHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        var url = server.url("/gabarito.pdf").toString();
+
+        downloader.download(url, token);
+        downloader.download(url, token);
+
+        assertThat(meterRegistry.get("ingestion.download.bytes").tag("source", "network").summary().totalAmount())
+                .isEqualTo(PDF_V1.length);
+        assertThat(meterRegistry.get("ingestion.download.bytes").tag("source", "cache").summary().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("ingestion.download.duration").timers()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("PDF republicado com novo ETag é baixado e substitui a entrada em cache")
+    void download_changed_replacesCachedEntry() throws Exception {
+        server.enqueue(pdf(PDF_V1).addHeader("ETag", "\"v1\""));
+        server.enqueue(pdf(PDF_V2).addHeader("ETag", "\"v2\""));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        var url = server.url("/gabarito.pdf").toString();
+
+        downloader.download(url, token);
+        assertThat(downloader.download(url, token)).isEqualTo(PDF_V2);
+        assertThat(downloader.download(url, token)).isEqualTo(PDF_V2);
+
+        server.takeRequest();
+        server.takeRequest();
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"v2\"");
+    }
+
+    @Test
+    @DisplayName("revalida com If-Modified-Since quando o servidor só envia Last-Modified")
+    void download_lastModifiedOnly_sendsIfModifiedSince() throws Exception {
+        var lastModified = "Wed, 01 May 2024 10:00:00 GMT";
+        server.enqueue(pdf(PDF_V1).addHeader("Last-Modified", lastModified));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        var url = server.url("/prova.pdf").toString();
+
+        downloader.download(url, token);
+        assertThat(downloader.download(url, token)).isEqualTo(PDF_V1);
+
+        server.takeRequest();
+        assertThat(server.takeRequest().getHeader("If-Modified-Since")).isEqualTo(lastModified);
+    }
+
+    @Test
+    @DisplayName("resposta sem validadores não é armazenada em cache")
+    void download_withoutValidators_isNotCached() throws Exception {
+        server.enqueue(pdf(PDF_V1));
+        server.enqueue(pdf(PDF_V1));
+        var url = server.url("/prova.pdf").toString();
+
+        downloader.download(url, token);
+        downloader.download(url, token);
+
+        server.takeRequest();
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+        assertThat(cache.lookup(url)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("entradas menos recentemente usadas são despejadas ao exceder o orçamento")
+    void store_overBudget_evictsLeastRecentlyUsed() {
+        var smallCache = new PdfDownloadCache(cacheDir.resolve("lru"), DataSize.ofBytes(100), true);
+        smallCache.store("http://a", new byte[40], "\"a\"", null);
+        smallCache.store("http://b", new byte[40], "\"b\"", null);
+        smallCache.lookup("http://a");
+        smallCache.store("http://c", new byte[40], "\"c\"", null);
+
+        assertThat(smallCache.lookup("http://a")).isPresent();
+        assertThat(smallCache.lookup("http://b")).isEmpty();
+        assertThat(smallCache.lookup("http://c")).isPresent();
+        assertThat(smallCache.totalBytes()).isEqualTo(80);
+    }
+
+    @Test
+    @DisplayName("índice do cache é reconstruído a partir do disco")
+    void cache_reloadsIndexFromDisk() {
+        cache.store("http://prova", PDF_V1, "\"v1\"", null);
+
+        var reloaded = new PdfDownloadCache(cacheDir, DataSize.ofMegabytes(1), true);
+
+        assertThat(reloaded.lookup("http://prova"))
+                .hasValueSatisfying(doc -> assertThat(doc.etag()).isEqualTo("\"v1\""));
+        assertThat(reloaded.totalBytes()).isEqualTo(PDF_V1.length);
+    }
+
+    @Test
+    @DisplayName("erro HTTP propaga exceção")
+    void download_serverError_throws() {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        var url = server.url("/inexistente.pdf").toString();
+
+        assertThatThrownBy(() -> downloader.download(url, token))
+                .isInstanceOf(WebClientResponseException.class);
+    }
+
+    @Test
+    @DisplayName("download com token cancelado interrompe com IngestionCancelledException")
+    void download_tokenCancelado_interrompe() {
+        server.enqueue(pdf(PDF_V1).addHeader("ETag", "\"v1\""));
+        var url = server.url("/prova.pdf").toString();
+        token.cancel(CancellationToken.Reason.USER_REQUEST);
+
+        assertThatThrownBy(() -> downloader.download(url, token))
+                .isInstanceOf(IngestionCancelledException.class);
+        assertThat(cache.lookup(url)).isEmpty();
+    }
+
+    private static MockResponse pdf(byte[] body) {
+        return new MockResponse()
+                .setBody(new Buffer().write(body))
+                .addHeader("Content-Type", "application/pdf");
+    }
+}
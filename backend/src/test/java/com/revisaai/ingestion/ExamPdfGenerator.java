@@ -0,0 +1,266 @@
+package com.revisaai.ingestion;
+
+import com.revisaai.question.Banca;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Provas sintéticas em PDF, geradas com o próprio PDFBox, para testar e medir a ingestão sem
+ * distribuir provas reais.
+ *
+ * <p>CEBRASPE sai com itens numerados de julgamento Certo/Errado; FGV e CESGRANRIO com
+ * "Questão N" e alternativas de (A) a (E). O texto corre coluna a coluna, de cima para baixo, e
+ * uma questão nunca é partida entre colunas. Com {@code junkHeaders}, toda página tem cabeçalho e
+ * rodapé repetidos (edital, caderno, "Página N de M") e a primeira traz o quadro de instruções,
+ * como nas provas impressas. Com {@code offGrid}, cada coluna segue a própria grade de linhas
+ * base, deslocada da vizinha, como em provas diagramadas coluna a coluna. O gabarito vem num PDF
+ * separado, em grade de número e resposta.
+ *
+ * <p>O conteúdo depende só da {@link Spec}: a mesma especificação gera o mesmo texto e o mesmo
+ * gabarito.
+ */
+public final class ExamPdfGenerator {
+
+    private static final PDRectangle PAGE = PDRectangle.A4;
+    private static final float MARGIN = 50;
+    private static final float GUTTER = 24;
+    private static final float FONT_SIZE = 9;
+    private static final float LEADING = 12;
+    private static final float QUESTION_GAP = LEADING;
+    // com offGrid, cada coluna desce meia linha em relação à anterior e nenhuma linha base coincide
+    private static final float OFF_GRID_SHIFT = LEADING / 2;
+    private static final float CONTENT_TOP = PAGE.getHeight() - 80;
+    private static final float CONTENT_BOTTOM = 70;
+    private static final int ANSWERS_PER_ROW = 10;
+
+    private static final List<String> CERTO_ERRADO = List.of("C", "E");
+    private static final List<String> LETRAS = List.of("A", "B", "C", "D", "E");
+    private static final List<String> SUBJECTS = List.of(
+            "o ato administrativo praticado por autoridade incompetente",
+            "a responsabilidade civil objetiva do Estado",
+            "o controle de constitucionalidade difuso",
+            "a concordância verbal no período apresentado",
+            "a proposição composta formada pelos conectivos indicados",
+            "o regime jurídico dos servidores públicos civis da União",
+            "a licitação na modalidade pregão eletrônico",
+            "o princípio da legalidade tributária");
+    private static final List<String> CLAUSES = List.of(
+            "conforme a doutrina majoritária e a jurisprudência dos tribunais superiores",
+            "desde que observados os requisitos previstos na legislação vigente",
+            "ainda que a administração pública não tenha sido previamente notificada",
+            "salvo disposição expressa em sentido contrário no edital do certame",
+            "nos termos da lei que regula o processo administrativo federal",
+            "sem prejuízo da apuração de responsabilidade na esfera penal");
+    private static final List<String> INSTRUCTIONS = List.of(
+            "LEIA COM ATENÇÃO AS INSTRUÇÕES ABAIXO",
+            "Confira se os seus dados pessoais e o cargo indicados neste caderno estão corretos.",
+            "Não será permitida a consulta a livros, anotações ou qualquer material de apoio.",
+            "A duração da prova inclui o tempo para o preenchimento da folha de respostas.");
+
+    private ExamPdfGenerator() {
+    }
+
+    /**
+     * Prova com {@code pages} páginas de {@code columns} colunas (o PdfTextExtractor reconstrói
+     * a ordem de leitura de uma e duas).
+     */
+    public record Spec(Banca banca, int pages, int columns, boolean junkHeaders, long seed, boolean offGrid) {
+
+        public Spec {
+            if (pages < 1) throw new IllegalArgumentException("pages deve ser positivo");
+            if (columns < 1 || columns > 4) throw new IllegalArgumentException("columns deve estar entre 1 e 4");
+        }
+
+        public Spec(Banca banca, int pages, int columns, boolean junkHeaders, long seed) {
+            this(banca, pages, columns, junkHeaders, seed, false);
+        }
+
+        /** Duas colunas, com cabeçalhos, como a maioria das provas impressas. */
+        public static Spec of(Banca banca, int pages) {
+            return new Spec(banca, pages, 2, true, 42L);
+        }
+    }
+
+    /** PDFs da prova e do gabarito, com as respostas esperadas na ordem das questões. */
+    public record Exam(byte[] prova, byte[] gabarito, List<String> answers) {
+
+        public long bytes() {
+            return (long) prova.length + gabarito.length;
+        }
+    }
+
+    public static Exam generate(Spec spec) throws IOException {
+        var random = new Random(spec.seed());
+        var font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        var answers = new ArrayList<String>();
+        var prova = prova(spec, font, random, answers);
+        return new Exam(prova, gabarito(spec, font, answers), List.copyOf(answers));
+    }
+
+    private static byte[] prova(Spec spec, PDType1Font font, Random random, List<String> answers)
+            throws IOException {
+        float columnWidth = (PAGE.getWidth() - 2 * MARGIN - GUTTER * (spec.columns() - 1)) / spec.columns();
+        var multipleChoice = spec.banca() != Banca.CEBRASPE;
+
+        try (var doc = new PDDocument()) {
+            PDPageContentStream content = null;
+            try {
+                for (int page = 1; page <= spec.pages(); page++) {
+                    if (content != null) content.close();
+                    var pdPage = new PDPage(PAGE);
+                    doc.addPage(pdPage);
+                    content = new PDPageContentStream(doc, pdPage);
+                    content.setFont(font, FONT_SIZE);
+
+                    float top = CONTENT_TOP;
+                    if (spec.junkHeaders()) {
+                        junk(content, font, spec, page);
+                        if (page == 1) top = instructions(content, top);
+                    }
+                    for (int column = 0; column < spec.columns(); column++) {
+                        float x = MARGIN + column * (columnWidth + GUTTER);
+                        float y = spec.offGrid() ? top - column * OFF_GRID_SHIFT : top;
+                        while (true) {
+                            int number = answers.size() + 1;
+                            var answer = multipleChoice
+                                    ? LETRAS.get(random.nextInt(LETRAS.size()))
+                                    : CERTO_ERRADO.get(random.nextInt(CERTO_ERRADO.size()));
+                            var lines = question(number, multipleChoice, font, columnWidth, random);
+                            if (y - lines.size() * LEADING < CONTENT_BOTTOM) break;
+                            for (var line : lines) {
+                                text(content, x, y, line);
+                                y -= LEADING;
+                            }
+                            y -= QUESTION_GAP;
+                            answers.add(answer);
+                        }
+                    }
+                }
+            } finally {
+                if (content != null) content.close();
+            }
+            return save(doc);
+        }
+    }
+
+    private static byte[] gabarito(Spec spec, PDType1Font font, List<String> answers) throws IOException {
+        try (var doc = new PDDocument()) {
+            int rowsPerPage = (int) ((CONTENT_TOP - CONTENT_BOTTOM) / LEADING);
+            float cellWidth = (PAGE.getWidth() - 2 * MARGIN) / ANSWERS_PER_ROW;
+            int perPage = rowsPerPage * ANSWERS_PER_ROW;
+            for (int first = 0; first < Math.max(1, answers.size()); first += perPage) {
+                var page = new PDPage(PAGE);
+                doc.addPage(page);
+                try (var content = new PDPageContentStream(doc, page)) {
+                    content.setFont(font, FONT_SIZE);
+                    text(content, MARGIN, PAGE.getHeight() - 50,
+                            "GABARITO DEFINITIVO — " + spec.banca().name() + " — CADERNO TIPO 1");
+                    int last = Math.min(answers.size(), first + perPage);
+                    for (int i = first; i < last; i++) {
+                        int cell = i - first;
+                        float x = MARGIN + (cell % ANSWERS_PER_ROW) * cellWidth;
+                        float y = CONTENT_TOP - (float) (cell / ANSWERS_PER_ROW) * LEADING;
+                        text(content, x, y, (i + 1) + " " + answers.get(i));
+                    }
+                }
+            }
+            return save(doc);
+        }
+    }
+
+    private static List<String> question(int number, boolean multipleChoice, PDType1Font font,
+                                         float width, Random random) throws IOException {
+        var lines = new ArrayList<String>();
+        var statement = statement(random);
+        if (multipleChoice) {
+            lines.add("Questão " + number);
+            lines.addAll(wrap(statement, font, width));
+            for (var letra : LETRAS) {
+                var alternative = SUBJECTS.get(random.nextInt(SUBJECTS.size()));
+                lines.addAll(wrap("(" + letra + ") " + capitalize(alternative) + ".", font, width));
+            }
+        } else {
+            lines.addAll(wrap(number + " " + statement, font, width));
+        }
+        return lines;
+    }
+
+    private static String statement(Random random) {
+        var text = new StringBuilder("Julgue o item a seguir, a respeito de ")
+                .append(SUBJECTS.get(random.nextInt(SUBJECTS.size())));
+        int clauses = 1 + random.nextInt(3);
+        for (int i = 0; i < clauses; i++) {
+            text.append(", ").append(CLAUSES.get(random.nextInt(CLAUSES.size())));
+        }
+        return text.append('.').toString();
+    }
+
+    private static List<String> wrap(String text, PDType1Font font, float width) throws IOException {
+        var lines = new ArrayList<String>();
+        var line = new StringBuilder();
+        for (var word : text.split(" ")) {
+            var candidate = line.isEmpty() ? word : line + " " + word;
+            if (!line.isEmpty() && font.getStringWidth(candidate) / 1000 * FONT_SIZE > width) {
+                lines.add(line.toString());
+                line.setLength(0);
+                line.append(word);
+            } else {
+                line.setLength(0);
+                line.append(candidate);
+            }
+        }
+        if (!line.isEmpty()) lines.add(line.toString());
+        return lines;
+    }
+
+    // centralizados, como nas provas impressas: atravessam a calha e não entram em nenhuma coluna
+    private static void junk(PDPageContentStream content, PDType1Font font, Spec spec, int page)
+            throws IOException {
+        centered(content, font, PAGE.getHeight() - 40,
+                "CONCURSO PÚBLICO — TRIBUNAL REGIONAL — EDITAL Nº 1/2024 — " + spec.banca().name());
+        centered(content, font, PAGE.getHeight() - 54, "Cargo: Analista Judiciário — Caderno TIPO 1 — Cor BRANCA");
+        centered(content, font, 40, "Página " + page + " de " + spec.pages());
+        centered(content, font, 28, "Boa prova!");
+    }
+
+    private static float instructions(PDPageContentStream content, float top) throws IOException {
+        float y = top;
+        for (var line : INSTRUCTIONS) {
+            text(content, MARGIN, y, line);
+            y -= LEADING;
+        }
+        return y - QUESTION_GAP;
+    }
+
+    private static void text(PDPageContentStream content, float x, float y, String text) throws IOException {
+        content.beginText();
+        content.newLineAtOffset(x, y);
+        content.showText(text);
+        content.endText();
+    }
+
+    private static void centered(PDPageContentStream content, PDType1Font font, float y, String text)
+            throws IOException {
+        text(content, (PAGE.getWidth() - font.getStringWidth(text) / 1000 * FONT_SIZE) / 2, y, text);
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static byte[] save(PDDocument doc) throws IOException {
+        var out = new ByteArrayOutputStream();
+        doc.save(out);
+        return out.toByteArray();
+    }
+}
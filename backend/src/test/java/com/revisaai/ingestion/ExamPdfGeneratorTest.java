@@ -0,0 +1,94 @@
+package com.revisaai.ingestion;
+
+import com.revisaai.question.Banca;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.Loader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExamPdfGenerator")
+class ExamPdfGeneratorTest {
+
+    private static final Pattern CEBRASPE_ITEM = Pattern.compile("(?m)^(\\d+) Julgue");
+    private static final Pattern FGV_QUESTION = Pattern.compile("(?m)^Questão (\\d+)$");
+    private static final Pattern ANSWER = Pattern.compile("(\\d+) ([A-E])\\b");
+
+    private final PdfTextExtractor extractor = new PdfTextExtractor(new TextPostProcessor(), new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("prova CEBRASPE em duas colunas é extraída com os itens em ordem e sem cabeçalhos")
+    void generate_cebraspeDuasColunas_itensEmOrdem() throws IOException {
+        var exam = ExamPdfGenerator.generate(ExamPdfGenerator.Spec.of(Banca.CEBRASPE, 4));
+
+        var text = extractor.extract(exam.prova(), new CancellationToken());
+
+        assertThat(pages(exam.prova())).isEqualTo(4);
+        assertThat(numbers(CEBRASPE_ITEM, text)).isEqualTo(sequence(exam.answers().size()));
+        assertThat(exam.answers()).containsOnly("C", "E");
+        assertThat(text).doesNotContain("EDITAL", "Página", "Boa prova!");
+    }
+
+    @Test
+    @DisplayName("colunas fora da grade de linhas base também saem com as questões em ordem")
+    void generate_colunasForaDaGrade_questoesEmOrdem() throws IOException {
+        var exam = ExamPdfGenerator.generate(new ExamPdfGenerator.Spec(Banca.FGV, 3, 2, true, 5L, true));
+
+        var text = extractor.extract(exam.prova(), new CancellationToken());
+
+        assertThat(numbers(FGV_QUESTION, text)).isEqualTo(sequence(exam.answers().size()));
+        assertThat(text).doesNotContain("EDITAL", "Página", "Boa prova!");
+    }
+
+    @Test
+    @DisplayName("prova FGV sai com alternativas de A a E e gabarito correspondente")
+    void generate_fgv_gabaritoCorrespondeAsQuestoes() throws IOException {
+        var exam = ExamPdfGenerator.generate(new ExamPdfGenerator.Spec(Banca.FGV, 3, 1, false, 7L));
+
+        var prova = extractor.extract(exam.prova(), new CancellationToken());
+        var gabarito = extractor.extract(exam.gabarito(), new CancellationToken());
+
+        assertThat(numbers(FGV_QUESTION, prova)).isEqualTo(sequence(exam.answers().size()));
+        assertThat(prova).contains("(A) ", "(E) ");
+        var answers = new ArrayList<String>();
+        ANSWER.matcher(gabarito).results().forEach(match -> {
+            assertThat(Integer.parseInt(match.group(1))).isEqualTo(answers.size() + 1);
+            answers.add(match.group(2));
+        });
+        assertThat(answers).isEqualTo(exam.answers());
+    }
+
+    @Test
+    @DisplayName("a mesma especificação gera as mesmas respostas; outra semente, outras")
+    void generate_mesmaSemente_mesmoGabarito() throws IOException {
+        var spec = new ExamPdfGenerator.Spec(Banca.CESGRANRIO, 2, 2, true, 11L);
+
+        var first = ExamPdfGenerator.generate(spec);
+        var second = ExamPdfGenerator.generate(spec);
+        var other = ExamPdfGenerator.generate(new ExamPdfGenerator.Spec(Banca.CESGRANRIO, 2, 2, true, 12L));
+
+        assertThat(second.answers()).isEqualTo(first.answers());
+        assertThat(other.answers()).isNotEqualTo(first.answers());
+    }
+
+    private static int pages(byte[] pdf) throws IOException {
+        try (var doc = Loader.loadPDF(pdf)) {
+            return doc.getNumberOfPages();
+        }
+    }
+
+    private static List<Integer> numbers(Pattern pattern, String text) {
+        return pattern.matcher(text).results().map(match -> Integer.parseInt(match.group(1))).toList();
+    }
+
+    private static List<Integer> sequence(int count) {
+        return IntStream.rangeClosed(1, count).boxed().toList();
+    }
+}
@@ -1,10 +1,13 @@
 package com.revisaai.ingestion;
 
+import com.revisaai.auth.oauth2.HttpCookieOAuth2AuthorizationRequestRepository;
 import com.revisaai.auth.oauth2.OAuth2FailureHandler;
 import com.revisaai.auth.oauth2.OAuth2SuccessHandler;
 import com.revisaai.auth.oauth2.OAuth2UserServiceImpl;
+import com.revisaai.shared.exception.IngestionJobNotFoundException;
 import com.revisaai.shared.security.JwtService;
 import com.revisaai.shared.security.SecurityConfig;
+import com.revisaai.shared.security.TokenDenylist;
 import com.revisaai.shared.security.UserDetailsServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,7 +21,10 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(IngestionController.class)
@@ -37,6 +43,9 @@ class IngestionControllerTest {
     @MockBean
     private UserDetailsServiceImpl userDetailsService;
 
+    @MockBean
+    private TokenDenylist tokenDenylist;
+
     @MockBean
     private OAuth2UserServiceImpl oauth2UserService;
 
@@ -46,6 +55,9 @@ class IngestionControllerTest {
     @MockBean
     private OAuth2FailureHandler oauth2FailureHandler;
 
+    @MockBean
+    private HttpCookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
+
     private static final byte[] PDF_BYTES = new byte[]{0x25, 0x50, 0x44, 0x46};
 
     @Test
@@ -62,12 +74,12 @@ class IngestionControllerTest {
 
     @Test
     @WithMockUser
-    @DisplayName("POST /ingestion/jobs com arquivos autenticado retorna 201 com job")
+    @DisplayName("POST /ingestion/jobs com arquivos autenticado retorna 201 com job PENDING")
     void post_comArquivos_autenticado_retorna201ComJob() throws Exception {
         var job = new IngestionJob();
-        job.setStatus(IngestionStatus.COMPLETED);
+        job.setStatus(IngestionStatus.PENDING);
 
-        given(ingestionService.process(anyString(), any(), any(),
+        given(ingestionService.submit(anyString(), any(), anyString(), any(), any(),
                 any(), any(), any(), any()))
                 .willReturn(job);
 
@@ -78,7 +90,26 @@ class IngestionControllerTest {
                                 "application/pdf", PDF_BYTES))
                         .param("banca", "CEBRASPE"))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.status").value("COMPLETED"));
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    @WithMockUser(username = "user-1")
+    @DisplayName("POST /ingestion/jobs repassa usuário autenticado e prioridade BULK")
+    void post_prioridadeBulk_repassaUsuarioEPrioridade() throws Exception {
+        given(ingestionService.submit(anyString(), any(), anyString(), any(), any(),
+                any(), any(), any(), any()))
+                .willReturn(new IngestionJob());
+
+        mockMvc.perform(multipart("/ingestion/jobs")
+                        .param("banca", "FGV")
+                        .param("provaUrl", "http://prova.pdf")
+                        .param("gabaritoUrl", "http://gabarito.pdf")
+                        .param("prioridade", "BULK"))
+                .andExpect(status().isCreated());
+
+        verify(ingestionService).submit(eq("user-1"), eq(IngestionPriority.BULK), eq("FGV"), any(), any(),
+                any(), eq("http://prova.pdf"), any(), eq("http://gabarito.pdf"));
     }
 
     @Test
@@ -97,7 +128,7 @@ class IngestionControllerTest {
     @WithMockUser
     @DisplayName("POST /ingestion/jobs sem fonte da prova retorna 400")
     void post_semFonteDaProva_retorna400() throws Exception {
-        given(ingestionService.process(anyString(), any(), any(),
+        given(ingestionService.submit(anyString(), any(), anyString(), any(), any(),
                 any(), any(), any(), any()))
                 .willThrow(new IllegalArgumentException("Fonte da prova obrigatória"));
 
@@ -112,7 +143,7 @@ class IngestionControllerTest {
     @WithMockUser
     @DisplayName("POST /ingestion/jobs sem fonte do gabarito retorna 400")
     void post_semFonteDoGabarito_retorna400() throws Exception {
-        given(ingestionService.process(anyString(), any(), any(),
+        given(ingestionService.submit(anyString(), any(), anyString(), any(), any(),
                 any(), any(), any(), any()))
                 .willThrow(new IllegalArgumentException("Fonte do gabarito obrigatória"));
 
@@ -122,4 +153,87 @@ class IngestionControllerTest {
                         .param("banca", "CEBRASPE"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @WithMockUser(username = "user-1")
+    @DisplayName("GET /ingestion/jobs/{id} retorna o job do usuário autenticado")
+    void get_jobExistente_retorna200() throws Exception {
+        var job = new IngestionJob();
+        job.setStatus(IngestionStatus.PROCESSING);
+        given(ingestionService.findById("job-1", "user-1")).willReturn(job);
+
+        mockMvc.perform(get("/ingestion/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+    }
+
+    @Test
+    @WithMockUser(username = "user-1")
+    @DisplayName("GET /ingestion/jobs/{id} inexistente retorna 404")
+    void get_jobInexistente_retorna404() throws Exception {
+        given(ingestionService.findById("nao-existe", "user-1"))
+                .willThrow(new IngestionJobNotFoundException("nao-existe"));
+
+        mockMvc.perform(get("/ingestion/jobs/nao-existe"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "user-2")
+    @DisplayName("GET /ingestion/jobs/{id} de outro usuário retorna 404")
+    void get_jobDeOutroUsuario_retorna404() throws Exception {
+        given(ingestionService.findById("job-1", "user-2"))
+                .willThrow(new IngestionJobNotFoundException("job-1"));
+
+        mockMvc.perform(get("/ingestion/jobs/job-1"))
+                .andExpect(status().isNotFound());
+
+        verify(ingestionService).findById("job-1", "user-2");
+    }
+
+    @Test
+    @WithMockUser(username = "user-1")
+    @DisplayName("POST /ingestion/jobs/{id}/cancel retorna o job cancelado")
+    void cancel_jobPendente_retornaCancelled() throws Exception {
+        var job = new IngestionJob();
+        job.setStatus(IngestionStatus.CANCELLED);
+        given(ingestionService.cancel("job-1", "user-1")).willReturn(job);
+
+        mockMvc.perform(post("/ingestion/jobs/job-1/cancel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
+    @Test
+    @WithMockUser(username = "user-1")
+    @DisplayName("POST /ingestion/jobs/{id}/cancel de job em execução retorna 202 com o job ainda em PROCESSING")
+    void cancel_jobEmExecucao_retorna202() throws Exception {
+        var job = new IngestionJob();
+        job.setStatus(IngestionStatus.PROCESSING);
+        given(ingestionService.cancel("job-1", "user-1")).willReturn(job);
+
+        mockMvc.perform(post("/ingestion/jobs/job-1/cancel"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+    }
+
+    @Test
+    @WithMockUser(username = "user-2")
+    @DisplayName("POST /ingestion/jobs/{id}/cancel de outro usuário retorna 404")
+    void cancel_jobDeOutroUsuario_retorna404() throws Exception {
+        given(ingestionService.cancel("job-1", "user-2"))
+                .willThrow(new IngestionJobNotFoundException("job-1"));
+
+        mockMvc.perform(post("/ingestion/jobs/job-1/cancel"))
+                .andExpect(status().isNotFound());
+
+        verify(ingestionService).cancel("job-1", "user-2");
+    }
+
+    @Test
+    @DisplayName("POST /ingestion/jobs/{id}/cancel sem autenticação retorna 403")
+    void cancel_semAutenticacao_retorna403() throws Exception {
+        mockMvc.perform(post("/ingestion/jobs/job-1/cancel"))
+                .andExpect(status().isForbidden());
+    }
 }
@@ -2,6 +2,8 @@ package com.revisaai.ingestion;
 
 import com.revisaai.auth.dto.LoginRequest;
 import com.revisaai.auth.dto.RegisterRequest;
+import com.revisaai.question.Banca;
+import com.revisaai.user.UserRepository;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.*;
@@ -20,6 +22,8 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -38,6 +42,8 @@ class IngestionIntegrationTest {
     static void mongoProps(DynamicPropertyRegistry registry) {
         registry.add("spring.data.mongodb.uri",
                 () -> mongoDBContainer.getConnectionString() + "/revisaai_test");
+        // cada teste registra e loga o mesmo usuário no @BeforeEach
+        registry.add("app.security.rate-limit.enabled", () -> "false");
     }
 
     @Autowired
@@ -46,6 +52,9 @@ class IngestionIntegrationTest {
     @Autowired
     private IngestionJobRepository ingestionJobRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     private String jwtToken;
 
     // Bytes mínimos de um PDF válido para PDFBox
@@ -123,7 +132,7 @@ class IngestionIntegrationTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(response.getBody()).containsKey("id");
-        assertThat(response.getBody().get("status")).isIn("COMPLETED", "FAILED");
+        assertThat(awaitFinalStatus((String) response.getBody().get("id"))).isIn("COMPLETED", "FAILED");
         assertThat(ingestionJobRepository.count()).isEqualTo(1);
     }
 
@@ -154,6 +163,56 @@ class IngestionIntegrationTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(response.getBody()).containsKey("id");
+        assertThat(awaitFinalStatus((String) response.getBody().get("id"))).isIn("COMPLETED", "FAILED");
+    }
+
+    @Test
+    @DisplayName("POST /ingestion/jobs/{id}/cancel de job inexistente retorna 404")
+    void cancel_jobInexistente_retorna404() {
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+
+        var response = restTemplate.exchange("/ingestion/jobs/000000000000000000000000/cancel",
+                HttpMethod.POST, new HttpEntity<>(headers), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("GET e cancel de job de outro usuário retornam 404")
+    void jobDeOutroUsuario_retorna404() {
+        var job = new IngestionJob(Banca.FGV, 2024, "Analista");
+        job.setSubmittedBy("outro-usuario");
+        var saved = ingestionJobRepository.save(job);
+
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+
+        var get = restTemplate.exchange("/ingestion/jobs/" + saved.getId(),
+                HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+        var cancel = restTemplate.exchange("/ingestion/jobs/" + saved.getId() + "/cancel",
+                HttpMethod.POST, new HttpEntity<>(headers), Map.class);
+
+        assertThat(get.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(cancel.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(ingestionJobRepository.findById(saved.getId())).get()
+                .extracting(IngestionJob::getStatus).isEqualTo(IngestionStatus.PENDING);
+    }
+
+    // o processamento é assíncrono: consulta o job até sair de PENDING/PROCESSING
+    private String awaitFinalStatus(String jobId) {
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        long deadline = System.currentTimeMillis() + 10_000;
+        String status;
+        do {
+            var response = restTemplate.exchange("/ingestion/jobs/" + jobId,
+                    HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+            status = (String) response.getBody().get("status");
+            if (!"PENDING".equals(status) && !"PROCESSING".equals(status)) return status;
+            try { Thread.sleep(50); } catch (InterruptedException ignored) {}
+        } while (System.currentTimeMillis() < deadline);
+        return status;
     }
 
     @Test
@@ -177,4 +236,68 @@ class IngestionIntegrationTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
+
+    @Test
+    @DisplayName("job em PROCESSING com heartbeat vencido volta para PENDING; o renovado fica com o dono")
+    void releaseStale_devolveSoJobsSemHeartbeat() {
+        var now = Instant.now();
+        var stale = ingestionJobRepository.save(new IngestionJob(Banca.FGV, 2024, "Analista"));
+        var alive = ingestionJobRepository.save(new IngestionJob(Banca.FGV, 2024, "Analista"));
+        ingestionJobRepository.claim(stale.getId(), "no-morto", now.minusSeconds(600));
+        ingestionJobRepository.claim(alive.getId(), "no-vivo", now.minusSeconds(600));
+        ingestionJobRepository.renewLeases(List.of(alive.getId()), "no-vivo", now);
+
+        var released = ingestionJobRepository.releaseStale(now.minusSeconds(120));
+
+        assertThat(released).get().satisfies(job -> {
+            assertThat(job.getId()).isEqualTo(stale.getId());
+            assertThat(job.getStatus()).isEqualTo(IngestionStatus.PENDING);
+            assertThat(job.getClaimedBy()).isNull();
+        });
+        assertThat(ingestionJobRepository.releaseStale(now.minusSeconds(120))).isEmpty();
+        assertThat(ingestionJobRepository.findById(alive.getId())).get()
+                .extracting(IngestionJob::getStatus).isEqualTo(IngestionStatus.PROCESSING);
+    }
+
+    @Test
+    @DisplayName("gravação final do nó que perdeu o lease não sobrescreve o job do novo dono")
+    void completeClaim_leasePerdido_naoGrava() {
+        var now = Instant.now();
+        var job = ingestionJobRepository.save(new IngestionJob(Banca.FGV, 2024, "Analista"));
+        var stale = ingestionJobRepository.claim(job.getId(), "no-pausado", now.minusSeconds(600)).orElseThrow();
+        ingestionJobRepository.releaseStale(now.minusSeconds(120));
+        var current = ingestionJobRepository.claim(job.getId(), "no-novo", now).orElseThrow();
+
+        stale.setStatus(IngestionStatus.COMPLETED);
+        stale.setTextProva("resultado antigo");
+        current.setStatus(IngestionStatus.COMPLETED);
+        current.setTextProva("resultado novo");
+
+        assertThat(ingestionJobRepository.findClaimed(List.of(job.getId()), "no-pausado")).isEmpty();
+        assertThat(ingestionJobRepository.completeClaim(stale, "no-pausado")).isFalse();
+        assertThat(ingestionJobRepository.findById(job.getId())).get()
+                .extracting(IngestionJob::getStatus).isEqualTo(IngestionStatus.PROCESSING);
+        assertThat(ingestionJobRepository.completeClaim(current, "no-novo")).isTrue();
+        assertThat(ingestionJobRepository.findById(job.getId())).get()
+                .extracting(IngestionJob::getTextProva).isEqualTo("resultado novo");
+    }
+
+    @Test
+    @DisplayName("cancelamento de job em PROCESSING fica gravado para o nó dono e retorna 202")
+    void cancel_jobEmProcessamento_registraPedido() {
+        var job = new IngestionJob(Banca.FGV, 2024, "Analista");
+        job.setSubmittedBy(userRepository.findByEmail("admin@test.com").orElseThrow().getId());
+        var saved = ingestionJobRepository.save(job);
+        ingestionJobRepository.claim(saved.getId(), "outra-replica", Instant.now());
+
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        var response = restTemplate.exchange("/ingestion/jobs/" + saved.getId() + "/cancel",
+                HttpMethod.POST, new HttpEntity<>(headers), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(ingestionJobRepository.findClaimed(List.of(saved.getId()), "outra-replica"))
+                .singleElement()
+                .extracting(IngestionJob::getCancelRequestedAt).isNotNull();
+    }
 }
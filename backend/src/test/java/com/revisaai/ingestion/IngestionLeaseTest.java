@@ -0,0 +1,138 @@
+package com.revisaai.ingestion;
+
+import com.revisaai.question.Banca;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IngestionLease")
+class IngestionLeaseTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    @Mock
+    private IngestionJobRepository repository;
+
+    private final IngestionJobRegistry registry = new IngestionJobRegistry();
+
+    private IngestionLease lease() {
+        return new IngestionLease(repository, registry, Duration.ofMinutes(2), Duration.ofSeconds(30),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("releaseStale devolve todos os jobs com heartbeat anterior ao timeout")
+    void releaseStale_devolveAteEsgotar() {
+        var a = new IngestionJob(Banca.FGV, null, null);
+        var b = new IngestionJob(Banca.FGV, null, null);
+        given(repository.releaseStale(NOW.minus(Duration.ofMinutes(2))))
+                .willReturn(Optional.of(a), Optional.of(b), Optional.empty());
+
+        assertThat(lease().releaseStale()).containsExactly(a, b);
+    }
+
+    private static IngestionJob claimedJob(String id, Instant cancelRequestedAt) {
+        var job = new IngestionJob();
+        ReflectionTestUtils.setField(job, "id", id);
+        ReflectionTestUtils.setField(job, "cancelRequestedAt", cancelRequestedAt);
+        return job;
+    }
+
+    @Test
+    @DisplayName("renew renova o heartbeat só dos jobs reivindicados por este nó")
+    void renew_renovaJobsReivindicados() {
+        var lease = lease();
+        given(repository.claim(eq("job-1"), anyString(), eq(NOW))).willReturn(Optional.of(new IngestionJob()));
+        given(repository.findClaimed(eq(Set.of("job-1")), anyString())).willReturn(List.of(claimedJob("job-1", null)));
+        var claimed = registry.register("job-1");
+        var waiting = registry.register("job-2");
+        lease.claim("job-1");
+
+        lease.renew();
+
+        verify(repository).renewLeases(eq(Set.of("job-1")), anyString(), eq(NOW));
+        assertThat(claimed.isCancelled()).isFalse();
+        assertThat(waiting.isCancelled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("renew que não encontra o job como deste nó cancela o token local com LEASE_LOST")
+    void renew_leasePerdido_cancelaToken() {
+        var lease = lease();
+        given(repository.claim(anyString(), anyString(), eq(NOW))).willReturn(Optional.of(new IngestionJob()));
+        given(repository.findClaimed(eq(Set.of("job-1", "job-2")), anyString()))
+                .willReturn(List.of(claimedJob("job-2", null)));
+        var lost = registry.register("job-1");
+        var kept = registry.register("job-2");
+        lease.claim("job-1");
+        lease.claim("job-2");
+
+        lease.renew();
+
+        assertThatThrownBy(lost::throwIfCancelled)
+                .isInstanceOfSatisfying(IngestionCancelledException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(CancellationToken.Reason.LEASE_LOST));
+        assertThat(kept.isCancelled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("renew interrompe o job cujo cancelamento foi pedido em outra réplica")
+    void renew_cancelamentoPedido_cancelaToken() {
+        var lease = lease();
+        given(repository.claim(eq("job-1"), anyString(), eq(NOW))).willReturn(Optional.of(new IngestionJob()));
+        given(repository.findClaimed(eq(Set.of("job-1")), anyString()))
+                .willReturn(List.of(claimedJob("job-1", NOW.minusSeconds(5))));
+        var token = registry.register("job-1");
+        lease.claim("job-1");
+
+        lease.renew();
+
+        assertThatThrownBy(token::throwIfCancelled)
+                .isInstanceOfSatisfying(IngestionCancelledException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(CancellationToken.Reason.USER_REQUEST));
+    }
+
+    @Test
+    @DisplayName("complete grava só em nome deste nó e tira o job das renovações")
+    void complete_encerraLease() {
+        var lease = lease();
+        var job = claimedJob("job-1", null);
+        given(repository.claim(eq("job-1"), anyString(), eq(NOW))).willReturn(Optional.of(job));
+        given(repository.completeClaim(eq(job), anyString())).willReturn(false);
+        lease.claim("job-1");
+
+        assertThat(lease.complete(job)).isFalse();
+        lease.renew();
+
+        verify(repository, never()).renewLeases(any(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("heartbeat não menor que o timeout é recusado")
+    void construtor_heartbeatMaiorQueTimeout_falha() {
+        assertThatThrownBy(() -> new IngestionLease(repository, registry, Duration.ofSeconds(30),
+                Duration.ofSeconds(30), Clock.systemUTC()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,177 @@
+package com.revisaai.ingestion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("IngestionScheduler")
+class IngestionSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private IngestionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new IngestionScheduler(meterRegistry, 1, 10, 4);
+    }
+
+    @Test
+    @DisplayName("job único de um usuário não espera o lote inteiro de outro")
+    void take_loteDeUmUsuario_naoBloqueiaOutroUsuario() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            scheduler.enqueue(task("lote-" + i, "bulk-user", IngestionPriority.INTERACTIVE, 1));
+        }
+        scheduler.enqueue(task("unico", "outro-user", IngestionPriority.INTERACTIVE, 1));
+
+        var ordem = takeAll(3);
+
+        assertThat(ordem).containsExactly("lote-0", "unico", "lote-1");
+    }
+
+    @Test
+    @DisplayName("custo maior consome mais rodadas do déficit do usuário")
+    void take_custoMaior_consomeMaisRodadas() throws Exception {
+        scheduler.enqueue(task("grande", "a", IngestionPriority.BULK, 3));
+        scheduler.enqueue(task("b-0", "b", IngestionPriority.BULK, 1));
+        scheduler.enqueue(task("b-1", "b", IngestionPriority.BULK, 1));
+        scheduler.enqueue(task("b-2", "b", IngestionPriority.BULK, 1));
+
+        var ordem = takeAll(4);
+
+        assertThat(ordem).containsExactly("b-0", "b-1", "grande", "b-2");
+    }
+
+    @Test
+    @DisplayName("usuário no limite de concorrência é pulado até um job terminar")
+    void take_limitePorUsuario_pulaUsuarioOcupado() throws Exception {
+        scheduler = new IngestionScheduler(meterRegistry, 1, 1, 4);
+        var primeiro = task("a-0", "a", IngestionPriority.INTERACTIVE, 1);
+        scheduler.enqueue(primeiro);
+        scheduler.enqueue(task("a-1", "a", IngestionPriority.INTERACTIVE, 1));
+        scheduler.enqueue(task("b-0", "b", IngestionPriority.INTERACTIVE, 1));
+
+        assertThat(scheduler.take().jobId()).isEqualTo("a-0");
+        assertThat(scheduler.take().jobId()).isEqualTo("b-0");
+
+        scheduler.complete(primeiro);
+        assertThat(scheduler.take().jobId()).isEqualTo("a-1");
+    }
+
+    @Test
+    @DisplayName("INTERACTIVE tem preferência ponderada sem deixar BULK sem atendimento")
+    void take_prioridades_respeitaPeso() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            scheduler.enqueue(task("i-" + i, "u" + i, IngestionPriority.INTERACTIVE, 1));
+            scheduler.enqueue(task("b-" + i, "v" + i, IngestionPriority.BULK, 1));
+        }
+
+        var ordem = takeAll(10);
+
+        assertThat(ordem).containsExactly("i-0", "i-1", "i-2", "i-3", "b-0",
+                "i-4", "i-5", "i-6", "i-7", "b-1");
+    }
+
+    @Test
+    @DisplayName("segundo job INTERACTIVE do mesmo usuário entra como BULK")
+    void enqueue_rajadaDoMesmoUsuario_rebaixaParaBulk() throws Exception {
+        scheduler.enqueue(task("a-0", "a", IngestionPriority.INTERACTIVE, 1));
+        scheduler.enqueue(task("a-1", "a", IngestionPriority.INTERACTIVE, 1));
+        scheduler.enqueue(task("b-0", "b", IngestionPriority.INTERACTIVE, 1));
+
+        assertThat(scheduler.queued(IngestionPriority.INTERACTIVE)).isEqualTo(2);
+        assertThat(scheduler.queued(IngestionPriority.BULK)).isEqualTo(1);
+
+        var primeiro = scheduler.take();
+        assertThat(primeiro.jobId()).isEqualTo("a-0");
+        // com a-0 em execução, o próximo job de a também é carga em lote
+        scheduler.enqueue(task("a-2", "a", IngestionPriority.INTERACTIVE, 1));
+        assertThat(scheduler.queued(IngestionPriority.BULK)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("parâmetros que travariam o deficit round-robin são recusados")
+    void construtor_parametrosInvalidos_falha() {
+        assertThatThrownBy(() -> new IngestionScheduler(meterRegistry, 0, 1, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IngestionScheduler(meterRegistry, 1, 0, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IngestionScheduler(meterRegistry, 1, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("close devolve jobs não iniciados e libera workers bloqueados")
+    void close_devolvePendentesEDesbloqueiaTake() throws Exception {
+        scheduler.enqueue(task("a-0", "a", IngestionPriority.INTERACTIVE, 1));
+        scheduler.enqueue(task("b-0", "b", IngestionPriority.BULK, 1));
+
+        var pendentes = scheduler.close();
+
+        assertThat(pendentes).extracting(IngestionTask::jobId).containsExactlyInAnyOrder("a-0", "b-0");
+        assertThat(scheduler.take()).isNull();
+        assertThat(scheduler.enqueue(task("c-0", "c", IngestionPriority.INTERACTIVE, 1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("registra tempo de espera na fila e tamanho por prioridade")
+    void take_registraMetricasDeFila() throws Exception {
+        scheduler.enqueue(task("a-0", "a", IngestionPriority.BULK, 1));
+        scheduler.enqueue(task("a-1", "a", IngestionPriority.BULK, 1));
+
+        assertThat(meterRegistry.get("ingestion.queue.size").tag("priority", "bulk").gauge().value())
+                .isEqualTo(2.0);
+
+        scheduler.take();
+
+        assertThat(meterRegistry.get("ingestion.queue.wait").tag("priority", "bulk").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("ingestion.queue.size").tag("priority", "bulk").gauge().value())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("expõe jobs em execução e a espera do job mais antigo de cada fila")
+    void gauges_execucaoEIdadeDaFila() throws Exception {
+        scheduler.enqueue(task("a-0", "a", IngestionPriority.BULK, 1));
+        scheduler.enqueue(task("b-0", "b", IngestionPriority.BULK, 1));
+        Thread.sleep(5);
+
+        var running = meterRegistry.get("ingestion.jobs.running").gauge();
+        var oldestBulk = meterRegistry.get("ingestion.queue.oldest.age").tag("priority", "bulk").timeGauge();
+        var oldestInteractive = meterRegistry.get("ingestion.queue.oldest.age").tag("priority", "interactive").timeGauge();
+        assertThat(running.value()).isZero();
+        assertThat(oldestBulk.value(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(5);
+        assertThat(oldestInteractive.value(TimeUnit.MILLISECONDS)).isZero();
+
+        var task = scheduler.take();
+        assertThat(running.value()).isEqualTo(1.0);
+
+        scheduler.complete(task);
+        scheduler.complete(scheduler.take());
+        assertThat(running.value()).isZero();
+        assertThat(oldestBulk.value(TimeUnit.MILLISECONDS)).isZero();
+    }
+
+    private List<String> takeAll(int count) throws InterruptedException {
+        var ordem = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            var task = scheduler.take();
+            ordem.add(task.jobId());
+            scheduler.complete(task);
+        }
+        return ordem;
+    }
+
+    private static IngestionTask task(String jobId, String userId, IngestionPriority priority, int cost) {
+        return new IngestionTask(jobId, userId, priority, cost, () -> {});
+    }
+}
@@ -1,19 +1,29 @@
 package com.revisaai.ingestion;
 
 import com.revisaai.question.Banca;
+import com.revisaai.shared.exception.IngestionJobNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -29,125 +39,472 @@ class IngestionServiceTest {
     @Mock
     private PdfTextExtractor extractor;
 
+    @Mock
+    private IngestionUploadStore uploadStore;
+
+    @Mock
+    private IngestionWorkerPool workerPool;
+
+    @Mock
+    private IngestionLease lease;
+
+    private IngestionJobRegistry registry;
+    private SimpleMeterRegistry meterRegistry;
     private IngestionService service;
+    private IngestionJob savedJob;
 
+    private static final String USER_ID = "user-1";
     private static final byte[] PDF_BYTES = new byte[]{0x25, 0x50, 0x44, 0x46}; // %PDF header
 
     @BeforeEach
     void setUp() {
-        service = new IngestionService(repository, downloader, extractor);
+        registry = new IngestionJobRegistry();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new IngestionService(repository, downloader, extractor, uploadStore, registry, workerPool, lease,
+                meterRegistry, DataSize.ofMegabytes(5));
+    }
+
+    // executa o job na própria thread do teste, simulando um worker livre
+    private void runJobsInline() {
+        given(workerPool.submit(any())).willAnswer(inv -> {
+            inv.<IngestionTask>getArgument(0).work().run();
+            return true;
+        });
+    }
+
+    private void stubPersistence() {
+        given(repository.save(any())).willAnswer(inv -> {
+            IngestionJob job = inv.getArgument(0);
+            if (job.getId() == null) ReflectionTestUtils.setField(job, "id", "job-1");
+            savedJob = job;
+            return job;
+        });
+    }
+
+    private static IngestionJob jobOf(String userId) {
+        var job = new IngestionJob(Banca.FGV, null, null);
+        job.setSubmittedBy(userId);
+        return job;
+    }
+
+    private void stubClaim() {
+        stubClaim(true);
+    }
+
+    private void stubClaim(boolean leaseHeld) {
+        given(lease.claim("job-1"))
+                .willAnswer(inv -> {
+                    savedJob.setStatus(IngestionStatus.PROCESSING);
+                    return Optional.of(savedJob);
+                });
+        given(lease.complete(any())).willReturn(leaseHeld);
     }
 
     @Test
-    @DisplayName("process com dois arquivos retorna job COMPLETED")
-    void process_comDoisArquivos_retornaJobCompleted() throws IOException {
+    @DisplayName("submit com dois arquivos guarda uploads, cria job PENDING e enfileira")
+    void submit_comDoisArquivos_criaJobPendingEEnfileira() throws IOException {
         var provaFile = new MockMultipartFile("provaArquivo", "prova.pdf",
                 "application/pdf", PDF_BYTES);
         var gabaritoFile = new MockMultipartFile("gabaritoArquivo", "gabarito.pdf",
                 "application/pdf", PDF_BYTES);
 
-        given(repository.save(any())).willAnswer(inv -> inv.getArgument(0));
-        given(extractor.extract(PDF_BYTES)).willReturn("texto extraído");
+        stubPersistence();
+        given(uploadStore.store(provaFile)).willReturn("upload-prova");
+        given(uploadStore.store(gabaritoFile)).willReturn("upload-gabarito");
+        given(workerPool.submit(any())).willReturn(true);
 
-        var job = service.process("CEBRASPE", null, null,
+        var job = service.submit(USER_ID, IngestionPriority.INTERACTIVE, "CEBRASPE", null, null,
                 provaFile, null, gabaritoFile, null);
 
-        assertThat(job.getStatus()).isEqualTo(IngestionStatus.COMPLETED);
+        assertThat(job.getStatus()).isEqualTo(IngestionStatus.PENDING);
         assertThat(job.getBanca()).isEqualTo(Banca.CEBRASPE);
+        assertThat(job.getProvaUploadId()).isEqualTo("upload-prova");
+        assertThat(job.getGabaritoUploadId()).isEqualTo("upload-gabarito");
+        verify(workerPool).submit(any());
+        verifyNoInteractions(downloader, extractor);
+    }
+
+    @Test
+    @DisplayName("submit enfileira tarefa com usuário, prioridade e custo proporcional ao upload")
+    void submit_enfileiraTarefaComUsuarioPrioridadeECusto() throws IOException {
+        var provaFile = new MockMultipartFile("provaArquivo", "prova.pdf",
+                "application/pdf", new byte[12 * 1024 * 1024]);
+
+        stubPersistence();
+        given(uploadStore.store(provaFile)).willReturn("upload-prova");
+        given(workerPool.submit(any())).willReturn(true);
+
+        var job = service.submit(USER_ID, IngestionPriority.BULK, "FGV", null, null,
+                provaFile, null, null, "http://gabarito.pdf");
+
+        var task = ArgumentCaptor.forClass(IngestionTask.class);
+        verify(workerPool).submit(task.capture());
+        assertThat(task.getValue().jobId()).isEqualTo("job-1");
+        assertThat(task.getValue().userId()).isEqualTo(USER_ID);
+        assertThat(task.getValue().priority()).isEqualTo(IngestionPriority.BULK);
+        assertThat(task.getValue().cost()).isEqualTo(3);
+        assertThat(job.getSubmittedBy()).isEqualTo(USER_ID);
+        assertThat(job.getPriority()).isEqualTo(IngestionPriority.BULK);
+    }
+
+    @Test
+    @DisplayName("job com dois arquivos é processado e termina COMPLETED")
+    void execute_comDoisArquivos_retornaJobCompleted() throws IOException {
+        var provaFile = new MockMultipartFile("provaArquivo", "prova.pdf",
+                "application/pdf", PDF_BYTES);
+        var gabaritoFile = new MockMultipartFile("gabaritoArquivo", "gabarito.pdf",
+                "application/pdf", PDF_BYTES);
+
+        stubPersistence();
+        runJobsInline();
+        given(uploadStore.store(any())).willReturn("upload-prova", "upload-gabarito");
+        given(uploadStore.load(anyString())).willReturn(PDF_BYTES);
+        given(extractor.extract(eq(PDF_BYTES), any())).willReturn("texto extraído");
+        stubClaim();
+
+        var job = service.submit(USER_ID, IngestionPriority.INTERACTIVE, "CEBRASPE", null, null,
+                provaFile, null, gabaritoFile, null);
+
+        assertThat(job.getStatus()).isEqualTo(IngestionStatus.COMPLETED);
         assertThat(job.getTextProva()).isEqualTo("texto extraído");
         assertThat(job.getTextGabarito()).isEqualTo("texto extraído");
-        verify(downloader, never()).download(anyString());
-        verify(extractor, times(2)).extract(PDF_BYTES);
+        verify(downloader, never()).download(anyString(), any());
+        verify(extractor, times(2)).extract(eq(PDF_BYTES), any());
+        verify(uploadStore).delete("upload-prova");
+        verify(uploadStore).delete("upload-gabarito");
+        assertThat(meterRegistry.get("ingestion.job.duration").tag("status", "completed").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("ingestion.persist.duration").timer().count()).isEqualTo(1);
     }
 
     @Test
-    @DisplayName("process com duas URLs baixa e extrai")
-    void process_comDuasUrls_baixaEExtrai() throws IOException {
-        given(repository.save(any())).willAnswer(inv -> inv.getArgument(0));
-        given(downloader.download("http://prova.pdf")).willReturn(PDF_BYTES);
-        given(downloader.download("http://gabarito.pdf")).willReturn(PDF_BYTES);
-        given(extractor.extract(PDF_BYTES)).willReturn("texto via url");
+    @DisplayName("job com duas URLs baixa e extrai")
+    void execute_comDuasUrls_baixaEExtrai() throws IOException {
+        stubPersistence();
+        runJobsInline();
+        given(downloader.download(eq("http://prova.pdf"), any())).willReturn(PDF_BYTES);
+        given(downloader.download(eq("http://gabarito.pdf"), any())).willReturn(PDF_BYTES);
+        given(extractor.extract(eq(PDF_BYTES), any())).willReturn("texto via url");
+        stubClaim();
 
-        var job = service.process("FGV", 2023, "Analista",
+        var job = service.submit(USER_ID, IngestionPriority.INTERACTIVE, "FGV", 2023, "Analista",
                 null, "http://prova.pdf", null, "http://gabarito.pdf");
 
         assertThat(job.getStatus()).isEqualTo(IngestionStatus.COMPLETED);
         assertThat(job.getBanca()).isEqualTo(Banca.FGV);
         assertThat(job.getAno()).isEqualTo(2023);
         assertThat(job.getCargo()).isEqualTo("Analista");
-        verify(downloader).download("http://prova.pdf");
-        verify(downloader).download("http://gabarito.pdf");
+        verify(downloader).download(eq("http://prova.pdf"), any());
+        verify(downloader).download(eq("http://gabarito.pdf"), any());
     }
 
     @Test
-    @DisplayName("process misto arquivo e URL processa ambos")
-    void process_mistoArquivoEUrl_processaAmbos() throws IOException {
+    @DisplayName("job misto arquivo e URL processa ambos")
+    void execute_mistoArquivoEUrl_processaAmbos() throws IOException {
         var provaFile = new MockMultipartFile("provaArquivo", "prova.pdf",
                 "application/pdf", PDF_BYTES);
 
-        given(repository.save(any())).willAnswer(inv -> inv.getArgument(0));
-        given(downloader.download("http://gabarito.pdf")).willReturn(PDF_BYTES);
-        given(extractor.extract(PDF_BYTES)).willReturn("texto");
+        stubPersistence();
+        runJobsInline();
+        given(uploadStore.store(provaFile)).willReturn("upload-prova");
+        given(uploadStore.load("upload-prova")).willReturn(PDF_BYTES);
+        given(downloader.download(eq("http://gabarito.pdf"), any())).willReturn(PDF_BYTES);
+        given(extractor.extract(eq(PDF_BYTES), any())).willReturn("texto");
+        stubClaim();
 
-        var job = service.process("CESGRANRIO", null, null,
+        var job = service.submit(USER_ID, IngestionPriority.INTERACTIVE, "CESGRANRIO", null, null,
                 provaFile, null, null, "http://gabarito.pdf");
 
         assertThat(job.getStatus()).isEqualTo(IngestionStatus.COMPLETED);
-        verify(downloader, never()).download("http://prova.pdf");
-        verify(downloader).download("http://gabarito.pdf");
+        verify(downloader, never()).download(eq("http://prova.pdf"), any());
+        verify(downloader).download(eq("http://gabarito.pdf"), any());
     }
 
     @Test
-    @DisplayName("process sem fonte da prova lança IllegalArgumentException")
-    void process_semFonteDaProva_throwsIllegalArgumentException() {
+    @DisplayName("submit sem fonte da prova lança IllegalArgumentException")
+    void submit_semFonteDaProva_throwsIllegalArgumentException() {
         assertThatThrownBy(() ->
-                service.process("CEBRASPE", null, null,
+                service.submit(USER_ID, IngestionPriority.INTERACTIVE, "CEBRASPE", null, null,
                         null, null, null, "http://gabarito.pdf"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("prova");
     }
 
     @Test
-    @DisplayName("process sem fonte do gabarito lança IllegalArgumentException")
-    void process_semFonteDoGabarito_throwsIllegalArgumentException() {
+    @DisplayName("submit sem fonte do gabarito lança IllegalArgumentException")
+    void submit_semFonteDoGabarito_throwsIllegalArgumentException() {
         var provaFile = new MockMultipartFile("provaArquivo", "prova.pdf",
                 "application/pdf", PDF_BYTES);
 
         assertThatThrownBy(() ->
-                service.process("CEBRASPE", null, null,
+                service.submit(USER_ID, IngestionPriority.INTERACTIVE, "CEBRASPE", null, null,
                         provaFile, null, null, null))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("gabarito");
     }
 
     @Test
-    @DisplayName("process com banca inválida lança IllegalArgumentException antes de qualquer I/O")
-    void process_bancaInvalida_throwsIllegalArgumentException() {
+    @DisplayName("submit com banca inválida lança IllegalArgumentException antes de qualquer I/O")
+    void submit_bancaInvalida_throwsIllegalArgumentException() {
         assertThatThrownBy(() ->
-                service.process("INVALIDA", null, null,
+                service.submit(USER_ID, IngestionPriority.INTERACTIVE, "INVALIDA", null, null,
                         null, "http://prova.pdf", null, "http://gabarito.pdf"))
                 .isInstanceOf(IllegalArgumentException.class);
 
-        verify(downloader, never()).download(anyString());
+        verify(downloader, never()).download(anyString(), any());
         verify(repository, never()).save(any());
+        verifyNoInteractions(workerPool);
+    }
+
+    @Test
+    @DisplayName("job com erro na extração termina FAILED com errorMessage")
+    void execute_erroPdfExtraction_retornaJobFailed() throws IOException {
+        stubPersistence();
+        runJobsInline();
+        given(downloader.download(anyString(), any())).willReturn(PDF_BYTES);
+        given(extractor.extract(eq(PDF_BYTES), any())).willThrow(new IOException("PDF corrompido"));
+        stubClaim();
+
+        var job = service.submit(USER_ID, IngestionPriority.INTERACTIVE, "FGV", null, null,
+                null, "http://prova.pdf", null, "http://gabarito.pdf");
+
+        assertThat(job.getStatus()).isEqualTo(IngestionStatus.FAILED);
+        assertThat(job.getErrorMessage()).contains("PDF corrompido");
+        assertThat(job.getTextProva()).isNull();
     }
 
     @Test
-    @DisplayName("process com erro na extração retorna job FAILED com errorMessage")
-    void process_erroPdfExtraction_retornaJobFailed() throws IOException {
+    @DisplayName("cancel de job na fila troca para CANCELLED e libera uploads")
+    void cancel_jobPendente_ficaCancelled() {
+        var job = new IngestionJob(Banca.FGV, null, null);
+        job.setProvaUploadId("upload-prova");
+        job.setStatus(IngestionStatus.CANCELLED);
+        given(repository.findById("job-1")).willReturn(Optional.of(jobOf(USER_ID)));
+        given(repository.compareAndSetStatus("job-1", IngestionStatus.PENDING, IngestionStatus.CANCELLED))
+                .willReturn(Optional.of(job));
+
+        var result = service.cancel("job-1", USER_ID);
+
+        assertThat(result.getStatus()).isEqualTo(IngestionStatus.CANCELLED);
+        verify(uploadStore).delete("upload-prova");
+    }
+
+    @Test
+    @DisplayName("cancel durante a extração interrompe o job e marca CANCELLED")
+    void cancel_duranteExtracao_marcaCancelled() throws IOException {
+        stubPersistence();
+        runJobsInline();
+        given(downloader.download(anyString(), any())).willReturn(PDF_BYTES);
+        given(repository.compareAndSetStatus("job-1", IngestionStatus.PENDING, IngestionStatus.CANCELLED))
+                .willReturn(Optional.empty());
+        given(repository.findById("job-1")).willAnswer(inv -> Optional.of(jobOf(USER_ID)));
+        given(repository.requestCancel("job-1")).willAnswer(inv -> Optional.of(savedJob));
+        given(extractor.extract(eq(PDF_BYTES), any())).willAnswer(inv -> {
+            service.cancel("job-1", USER_ID);
+            inv.<CancellationToken>getArgument(1).throwIfCancelled();
+            return "texto";
+        });
+        stubClaim();
+
+        var job = service.submit(USER_ID, IngestionPriority.INTERACTIVE, "FGV", null, null,
+                null, "http://prova.pdf", null, "http://gabarito.pdf");
+
+        assertThat(job.getStatus()).isEqualTo(IngestionStatus.CANCELLED);
+        assertThat(job.getTextProva()).isNull();
+        verify(extractor, times(1)).extract(any(), any());
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("cancel de job em execução em outra réplica grava o pedido e devolve o job em PROCESSING")
+    void cancel_jobEmOutraReplica_gravaPedido() {
+        var running = jobOf(USER_ID);
+        running.setStatus(IngestionStatus.PROCESSING);
+        given(repository.findById("job-1")).willReturn(Optional.of(jobOf(USER_ID)));
+        given(repository.compareAndSetStatus("job-1", IngestionStatus.PENDING, IngestionStatus.CANCELLED))
+                .willReturn(Optional.empty());
+        given(repository.requestCancel("job-1")).willReturn(Optional.of(running));
+
+        var result = service.cancel("job-1", USER_ID);
+
+        assertThat(result.getStatus()).isEqualTo(IngestionStatus.PROCESSING);
+        verify(uploadStore, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("cancel de job já finalizado devolve o job sem alteração")
+    void cancel_jobFinalizado_devolveSemAlteracao() {
+        var completed = jobOf(USER_ID);
+        completed.setStatus(IngestionStatus.COMPLETED);
+        given(repository.findById("job-1")).willReturn(Optional.of(completed));
+        given(repository.compareAndSetStatus("job-1", IngestionStatus.PENDING, IngestionStatus.CANCELLED))
+                .willReturn(Optional.empty());
+        given(repository.requestCancel("job-1")).willReturn(Optional.empty());
+
+        var result = service.cancel("job-1", USER_ID);
+
+        assertThat(result.getStatus()).isEqualTo(IngestionStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("job reivindicado com pedido de cancelamento pendente termina CANCELLED sem baixar nada")
+    void execute_cancelamentoPedidoAntesDoClaim_marcaCancelled() {
+        stubPersistence();
+        runJobsInline();
+        given(lease.claim("job-1")).willAnswer(inv -> {
+            savedJob.setStatus(IngestionStatus.PROCESSING);
+            ReflectionTestUtils.setField(savedJob, "cancelRequestedAt", Instant.now());
+            return Optional.of(savedJob);
+        });
+        given(lease.complete(any())).willReturn(true);
+
+        var job = service.submit(USER_ID, IngestionPriority.INTERACTIVE, "FGV", null, null,
+                null, "http://prova.pdf", null, "http://gabarito.pdf");
+
+        assertThat(job.getStatus()).isEqualTo(IngestionStatus.CANCELLED);
+        verifyNoInteractions(downloader, extractor);
+    }
+
+    @Test
+    @DisplayName("job interrompido pelo desligamento volta para PENDING e mantém os uploads")
+    void execute_interrompidoNoShutdown_voltaParaPending() throws IOException {
         var provaFile = new MockMultipartFile("provaArquivo", "prova.pdf",
                 "application/pdf", PDF_BYTES);
         var gabaritoFile = new MockMultipartFile("gabaritoArquivo", "gabarito.pdf",
                 "application/pdf", PDF_BYTES);
 
-        given(repository.save(any())).willAnswer(inv -> inv.getArgument(0));
-        given(extractor.extract(PDF_BYTES)).willThrow(new IOException("PDF corrompido"));
+        stubPersistence();
+        runJobsInline();
+        given(uploadStore.store(any())).willReturn("upload-prova", "upload-gabarito");
+        given(uploadStore.load(anyString())).willReturn(PDF_BYTES);
+        given(extractor.extract(eq(PDF_BYTES), any())).willAnswer(inv -> {
+            registry.cancelAll(CancellationToken.Reason.SHUTDOWN);
+            inv.<CancellationToken>getArgument(1).throwIfCancelled();
+            return "texto";
+        });
+        stubClaim();
 
-        var job = service.process("FGV", null, null,
+        var job = service.submit(USER_ID, IngestionPriority.INTERACTIVE, "CEBRASPE", null, null,
                 provaFile, null, gabaritoFile, null);
 
-        assertThat(job.getStatus()).isEqualTo(IngestionStatus.FAILED);
-        assertThat(job.getErrorMessage()).contains("PDF corrompido");
-        assertThat(job.getTextProva()).isNull();
+        assertThat(job.getStatus()).isEqualTo(IngestionStatus.PENDING);
+        verify(uploadStore, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("job que perdeu o lease durante a extração descarta o resultado e mantém os uploads")
+    void execute_leasePerdido_descartaResultadoEMantemUploads() throws IOException {
+        var provaFile = new MockMultipartFile("provaArquivo", "prova.pdf",
+                "application/pdf", PDF_BYTES);
+        var gabaritoFile = new MockMultipartFile("gabaritoArquivo", "gabarito.pdf",
+                "application/pdf", PDF_BYTES);
+
+        stubPersistence();
+        runJobsInline();
+        given(uploadStore.store(any())).willReturn("upload-prova", "upload-gabarito");
+        given(uploadStore.load(anyString())).willReturn(PDF_BYTES);
+        given(extractor.extract(eq(PDF_BYTES), any())).willAnswer(inv -> {
+            registry.cancel("job-1", CancellationToken.Reason.LEASE_LOST);
+            inv.<CancellationToken>getArgument(1).throwIfCancelled();
+            return "texto";
+        });
+        stubClaim(false);
+
+        service.submit(USER_ID, IngestionPriority.INTERACTIVE, "CEBRASPE", null, null,
+                provaFile, null, gabaritoFile, null);
+
+        verify(lease).complete(savedJob);
+        verify(uploadStore, never()).delete(anyString());
+        assertThat(meterRegistry.get("ingestion.job.duration").tag("status", "lease_lost").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("job já reivindicado por outro worker não é processado de novo")
+    void execute_jobJaReivindicado_naoProcessa() {
+        stubPersistence();
+        runJobsInline();
+        given(lease.claim("job-1")).willReturn(Optional.empty());
+
+        service.submit(USER_ID, IngestionPriority.INTERACTIVE, "FGV", null, null, null, "http://prova.pdf", null, "http://gabarito.pdf");
+
+        verifyNoInteractions(downloader, extractor);
+    }
+
+    @Test
+    @DisplayName("resumePendingJobs reenfileira jobs PENDING")
+    void resumePendingJobs_reenfileiraPendentes() {
+        var job = new IngestionJob(Banca.FGV, null, null);
+        ReflectionTestUtils.setField(job, "id", "job-9");
+        given(repository.findByStatus(IngestionStatus.PENDING)).willReturn(List.of(job));
+        given(workerPool.submit(any())).willReturn(true);
+
+        service.resumePendingJobs();
+
+        verify(workerPool).submit(any());
+        verify(lease).start(any());
+    }
+
+    @Test
+    @DisplayName("varredura reenfileira jobs em PROCESSING cujo nó parou de renovar o lease")
+    void resumeStaleJobs_reenfileiraJobsSemHeartbeat() {
+        var job = new IngestionJob(Banca.FGV, null, null);
+        ReflectionTestUtils.setField(job, "id", "job-7");
+        given(lease.releaseStale()).willReturn(List.of(job));
+        given(workerPool.submit(any())).willReturn(true);
+
+        service.resumeStaleJobs();
+
+        var task = ArgumentCaptor.forClass(IngestionTask.class);
+        verify(workerPool).submit(task.capture());
+        assertThat(task.getValue().jobId()).isEqualTo("job-7");
+    }
+
+    @Test
+    @DisplayName("falha ao gravar o job apaga os uploads já armazenados")
+    void submit_falhaAoGravar_apagaUploads() throws IOException {
+        var provaFile = new MockMultipartFile("provaArquivo", "prova.pdf", "application/pdf", PDF_BYTES);
+        var gabaritoFile = new MockMultipartFile("gabaritoArquivo", "gabarito.pdf", "application/pdf", PDF_BYTES);
+        given(uploadStore.store(any())).willReturn("upload-prova", "upload-gabarito");
+        given(repository.save(any())).willThrow(new DataAccessResourceFailureException("mongo fora"));
+
+        assertThatThrownBy(() -> service.submit(USER_ID, IngestionPriority.INTERACTIVE, "FGV", null, null,
+                provaFile, null, gabaritoFile, null))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        verify(uploadStore).delete("upload-prova");
+        verify(uploadStore).delete("upload-gabarito");
+        verifyNoInteractions(workerPool);
+    }
+
+    @Test
+    @DisplayName("findById inexistente lança IngestionJobNotFoundException")
+    void findById_inexistente_throws() {
+        given(repository.findById("nao-existe")).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.findById("nao-existe", USER_ID))
+                .isInstanceOf(IngestionJobNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("findById de job de outro usuário lança IngestionJobNotFoundException")
+    void findById_jobDeOutroUsuario_throws() {
+        given(repository.findById("job-1")).willReturn(Optional.of(jobOf("user-2")));
+
+        assertThatThrownBy(() -> service.findById("job-1", USER_ID))
+                .isInstanceOf(IngestionJobNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("cancel de job de outro usuário lança IngestionJobNotFoundException sem cancelar")
+    void cancel_jobDeOutroUsuario_naoCancela() {
+        given(repository.findById("job-1")).willReturn(Optional.of(jobOf("user-2")));
+        var token = registry.register("job-1");
+
+        assertThatThrownBy(() -> service.cancel("job-1", USER_ID))
+                .isInstanceOf(IngestionJobNotFoundException.class);
+
+        verify(repository, never()).compareAndSetStatus(any(), any(), any());
+        assertThat(token.isCancelled()).isFalse();
     }
 }
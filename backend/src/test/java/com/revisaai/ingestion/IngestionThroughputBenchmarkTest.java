@@ -0,0 +1,145 @@
+package com.revisaai.ingestion;
+
+import com.revisaai.question.Banca;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vazão do pipeline de ingestão completo ({@code IngestionService.submit} até o job COMPLETED no
+ * MongoDB: upload store, fila, workers, extração e gravação) sobre um corpus do
+ * {@link ExamPdfGenerator} com provas de 2 a 20 páginas das três bancas.
+ *
+ * <p>Reporta PDFs por segundo, MB por segundo de entrada e o maior heap usado durante a rodada,
+ * amostrado a cada {@value #HEAP_SAMPLE_MILLIS} ms. Os jobs vêm de usuários diferentes, para o
+ * limite por usuário do escalonador não serializar a fila. Fica fora da suíte padrão; rodar com
+ * {@code mvn test -Pbenchmark -Dtest=IngestionThroughputBenchmarkTest} (precisa de Docker).
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+@ActiveProfiles("test")
+@DisplayName("Ingestão — vazão do pipeline completo")
+class IngestionThroughputBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionThroughputBenchmarkTest.class);
+
+    private static final int JOBS = 60;
+    private static final int WARMUP_JOBS = 6;
+    private static final int[] PAGES = {2, 8, 20};
+    private static final int HEAP_SAMPLE_MILLIS = 10;
+    private static final Duration TIMEOUT = Duration.ofMinutes(10);
+    private static final EnumSet<IngestionStatus> FINISHED =
+            EnumSet.of(IngestionStatus.COMPLETED, IngestionStatus.FAILED, IngestionStatus.CANCELLED);
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7");
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+                () -> mongoDBContainer.getConnectionString() + "/revisaai_test");
+        registry.add("logging.level.com.revisaai", () -> "INFO");
+    }
+
+    @Autowired
+    private IngestionService ingestionService;
+
+    @Autowired
+    private IngestionJobRepository repository;
+
+    @Value("${app.ingestion.workers}")
+    private int workers;
+
+    private final List<ExamPdfGenerator.Exam> corpus = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository.deleteAll();
+        var bancas = Banca.values();
+        for (int i = 0; i < JOBS; i++) {
+            var spec = new ExamPdfGenerator.Spec(bancas[i % bancas.length], PAGES[i % PAGES.length], 2, true, i);
+            corpus.add(ExamPdfGenerator.generate(spec));
+        }
+    }
+
+    @Test
+    @DisplayName("todas as provas do corpus concluem e a vazão é reportada")
+    void ingestao_corpusSintetico() throws Exception {
+        process(corpus.subList(0, WARMUP_JOBS)); // aquecimento
+
+        System.gc();
+        var peakHeap = new AtomicLong();
+        var sampler = Thread.ofPlatform().daemon().start(() -> sampleHeap(peakHeap));
+        long start = System.nanoTime();
+        var jobs = process(corpus);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampler.interrupt();
+
+        long bytes = corpus.stream().mapToLong(ExamPdfGenerator.Exam::bytes).sum();
+        log.info(String.format("Ingestão com %d workers: %d jobs (%d PDFs, %.1f MB) em %.1fs",
+                workers, JOBS, 2 * JOBS, bytes / 1e6, seconds));
+        log.info(String.format("  %.1f PDFs/s, %.2f MB/s, heap máximo %d MB",
+                2 * JOBS / seconds, bytes / 1e6 / seconds, peakHeap.get() / (1024 * 1024)));
+
+        assertThat(jobs).allSatisfy(job -> {
+            assertThat(job.getStatus()).isEqualTo(IngestionStatus.COMPLETED);
+            assertThat(job.getTextGabarito()).startsWith("GABARITO DEFINITIVO");
+        });
+    }
+
+    private List<IngestionJob> process(List<ExamPdfGenerator.Exam> exams) throws InterruptedException {
+        var ids = new ArrayList<String>(exams.size());
+        for (int i = 0; i < exams.size(); i++) {
+            var exam = exams.get(i);
+            var job = ingestionService.submit("benchmark-user-" + i, IngestionPriority.BULK,
+                    Banca.values()[i % Banca.values().length].name(), 2024, "Analista",
+                    new MockMultipartFile("provaArquivo", "prova.pdf", "application/pdf", exam.prova()), null,
+                    new MockMultipartFile("gabaritoArquivo", "gabarito.pdf", "application/pdf", exam.gabarito()), null);
+            ids.add(job.getId());
+        }
+
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (true) {
+            var jobs = repository.findAllById(ids);
+            if (jobs.stream().allMatch(job -> FINISHED.contains(job.getStatus()))) return jobs;
+            assertThat(System.nanoTime()).as("jobs concluídos dentro de %s", TIMEOUT).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static void sampleHeap(AtomicLong peak) {
+        var memory = ManagementFactory.getMemoryMXBean();
+        try {
+            while (true) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                Thread.sleep(HEAP_SAMPLE_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.revisaai.ingestion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PdfTextExtractor")
+class PdfTextExtractorTest {
+
+    private static final int LINES_PER_COLUMN = 6;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PdfTextExtractor extractor = new PdfTextExtractor(new TextPostProcessor(), meterRegistry);
+
+    @Test
+    @DisplayName("prova em duas colunas sai na ordem de leitura, sem cabeçalho e rodapé")
+    void extract_duasColunas_preservaOrdemDeLeitura() throws IOException {
+        var text = extractor.extract(twoColumnExam(3), new CancellationToken());
+
+        assertThat(text).doesNotContain("Concurso Teste", "Página");
+        assertThat(text).contains(
+                "PROVA OBJETIVA DE CONHECIMENTOS GERAIS E ESPECÍFICOS\n"
+                        + "Questão 1 linha 1\nQuestão 1 linha 2");
+        assertThat(text).contains("Questão 1 linha 6\nQuestão 2 linha 1");
+        assertThat(text.indexOf("Questão 4 linha 1")).isGreaterThan(text.indexOf("Questão 2 linha 6"));
+        assertThat(meterRegistry.get("ingestion.extraction.pages").summary().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("colunas com linhas em alturas diferentes também saem na ordem de leitura")
+    void extract_colunasDesalinhadas_preservaOrdemDeLeitura() throws IOException {
+        var text = extractor.extract(twoColumnExam(1, 7), new CancellationToken());
+
+        assertThat(text).contains("Questão 1 linha 5\nQuestão 1 linha 6\nQuestão 2 linha 1\nQuestão 2 linha 2");
+        assertThat(text).doesNotContain("Questão 1 linha 1 Questão 2");
+    }
+
+    @Test
+    @DisplayName("token cancelado interrompe a extração")
+    void extract_tokenCancelado_lancaIngestionCancelledException() throws IOException {
+        var pdf = twoColumnExam(1);
+        var token = new CancellationToken();
+        token.cancel(CancellationToken.Reason.USER_REQUEST);
+
+        assertThatThrownBy(() -> extractor.extract(pdf, token))
+                .isInstanceOf(IngestionCancelledException.class);
+    }
+
+    private static byte[] twoColumnExam(int pages) throws IOException {
+        return twoColumnExam(pages, 0);
+    }
+
+    // rightShift desloca a coluna direita para baixo, fora da grade de linhas da esquerda
+    private static byte[] twoColumnExam(int pages, float rightShift) throws IOException {
+        var font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (var doc = new PDDocument(); var out = new ByteArrayOutputStream()) {
+            for (int p = 1; p <= pages; p++) {
+                var page = new PDPage(PDRectangle.A4);
+                doc.addPage(page);
+                try (var content = new PDPageContentStream(doc, page)) {
+                    write(content, font, 50, 800, "Concurso Teste 2024");
+                    if (p == 1) {
+                        write(content, font, 60, 760, "PROVA OBJETIVA DE CONHECIMENTOS GERAIS E ESPECÍFICOS");
+                    }
+                    int left = 2 * p - 1;
+                    for (int i = 1; i <= LINES_PER_COLUMN; i++) {
+                        // intercala as colunas no content stream, como nos PDFs gerados por editores
+                        float y = 720 - i * 14;
+                        write(content, font, 50, y, "Questão " + left + " linha " + i);
+                        write(content, font, 320, y - rightShift, "Questão " + (left + 1) + " linha " + i);
+                    }
+                    write(content, font, 280, 40, "Página " + p);
+                }
+            }
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void write(PDPageContentStream content, PDType1Font font, float x, float y, String text)
+            throws IOException {
+        content.beginText();
+        content.setFont(font, 11);
+        content.newLineAtOffset(x, y);
+        content.showText(text);
+        content.endText();
+    }
+}
@@ -0,0 +1,110 @@
+package com.revisaai.ingestion;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TextPostProcessor")
+class TextPostProcessorTest {
+
+    private final TextPostProcessor processor = new TextPostProcessor();
+
+    @Test
+    @DisplayName("remove cabeçalho e rodapé repetidos, inclusive com número de página variável")
+    void process_cabecalhoERodapeRepetidos_saoRemovidos() {
+        var pages = new ArrayList<List<CharSequence>>();
+        for (int i = 1; i <= 4; i++) {
+            pages.add(page("CEBRASPE – TRF 1ª Região", "Cargo 2: Analista", "Questão " + i,
+                    "Enunciado da questão " + i, "Gabarito: " + "ABCD".charAt(i - 1), "Página " + i + " de 4"));
+        }
+
+        var text = processor.process(pages);
+
+        assertThat(text).doesNotContain("CEBRASPE", "Cargo", "Página");
+        assertThat(text).contains("Questão 1\nEnunciado da questão 1\nGabarito: A\nQuestão 2");
+    }
+
+    @Test
+    @DisplayName("número que não acompanha a página não é tratado como rodapé")
+    void process_questaoNaBordaDeTodasAsPaginas_ePreservada() {
+        var pages = List.of(
+                page("Questão 1", "corpo", "corpo", "corpo", "Página 1"),
+                page("Questão 4", "corpo", "corpo", "corpo", "Página 2"),
+                page("Questão 9", "corpo", "corpo", "corpo", "Página 3"));
+
+        var text = processor.process(pages);
+
+        assertThat(text).contains("Questão 1\n", "Questão 4\n", "Questão 9\n");
+        assertThat(text).doesNotContain("Página");
+    }
+
+    @Test
+    @DisplayName("linhas de borda que não se repetem são preservadas")
+    void process_bordasDistintas_saoPreservadas() {
+        var pages = List.of(
+                page("Texto I", "corpo"),
+                page("Texto II", "corpo"),
+                page("Texto III", "corpo"));
+
+        var text = processor.process(pages);
+
+        assertThat(text).contains("Texto I\n", "Texto II\n", "Texto III\n");
+    }
+
+    @Test
+    @DisplayName("documentos curtos não passam pela detecção de cabeçalho")
+    void process_poucasPaginas_naoRemoveNada() {
+        var pages = List.of(page("Cabeçalho", "a"), page("Cabeçalho", "b"));
+
+        assertThat(processor.process(pages)).isEqualTo("Cabeçalho\na\nCabeçalho\nb\n");
+    }
+
+    @Test
+    @DisplayName("junta palavra hifenizada no fim da linha, inclusive entre páginas")
+    void process_hifenizacao_juntaPalavra() {
+        var pages = List.of(
+                page("a adminis-", "tração pública é regi-"),
+                page("da pela lei"));
+
+        assertThat(processor.process(pages)).isEqualTo("a administração pública é regida pela lei\n");
+    }
+
+    @Test
+    @DisplayName("mantém hífen quando a linha seguinte começa com maiúscula ou número")
+    void process_hifenAntesDeMaiuscula_eMantido() {
+        var pages = List.of(page("Lei Maria da Penha-", "Lei 11.340", "ano-", "2006"));
+
+        assertThat(processor.process(pages)).isEqualTo("Lei Maria da Penha-\nLei 11.340\nano-\n2006\n");
+    }
+
+    @Test
+    @DisplayName("hífen opcional (soft hyphen) é removido e a palavra é unida")
+    void process_softHyphen_unePalavra() {
+        var pages = List.of(page("consti\u00AD", "tucional"));
+
+        assertThat(processor.process(pages)).isEqualTo("constitucional\n");
+    }
+
+    @Test
+    @DisplayName("normaliza espaços e descarta linhas vazias")
+    void process_espacos_saoNormalizados() {
+        var pages = List.of(page("  Julgue\t os  itens  a seguir.  ", "   ", "", "(A)   certo"));
+
+        assertThat(processor.process(pages)).isEqualTo("Julgue os itens a seguir.\n(A) certo\n");
+    }
+
+    @Test
+    @DisplayName("edgeKey ignora dígitos, caixa e espaços")
+    void edgeKey_normalizaNumerosECaixa() {
+        assertThat(TextPostProcessor.edgeKey("  Página 12  de 40 "))
+                .isEqualTo(TextPostProcessor.edgeKey("PÁGINA 3 de 40"));
+    }
+
+    private static List<CharSequence> page(String... lines) {
+        return List.of(lines);
+    }
+}
@@ -0,0 +1,178 @@
+package com.revisaai.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Formatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em malha aberta: as chegadas seguem a taxa pedida não importa quanto o
+ * servidor demore, cada requisição numa virtual thread própria. A latência conta a partir do
+ * instante em que a requisição deveria ter saído, então uma pausa do servidor aparece nos
+ * percentis em vez de só diminuir o número de amostras (coordinated omission).
+ */
+final class LoadDriver {
+
+    /** Status registrado quando a chamada falha sem resposta HTTP (timeout, conexão recusada). */
+    static final int NO_RESPONSE = -1;
+
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private final Random random;
+
+    LoadDriver(List<Operation> operations, long seed) {
+        this.operations = operations.stream().filter(op -> op.weight() > 0).toList();
+        this.totalWeight = this.operations.stream().mapToInt(Operation::weight).sum();
+        if (totalWeight == 0) throw new IllegalArgumentException("Nenhuma operação com peso positivo");
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Dispara requisições a {@code ratePerSecond} durante {@code duration} e espera as que ficaram
+     * em voo. Com {@code poisson} os intervalos entre chegadas são exponenciais, como usuários
+     * independentes; sem, são fixos.
+     */
+    Report run(double ratePerSecond, Duration duration, boolean poisson) {
+        var stats = new LinkedHashMap<String, Stats>();
+        operations.forEach(op -> stats.put(op.name(), new Stats()));
+        double meanIntervalNanos = 1e9 / ratePerSecond;
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            double next = start;
+            while (next < end) {
+                long scheduledAt = (long) next;
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                var operation = pick();
+                var target = stats.get(operation.name());
+                executor.execute(() -> target.record(call(operation), System.nanoTime() - scheduledAt));
+                next += poisson ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos : meanIntervalNanos;
+            }
+        }
+        return new Report(ratePerSecond, Duration.ofNanos(System.nanoTime() - start), stats);
+    }
+
+    private Operation pick() {
+        int ticket = random.nextInt(totalWeight);
+        for (var operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) return operation;
+        }
+        throw new IllegalStateException();
+    }
+
+    private static int call(Operation operation) {
+        try {
+            return operation.call().call();
+        } catch (Exception e) {
+            return NO_RESPONSE;
+        }
+    }
+
+    /** Uma requisição do tráfego misto; devolve o status HTTP. */
+    record Operation(String name, int weight, Call call) {
+    }
+
+    @FunctionalInterface
+    interface Call {
+        int call() throws Exception;
+    }
+
+    static final class Stats {
+
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(int status, long latencyNanos) {
+            latencies.recordValue(latencyNanos);
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        long count() {
+            return latencies.getTotalCount();
+        }
+
+        /** Respostas sem status ou 5xx; 503 é carga recusada de propósito e fica de fora. */
+        long errors() {
+            long errors = 0;
+            for (var entry : statuses.entrySet()) {
+                int status = entry.getKey();
+                if (status == NO_RESPONSE || (status >= 500 && status != 503)) errors += entry.getValue().sum();
+            }
+            return errors;
+        }
+
+        Histogram latencies() {
+            return latencies;
+        }
+
+        Map<Integer, Long> statuses() {
+            var sorted = new TreeMap<Integer, Long>();
+            statuses.forEach((status, count) -> sorted.put(status, count.sum()));
+            return sorted;
+        }
+    }
+
+    record Report(double ratePerSecond, Duration elapsed, Map<String, Stats> stats) {
+
+        long count() {
+            return stats.values().stream().mapToLong(Stats::count).sum();
+        }
+
+        long errors() {
+            return stats.values().stream().mapToLong(Stats::errors).sum();
+        }
+
+        /** Tabela de percentis por operação, para o log do teste. */
+        String summary() {
+            var out = new Formatter();
+            out.format("%n=== %.0f req/s pedidas, %.0f req/s atendidas em %ds ===%n",
+                    ratePerSecond, count() / (elapsed.toNanos() / 1e9), elapsed.toSeconds());
+            out.format("%-10s %8s %9s %9s %9s %9s %9s  %s%n",
+                    "operação", "n", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms", "status");
+            stats.forEach((name, stat) -> {
+                var h = stat.latencies();
+                out.format("%-10s %8d %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n", name, stat.count(),
+                        millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                        millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                        millis(h.getMaxValue()), stat.statuses());
+            });
+            return out.toString();
+        }
+
+        /**
+         * Grava o {@link #summary()} e um {@code .hgrm} por operação, no formato do HdrHistogram
+         * Plotter.
+         */
+        void write(Path dir) throws IOException {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve(String.format("summary-%.0f.txt", ratePerSecond)), summary());
+            for (var entry : stats.entrySet()) {
+                var file = dir.resolve(String.format("%s-%.0f.hgrm", entry.getKey(), ratePerSecond));
+                try (var out = new PrintStream(Files.newOutputStream(file))) {
+                    entry.getValue().latencies().outputPercentileDistribution(out, 1_000_000.0);
+                }
+            }
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.revisaai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revisaai.ingestion.ExamPdfGenerator;
+import com.revisaai.question.Banca;
+import com.revisaai.question.Question;
+import com.revisaai.question.QuestionRepository;
+import com.revisaai.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga de ponta a ponta: a aplicação inteira com um MongoDB em container, {@code loadtest.users}
+ * usuários e {@code loadtest.questions} questões sintéticas, e tráfego misto de login, refresh,
+ * listagem, filtros, busca por id e upload de provas chegando em malha aberta.
+ *
+ * <p>Cada taxa de {@code loadtest.rates} roda por {@code loadtest.duration}, depois de um
+ * aquecimento de {@code loadtest.warmup} na primeira. Os percentis saem no console e em
+ * {@code target/loadtest/*.hgrm}. Fica fora da suíte padrão; rodar com (precisa de Docker):
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=MixedTrafficLoadTest \
+ *     -Dloadtest.users=200 -Dloadtest.questions=5000 -Dloadtest.rates=50,100,200 \
+ *     -Dloadtest.duration=60s -Dloadtest.arrivals=poisson \
+ *     -Dloadtest.mix=login:5,refresh:5,list:5,filter:40,byId:40,upload:5
+ * </pre>
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@ActiveProfiles("test")
+@DisplayName("Carga — tráfego misto de ponta a ponta")
+class MixedTrafficLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MixedTrafficLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 100);
+    private static final int QUESTIONS = Integer.getInteger("loadtest.questions", 2_000);
+    private static final List<Double> RATES = Arrays.stream(System.getProperty("loadtest.rates", "25,50").split(","))
+            .map(String::trim).map(Double::valueOf).toList();
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("loadtest.duration", "30s"));
+    private static final Duration WARMUP = Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s"));
+    private static final boolean POISSON = !"constant".equals(System.getProperty("loadtest.arrivals", "poisson"));
+    private static final String MIX = System.getProperty("loadtest.mix",
+            "login:5,refresh:5,list:5,filter:40,byId:40,upload:5");
+    private static final long SEED = Long.getLong("loadtest.seed", 42L);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String REFRESH_COOKIE = "refreshToken=";
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7");
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+                () -> mongoDBContainer.getConnectionString() + "/revisaai_test");
+        registry.add("app.security.rate-limit.enabled", () -> "false");
+        // logins repetidos não podem derrubar as sessões que o refresh está usando
+        registry.add("app.security.sessions.max-per-user", () -> "1000");
+        registry.add("logging.level.com.revisaai", () -> "INFO");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    private final ConcurrentLinkedQueue<Session> idleSessions = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<String> accessTokens = new AtomicReferenceArray<>(USERS);
+    private List<String> questionIds;
+    private final Map<Banca, ExamPdfGenerator.Exam> exams = new EnumMap<>(Banca.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userRepository.deleteAll();
+        questionRepository.deleteAll();
+        // um hash só: o bcrypt de cada usuário dominaria o tempo do setup
+        userRepository.insert(SyntheticData.users(USERS, passwordEncoder.encode(SyntheticData.PASSWORD)));
+        questionIds = questionRepository.insert(SyntheticData.questions(QUESTIONS, SEED)).stream()
+                .map(Question::getId).toList();
+        for (var banca : Banca.values()) {
+            exams.put(banca, ExamPdfGenerator.generate(ExamPdfGenerator.Spec.of(banca, 4)));
+        }
+
+        try (var executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            var logins = new ArrayList<Future<Session>>(USERS);
+            for (int i = 0; i < USERS; i++) {
+                int user = i;
+                logins.add(executor.submit(() -> login(user)));
+            }
+            for (var login : logins) {
+                var session = login.get();
+                assertThat(session).as("login inicial").isNotNull();
+                idleSessions.add(session);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("tráfego misto sem erros do servidor em todas as taxas")
+    void trafegoMisto_semErros() throws IOException {
+        var driver = new LoadDriver(operations(), SEED);
+        driver.run(RATES.getFirst(), WARMUP, POISSON);
+
+        for (double rate : RATES) {
+            var report = driver.run(rate, DURATION, POISSON);
+            log.info("{}", report.summary());
+            report.write(Path.of("target", "loadtest"));
+
+            report.stats().forEach((name, stats) -> assertThat(stats.count()).as(name).isPositive());
+            assertThat(report.errors()).as("erros a %.0f req/s", rate).isLessThanOrEqualTo(report.count() / 100);
+        }
+    }
+
+    private List<LoadDriver.Operation> operations() {
+        var calls = Map.<String, LoadDriver.Call>of(
+                "login", this::loginAny,
+                "refresh", this::refresh,
+                "list", () -> get("/questions"),
+                "filter", this::filter,
+                "byId", () -> get("/questions/" + questionIds.get(random().nextInt(questionIds.size()))),
+                "upload", this::upload);
+        var weights = new LinkedHashMap<String, Integer>();
+        for (var entry : MIX.split(",")) {
+            var parts = entry.trim().split(":");
+            if (!calls.containsKey(parts[0])) {
+                throw new IllegalArgumentException("Operação desconhecida em loadtest.mix: " + parts[0]);
+            }
+            weights.put(parts[0], Integer.valueOf(parts[1]));
+        }
+        var operations = new ArrayList<LoadDriver.Operation>();
+        weights.forEach((name, weight) -> operations.add(new LoadDriver.Operation(name, weight, calls.get(name))));
+        return operations;
+    }
+
+    private int loginAny() throws Exception {
+        int user = random().nextInt(USERS);
+        var response = loginRequest(user);
+        session(user, response);
+        return response.statusCode();
+    }
+
+    // cada sessão fica com uma requisição por vez: dois refreshes do mesmo token contariam como reuso
+    private int refresh() throws Exception {
+        var session = idleSessions.poll();
+        if (session == null) return loginAny();
+        var response = send(HttpRequest.newBuilder(uri("/auth/refresh"))
+                .header("Cookie", session.refreshCookie())
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        var rotated = refreshCookie(response);
+        if (response.statusCode() == 200 && rotated != null) {
+            accessTokens.set(session.user(), accessToken(response));
+            idleSessions.add(new Session(session.user(), rotated));
+        } else {
+            idleSessions.add(session);
+        }
+        return response.statusCode();
+    }
+
+    private int filter() throws Exception {
+        var random = random();
+        var bancas = Banca.values();
+        var path = switch (random.nextInt(3)) {
+            case 0 -> "/questions?banca=" + bancas[random.nextInt(bancas.length)];
+            case 1 -> "/questions?banca=" + bancas[random.nextInt(bancas.length)]
+                    + "&ano=" + (SyntheticData.FIRST_YEAR + random.nextInt(SyntheticData.YEARS));
+            default -> "/questions?area=" + URLEncoder.encode(
+                    SyntheticData.AREAS.get(random.nextInt(SyntheticData.AREAS.size())), StandardCharsets.UTF_8);
+        };
+        return get(path);
+    }
+
+    private int upload() throws Exception {
+        var boundary = "carga-" + UUID.randomUUID();
+        var body = new ByteArrayOutputStream();
+        var banca = Banca.values()[random().nextInt(Banca.values().length)];
+        var exam = exams.get(banca);
+        field(body, boundary, "banca", banca.name());
+        file(body, boundary, "provaArquivo", "prova.pdf", exam.prova());
+        file(body, boundary, "gabaritoArquivo", "gabarito.pdf", exam.gabarito());
+        body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return send(HttpRequest.newBuilder(uri("/ingestion/jobs"))
+                .header("Authorization", "Bearer " + anyAccessToken())
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))).statusCode();
+    }
+
+    private int get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + anyAccessToken())
+                .GET()).statusCode();
+    }
+
+    private Session login(int user) throws Exception {
+        return session(user, loginRequest(user));
+    }
+
+    private HttpResponse<String> loginRequest(int user) throws Exception {
+        var body = objectMapper.writeValueAsString(
+                Map.of("email", SyntheticData.email(user), "password", SyntheticData.PASSWORD));
+        return send(HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private Session session(int user, HttpResponse<String> login) throws IOException {
+        var cookie = refreshCookie(login);
+        if (login.statusCode() != 200 || cookie == null) return null;
+        accessTokens.set(user, accessToken(login));
+        return new Session(user, cookie);
+    }
+
+    private String anyAccessToken() {
+        return accessTokens.get(random().nextInt(USERS));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String accessToken(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private static String refreshCookie(HttpResponse<?> response) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(header -> header.startsWith(REFRESH_COOKIE))
+                .map(header -> header.substring(0, header.indexOf(';') > 0 ? header.indexOf(';') : header.length()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void field(ByteArrayOutputStream body, String boundary, String name, String value)
+            throws IOException {
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void file(ByteArrayOutputStream body, String boundary, String name, String filename,
+                             byte[] content) throws IOException {
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name
+                + "\"; filename=\"" + filename + "\"\r\nContent-Type: application/pdf\r\n\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    private record Session(int user, String refreshCookie) {
+    }
+}
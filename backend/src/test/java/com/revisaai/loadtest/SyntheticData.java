@@ -0,0 +1,77 @@
+package com.revisaai.loadtest;
+
+import com.revisaai.question.Banca;
+import com.revisaai.question.Dificuldade;
+import com.revisaai.question.Question;
+import com.revisaai.user.AuthProvider;
+import com.revisaai.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Massa sintética e determinística do teste de carga: usuários com a mesma senha e questões
+ * distribuídas por todas as bancas, áreas, anos e dificuldades, com enunciados do tamanho dos
+ * importados de provas reais.
+ */
+final class SyntheticData {
+
+    static final String PASSWORD = "senha-carga-123";
+    static final List<String> AREAS = List.of(
+            "Direito Administrativo", "Direito Constitucional", "Língua Portuguesa",
+            "Raciocínio Lógico", "Informática", "Contabilidade Pública");
+    static final int FIRST_YEAR = 2015;
+    static final int YEARS = 10;
+
+    private static final List<String> CARGOS = List.of("Analista", "Técnico", "Auditor", "Escrivão");
+    private static final List<String> MULTIPLE_CHOICE = List.of("A", "B", "C", "D", "E");
+    private static final List<String> TRUE_FALSE = List.of("CERTO", "ERRADO");
+
+    private SyntheticData() {
+    }
+
+    static String email(int user) {
+        return "carga" + user + "@test.com";
+    }
+
+    static List<User> users(int count, String passwordHash) {
+        var users = new ArrayList<User>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(email(i), passwordHash, "Usuário " + i, AuthProvider.EMAIL));
+        }
+        return users;
+    }
+
+    /** A banca gira por índice, então qualquer {@code count} a partir de três cobre todas. */
+    static List<Question> questions(int count, long seed) {
+        var random = new Random(seed);
+        var bancas = Banca.values();
+        var dificuldades = Dificuldade.values();
+        var questions = new ArrayList<Question>(count);
+        for (int i = 0; i < count; i++) {
+            var banca = bancas[i % bancas.length];
+            var alternativas = banca == Banca.CEBRASPE ? TRUE_FALSE : MULTIPLE_CHOICE;
+            var area = AREAS.get(random.nextInt(AREAS.size()));
+            questions.add(new Question(
+                    statement(i, area, random),
+                    alternativas,
+                    alternativas.get(random.nextInt(alternativas.size())),
+                    banca,
+                    FIRST_YEAR + random.nextInt(YEARS),
+                    CARGOS.get(random.nextInt(CARGOS.size())),
+                    area,
+                    dificuldades[random.nextInt(dificuldades.length)]));
+        }
+        return questions;
+    }
+
+    private static String statement(int index, String area, Random random) {
+        var text = new StringBuilder(480)
+                .append("Questão ").append(index).append(" — ").append(area).append(". ");
+        while (text.length() < 360 + random.nextInt(120)) {
+            text.append("Julgue o item a seguir, considerando a legislação vigente e a jurisprudência. ");
+        }
+        return text.toString();
+    }
+}
@@ -1,12 +1,14 @@
 package com.revisaai.question;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revisaai.auth.oauth2.HttpCookieOAuth2AuthorizationRequestRepository;
 import com.revisaai.auth.oauth2.OAuth2FailureHandler;
 import com.revisaai.auth.oauth2.OAuth2SuccessHandler;
 import com.revisaai.auth.oauth2.OAuth2UserServiceImpl;
 import com.revisaai.shared.exception.QuestionNotFoundException;
 import com.revisaai.shared.security.JwtService;
 import com.revisaai.shared.security.SecurityConfig;
+import com.revisaai.shared.security.TokenDenylist;
 import com.revisaai.shared.security.UserDetailsServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -44,6 +46,9 @@ class QuestionControllerTest {
     @MockBean
     private UserDetailsServiceImpl userDetailsService;
 
+    @MockBean
+    private TokenDenylist tokenDenylist;
+
     @MockBean
     private OAuth2UserServiceImpl oauth2UserService;
 
@@ -53,6 +58,9 @@ class QuestionControllerTest {
     @MockBean
     private OAuth2FailureHandler oauth2FailureHandler;
 
+    @MockBean
+    private HttpCookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
+
     private final Question question = new Question(
             "A assertiva está correta?",
             List.of("CERTO", "ERRADO"),
@@ -40,6 +40,8 @@ class QuestionIntegrationTest {
     static void mongoProps(DynamicPropertyRegistry registry) {
         registry.add("spring.data.mongodb.uri",
                 () -> mongoDBContainer.getConnectionString() + "/revisaai_test");
+        // cada teste registra e loga o mesmo usuário no @BeforeEach
+        registry.add("app.security.rate-limit.enabled", () -> "false");
     }
 
     @Autowired
@@ -0,0 +1,184 @@
+package com.revisaai.question;
+
+import com.revisaai.shared.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara {@code GET /questions} (MongoTemplate, lista inteira na memória) com
+ * {@code GET /questions/stream} (driver reativo, NDJSON) sobre o mesmo catálogo.
+ *
+ * <p>Vazão por núcleo: requisições atendidas por segundo de CPU do processo, que inclui o cliente
+ * HTTP nos dois casos. Memória por conexão: heap retido com {@value #SLOW_CLIENTS} clientes que
+ * leem o começo da resposta e param, dividido pelo número de clientes. Fica fora da suíte padrão;
+ * rodar com {@code mvn test -Pbenchmark} (precisa de Docker).
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@ActiveProfiles("test")
+@DisplayName("Questões — leitura bloqueante vs. streaming reativo")
+class QuestionReadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionReadBenchmarkTest.class);
+
+    private static final int QUESTIONS = 10_000;
+    private static final int REQUESTS = 200;
+    private static final int CONCURRENCY = 32;
+    private static final int SLOW_CLIENTS = 10;
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7");
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+                () -> mongoDBContainer.getConnectionString() + "/revisaai_test");
+        registry.add("app.security.rate-limit.enabled", () -> "false");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = jwtService.generateAccessToken("benchmark-user", "benchmark@test.com");
+        if (questionRepository.count() == QUESTIONS) return;
+        questionRepository.deleteAll();
+        var questions = new ArrayList<Question>(QUESTIONS);
+        for (int i = 0; i < QUESTIONS; i++) {
+            questions.add(new Question(
+                    ("Questão " + i + ": julgue o item a seguir, relativo à administração pública. ").repeat(5),
+                    List.of("CERTO", "ERRADO"), "CERTO", Banca.CEBRASPE, 2020 + i % 5,
+                    "Analista", "Direito Administrativo", Dificuldade.MEDIO));
+        }
+        questionRepository.saveAll(questions);
+    }
+
+    @Test
+    @DisplayName("streaming retém bem menos memória por conexão aberta que a lista inteira")
+    void leitura_bloqueanteVsStreaming() throws Exception {
+        var blocking = measure("/questions", "application/json");
+        var streaming = measure("/questions/stream", "application/x-ndjson");
+
+        log.info(String.format("GET /questions:        %.0f req/s, %.0f req/s por núcleo, %d KB por conexão",
+                blocking.requestsPerSecond(), blocking.requestsPerCpuSecond(), blocking.bytesPerConnection() / 1024));
+        log.info(String.format("GET /questions/stream: %.0f req/s, %.0f req/s por núcleo, %d KB por conexão",
+                streaming.requestsPerSecond(), streaming.requestsPerCpuSecond(),
+                streaming.bytesPerConnection() / 1024));
+
+        assertThat(streaming.bytesPerConnection()).isLessThan(blocking.bytesPerConnection() / 4);
+    }
+
+    private Result measure(String path, String accept) throws Exception {
+        try (var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             var callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept", accept)
+                    .build();
+            load(client, callers, request, REQUESTS / 4); // aquecimento
+
+            long cpuStart = processCpuNanos();
+            long start = System.nanoTime();
+            load(client, callers, request, REQUESTS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double cpuSeconds = (processCpuNanos() - cpuStart) / 1e9;
+
+            long baseline = usedHeapAfterGc();
+            var sockets = new ArrayList<Socket>(SLOW_CLIENTS);
+            try {
+                for (int i = 0; i < SLOW_CLIENTS; i++) sockets.add(slowClient(path, accept));
+                Thread.sleep(2_000); // o servidor enche os buffers do socket e para de escrever
+                long retained = usedHeapAfterGc() - baseline;
+                return new Result(REQUESTS / seconds, REQUESTS / cpuSeconds, Math.max(0, retained) / SLOW_CLIENTS);
+            } finally {
+                for (var socket : sockets) socket.close();
+            }
+        }
+    }
+
+    private static void load(HttpClient client, ExecutorService callers, HttpRequest request,
+                             int requests) throws Exception {
+        var permits = new Semaphore(CONCURRENCY);
+        var responses = new ArrayList<Future<Integer>>(requests);
+        for (int i = 0; i < requests; i++) {
+            permits.acquire();
+            responses.add(callers.submit(() -> {
+                try {
+                    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        for (var response : responses) assertThat(response.get()).isEqualTo(200);
+    }
+
+    // lê só o começo da resposta e para, como um cliente em rede lenta
+    private Socket slowClient(String path, String accept) throws IOException {
+        var socket = new Socket();
+        socket.setReceiveBufferSize(4 * 1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        var head = "GET " + path + " HTTP/1.1\r\nHost: localhost\r\nAuthorization: Bearer " + token
+                + "\r\nAccept: " + accept + "\r\n\r\n";
+        socket.getOutputStream().write(head.getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+        assertThat(socket.getInputStream().read(new byte[1024])).isPositive();
+        return socket;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+    private record Result(double requestsPerSecond, double requestsPerCpuSecond, long bytesPerConnection) {}
+}
@@ -0,0 +1,92 @@
+package com.revisaai.question;
+
+import com.revisaai.auth.oauth2.HttpCookieOAuth2AuthorizationRequestRepository;
+import com.revisaai.auth.oauth2.OAuth2FailureHandler;
+import com.revisaai.auth.oauth2.OAuth2SuccessHandler;
+import com.revisaai.auth.oauth2.OAuth2UserServiceImpl;
+import com.revisaai.shared.security.JwtService;
+import com.revisaai.shared.security.SecurityConfig;
+import com.revisaai.shared.security.TokenDenylist;
+import com.revisaai.shared.security.UserDetailsServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(QuestionStreamController.class)
+@Import(SecurityConfig.class)
+@DisplayName("QuestionStreamController")
+class QuestionStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveQuestionService reactiveQuestionService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private TokenDenylist tokenDenylist;
+
+    @MockBean
+    private OAuth2UserServiceImpl oauth2UserService;
+
+    @MockBean
+    private OAuth2SuccessHandler oauth2SuccessHandler;
+
+    @MockBean
+    private OAuth2FailureHandler oauth2FailureHandler;
+
+    @MockBean
+    private HttpCookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
+
+    @Test
+    @DisplayName("GET /questions/stream sem autenticação retorna 403")
+    void stream_semAutenticacao_retorna403() throws Exception {
+        mockMvc.perform(get("/questions/stream"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("GET /questions/stream autenticado transmite uma questão por linha em NDJSON")
+    void stream_autenticado_transmiteNdjson() throws Exception {
+        given(reactiveQuestionService.stream("CEBRASPE", null, null))
+                .willReturn(Flux.just(question("Primeira?"), question("Segunda?")));
+
+        var result = mockMvc.perform(get("/questions/stream").param("banca", "CEBRASPE"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                // um objeto JSON completo por linha, na ordem do cursor
+                .andExpect(content().string(matchesPattern(
+                        "\\{[^\\n]*\"Primeira\\?\"[^\\n]*}\\n\\{[^\\n]*\"Segunda\\?\"[^\\n]*}\\n")));
+    }
+
+    private static Question question(String enunciado) {
+        return new Question(enunciado, List.of("CERTO", "ERRADO"), "CERTO",
+                Banca.CEBRASPE, 2023, "Analista de TI", "Informática", Dificuldade.MEDIO);
+    }
+}
@@ -0,0 +1,83 @@
+package com.revisaai.shared.config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Falha o teste quando uma consulta ao MongoDB cai em COLLSCAN. Registra os comandos com plano
+ * de consulta que o trecho envia e roda o {@code explain} de cada um depois dele:
+ *
+ * <pre>{@code
+ * @Import(CollectionScanGuard.Registration.class)
+ * ...
+ * guard.assertNoCollectionScan(() -> userRepository.findByEmail("a@b.com"));
+ * }</pre>
+ *
+ * <p>O planner escolhe pelos índices, não pelo volume: uma coleção quase vazia já mostra se a
+ * consulta tem índice que a atenda.
+ */
+public final class CollectionScanGuard implements CommandListener {
+
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final List<Captured> captured = new CopyOnWriteArrayList<>();
+    // o cliente síncrono dispara o evento na thread que fez a chamada; jobs agendados ficam de fora
+    private volatile Thread recording;
+
+    CollectionScanGuard(ObjectProvider<MongoTemplate> mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Registration {
+
+        @Bean
+        CollectionScanGuard collectionScanGuard(ObjectProvider<MongoTemplate> mongoTemplate) {
+            return new CollectionScanGuard(mongoTemplate);
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer collectionScanGuardCustomizer(CollectionScanGuard guard) {
+            return settings -> settings.addCommandListener(guard);
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (recording == Thread.currentThread() && MongoQueryPlans.EXPLAINABLE.contains(event.getCommandName())) {
+            captured.add(new Captured(event.getDatabaseName(), event.getCommand().clone()));
+        }
+    }
+
+    public void assertNoCollectionScan(Runnable action) {
+        captured.clear();
+        recording = Thread.currentThread();
+        try {
+            action.run();
+        } finally {
+            recording = null;
+        }
+        if (captured.isEmpty()) throw new AssertionError("Nenhuma consulta com plano foi enviada ao MongoDB");
+
+        var database = mongoTemplate.getObject().getMongoDatabaseFactory();
+        for (var command : captured) {
+            var plan = database.getMongoDatabase(command.database())
+                    .runCommand(MongoQueryPlans.explainCommand(command.command()));
+            var stages = MongoQueryPlans.winningStages(plan);
+            if (stages.contains("COLLSCAN")) {
+                throw new AssertionError("COLLSCAN em " + command.command().toJson()
+                        + "\nplano: " + MongoQueryPlans.summary(plan));
+            }
+        }
+    }
+
+    private record Captured(String database, BsonDocument command) {}
+}
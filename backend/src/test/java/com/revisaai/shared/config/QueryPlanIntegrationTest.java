@@ -0,0 +1,102 @@
+package com.revisaai.shared.config;
+
+import com.revisaai.auth.RefreshToken;
+import com.revisaai.auth.RefreshTokenRepository;
+import com.revisaai.question.Banca;
+import com.revisaai.question.Dificuldade;
+import com.revisaai.question.Question;
+import com.revisaai.question.QuestionRepository;
+import com.revisaai.question.QuestionService;
+import com.revisaai.user.AuthProvider;
+import com.revisaai.user.User;
+import com.revisaai.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Import(CollectionScanGuard.Registration.class)
+@Testcontainers
+@ActiveProfiles("test")
+@DisplayName("Planos das consultas quentes")
+class QueryPlanIntegrationTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7");
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+                () -> mongoDBContainer.getConnectionString() + "/revisaai_test");
+    }
+
+    @Autowired
+    private CollectionScanGuard guard;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        questionRepository.deleteAll();
+        userRepository.save(new User("plano@test.com", "hash", "Plano", AuthProvider.EMAIL));
+        questionRepository.save(new Question("Enunciado", List.of("CERTO", "ERRADO"), "CERTO",
+                Banca.CEBRASPE, 2024, "Analista", "Direito Administrativo", Dificuldade.MEDIO));
+    }
+
+    @Test
+    @DisplayName("login busca o usuário pelo índice de email")
+    void findByEmail_usaIndice() {
+        guard.assertNoCollectionScan(() -> userRepository.findByEmail("plano@test.com"));
+    }
+
+    @Test
+    @DisplayName("consultas e revogações de refresh token usam índice")
+    void refreshToken_consultasERevogacoes_usamIndice() {
+        guard.assertNoCollectionScan(() -> {
+            refreshTokenRepository.findByToken("token");
+            refreshTokenRepository.deleteByToken("token");
+            refreshTokenRepository.revokeFamily("user-1", "family-1", Instant.now());
+            refreshTokenRepository.revokeAllFamilies("user-1", Instant.now());
+        });
+    }
+
+    @Test
+    @DisplayName("catálogo filtrado por banca ou área usa índice")
+    void findAll_filtroIndexado_usaIndice() {
+        guard.assertNoCollectionScan(() -> questionService.findAll("CEBRASPE", null, null));
+        guard.assertNoCollectionScan(() -> questionService.findAll(null, "direito", 2024));
+    }
+
+    @Test
+    @DisplayName("catálogo filtrado só por ano varre a coleção e o guard acusa")
+    void findAll_soAno_acusaCollscan() {
+        assertThatThrownBy(() -> guard.assertNoCollectionScan(() -> questionService.findAll(null, null, 2024)))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("COLLSCAN");
+    }
+}
@@ -0,0 +1,135 @@
+package com.revisaai.shared.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SlowMongoCommandListener")
+class SlowMongoCommandListenerTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+    private static final String FIND = """
+            {"find": "questions", "filter": {"banca": "FGV"}, "limit": 20,
+             "lsid": {"id": "x"}, "$db": "revisaai"}""";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<BsonDocument> explained = new ArrayList<>();
+    private final SlowMongoCommandListener listener = new SlowMongoCommandListener(
+            meterRegistry, Duration.ofMillis(100), 1.0, Duration.ofMinutes(5),
+            (database, command) -> {
+                explained.add(command);
+                return Document.parse("""
+                        {"queryPlanner": {"winningPlan": {"stage": "FETCH",
+                          "inputStage": {"stage": "IXSCAN", "indexName": "banca_1"}}}}""");
+            },
+            Runnable::run, Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("comando acima do limiar é contado por coleção e comando e ganha explain sem campos de sessão")
+    void commandSucceeded_acimaDoLimiar_contaEExplica() {
+        run(1, FIND, Duration.ofMillis(250));
+
+        assertThat(meterRegistry.get("mongodb.driver.commands.slow")
+                .tag("collection", "questions").tag("command", "find").counter().count()).isEqualTo(1);
+        assertThat(explained).singleElement().satisfies(explain -> {
+            assertThat(explain.getString("verbosity").getValue()).isEqualTo("queryPlanner");
+            assertThat(explain.getDocument("explain").keySet()).containsExactly("find", "filter", "limit");
+        });
+    }
+
+    @Test
+    @DisplayName("comando abaixo do limiar não é contado nem explicado")
+    void commandSucceeded_abaixoDoLimiar_ignora() {
+        run(1, FIND, Duration.ofMillis(20));
+
+        assertThat(meterRegistry.find("mongodb.driver.commands.slow").counter()).isNull();
+        assertThat(explained).isEmpty();
+    }
+
+    @Test
+    @DisplayName("o mesmo comando lento na mesma coleção só é explicado uma vez por intervalo")
+    void commandSucceeded_repetidoNoIntervalo_explicaUmaVez() {
+        run(1, FIND, Duration.ofMillis(250));
+        run(2, FIND, Duration.ofMillis(300));
+        run(3, """
+                {"aggregate": "questions", "pipeline": [], "cursor": {}}""", Duration.ofMillis(300));
+
+        assertThat(meterRegistry.get("mongodb.driver.commands.slow")
+                .tag("command", "find").counter().count()).isEqualTo(2);
+        assertThat(explained).extracting(explain -> explain.getDocument("explain").getFirstKey())
+                .containsExactly("find", "aggregate");
+    }
+
+    @Test
+    @DisplayName("o log do plano traz estágios e índices, nunca os valores do filtro")
+    void commandSucceeded_planoNoLog_naoVazaValores() {
+        var token = "9f1c2b7e-segredo-do-refresh";
+        var plan = Document.parse("""
+                {"queryPlanner": {"namespace": "revisaai.refresh_tokens",
+                  "parsedQuery": {"token": {"$eq": "%s"}},
+                  "winningPlan": {"stage": "FETCH", "filter": {"consumedAt": {"$eq": null}},
+                    "inputStage": {"stage": "IXSCAN", "indexName": "token",
+                      "indexBounds": {"token": ["[\\"%s\\", \\"%s\\"]"]}}}}}""".formatted(token, token, token));
+        var leaking = new SlowMongoCommandListener(meterRegistry, Duration.ofMillis(100), 1.0, Duration.ofMinutes(5),
+                (database, command) -> plan, Runnable::run, Clock.systemUTC());
+        var logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(SlowMongoCommandListener.class);
+        var appender = new ListAppender<ILoggingEvent>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            var command = BsonDocument.parse("""
+                    {"findAndModify": "refresh_tokens", "query": {"token": "%s"},
+                     "update": {"$set": {"replacedBy": "%s"}}}""".formatted(token, token));
+            leaking.commandStarted(new CommandStartedEvent(null, 1, 1, CONNECTION, "revisaai", "findAndModify", command));
+            leaking.commandSucceeded(new CommandSucceededEvent(null, 1, 1, CONNECTION, "revisaai", "findAndModify",
+                    new BsonDocument(), Duration.ofMillis(250).toNanos()));
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+                .anySatisfy(message -> assertThat(message)
+                        .contains("revisaai.refresh_tokens", "FETCH > IXSCAN", "token"))
+                .allSatisfy(message -> assertThat(message).doesNotContain(token));
+    }
+
+    @Test
+    @DisplayName("estágios do plano vencedor são lidos também dentro de agregações")
+    void winningStages_agregacao_encontraPlano() {
+        var explain = Document.parse("""
+                {"stages": [{"$cursor": {"queryPlanner": {"winningPlan": {"stage": "PROJECTION_SIMPLE",
+                  "inputStage": {"stage": "COLLSCAN"}}}}}, {"$group": {}}]}""");
+
+        assertThat(MongoQueryPlans.winningStages(explain)).containsExactly("PROJECTION_SIMPLE", "COLLSCAN");
+        assertThat(MongoQueryPlans.summary(new Document())).isEqualTo("(sem plano)");
+    }
+
+    private void run(int requestId, String json, Duration elapsed) {
+        var command = BsonDocument.parse(json);
+        var name = command.getFirstKey();
+        listener.commandStarted(new CommandStartedEvent(null, 1, requestId, CONNECTION, "revisaai", name, command));
+        listener.commandSucceeded(new CommandSucceededEvent(null, 1, requestId, CONNECTION, "revisaai", name,
+                new BsonDocument(), elapsed.toNanos()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.revisaai.shared.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("VirtualThreadPinningMonitor")
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor =
+            new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(20));
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    @DisplayName("virtual thread que dorme dentro de synchronized é contada como presa à carrier")
+    void start_bloqueioEmSynchronized_contaPinning() throws Exception {
+        monitor.start();
+        var lock = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // o RecordingStream entrega os eventos em lotes, cerca de uma vez por segundo
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (monitor.pinnedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(monitor.pinnedCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("jvm.threads.virtual.pinned.duration").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,108 @@
+package com.revisaai.shared.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga HTTP contra um Tomcat embarcado cujas requisições bloqueiam como uma consulta ao MongoDB,
+ * com o pool padrão de 200 threads e com virtual threads (o que
+ * {@code spring.threads.virtual.enabled} configura). Fica fora da suíte padrão; rodar com
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Virtual threads — vazão do Tomcat com I/O bloqueante")
+class VirtualThreadThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadThroughputTest.class);
+
+    private static final int CONCURRENCY = 1_000;
+    private static final int REQUESTS = 6_000;
+    private static final long BLOCKING_MILLIS = 200;
+
+    @Test
+    @DisplayName("com 1000 clientes simultâneos, virtual threads atendem mais requisições por segundo")
+    void tomcat_altaConcorrencia_virtualThreadsAumentamVazao() throws Exception {
+        double platform = throughput(false);
+        double virtual = throughput(true);
+        log.info(String.format("Tomcat, %d clientes, %d ms bloqueado: %.0f req/s (200 threads) vs %.0f req/s (virtual)",
+                CONCURRENCY, BLOCKING_MILLIS, platform, virtual));
+
+        // o pool fixo não passa de 200 threads / 200 ms = 1000 req/s
+        assertThat(platform).isLessThan(1_000 * 1.05);
+        assertThat(virtual).isGreaterThan(platform * 1.4);
+    }
+
+    private static double throughput(boolean virtualThreads) throws Exception {
+        var factory = new TomcatServletWebServerFactory(0);
+        if (virtualThreads) {
+            factory.addProtocolHandlerCustomizers(protocol ->
+                    protocol.setExecutor(new VirtualThreadExecutor("tomcat-handler-")));
+        }
+        var server = factory.getWebServer(context ->
+                context.addServlet("blocking", new BlockingServlet()).addMapping("/"));
+        server.start();
+        try (var client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build();
+             var callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/")).build();
+            load(client, callers, request, CONCURRENCY); // aquecimento e conexões abertas
+            long start = System.nanoTime();
+            load(client, callers, request, REQUESTS);
+            return REQUESTS / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void load(HttpClient client, ExecutorService callers,
+                             HttpRequest request, int requests) throws Exception {
+        var permits = new Semaphore(CONCURRENCY);
+        var responses = new ArrayList<Future<Integer>>(requests);
+        for (int i = 0; i < requests; i++) {
+            permits.acquire();
+            responses.add(callers.submit(() -> {
+                try {
+                    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        for (var response : responses) assertThat(response.get()).isEqualTo(200);
+    }
+
+    private static final class BlockingServlet extends HttpServlet {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            try {
+                Thread.sleep(BLOCKING_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.getWriter().write("ok");
+        }
+    }
+}
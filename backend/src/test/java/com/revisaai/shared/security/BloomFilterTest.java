@@ -0,0 +1,40 @@
+package com.revisaai.shared.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BloomFilter")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("nunca dá falso negativo")
+    void mightContain_elementoInserido_semFalsoNegativo() {
+        var bloom = BloomFilter.create(10_000, 0.01);
+        var values = new String[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            bloom.put(values[i]);
+        }
+
+        for (var value : values) assertThat(bloom.mightContain(value)).isTrue();
+    }
+
+    @Test
+    @DisplayName("taxa de falso positivo fica perto da configurada na capacidade prevista")
+    void mightContain_naCapacidade_falsoPositivoPertoDoAlvo() {
+        var bloom = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) bloom.put(UUID.randomUUID().toString());
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloom.mightContain(UUID.randomUUID().toString())) falsePositives++;
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(bloom.sizeInBytes()).isLessThan(16 * 1024);
+    }
+}
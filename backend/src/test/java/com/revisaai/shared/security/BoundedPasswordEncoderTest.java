@@ -0,0 +1,107 @@
+package com.revisaai.shared.security;
+
+import com.revisaai.shared.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BoundedPasswordEncoder")
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("encode e matches delegam ao BCrypt e registram a latência")
+    void encodeEMatches_delegamERegistramMetricas() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry,
+                2, 4, Duration.ofSeconds(5), Duration.ofSeconds(2));
+
+        var hash = encoder.encode("senha123");
+
+        assertThat(encoder.matches("senha123", hash)).isTrue();
+        assertThat(encoder.matches("errada", hash)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hash.duration").tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash.duration").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("fila cheia recusa na hora com ServiceOverloadedException")
+    void encode_filaCheia_recusa() throws Exception {
+        var release = new CountDownLatch(1);
+        var running = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(running, release), meterRegistry,
+                1, 1, Duration.ofSeconds(5), Duration.ofSeconds(3));
+
+        var first = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        running.await(5, TimeUnit.SECONDS);
+        var queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        awaitQueueSize(1);
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .satisfies(e -> assertThat(((ServiceOverloadedException) e).getRetryAfter())
+                        .isEqualTo(Duration.ofSeconds(3)));
+        assertThat(meterRegistry.get("auth.password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+
+    @Test
+    @DisplayName("espera acima do timeout é recusada como sobrecarga")
+    void encode_timeoutEsgotado_recusa() {
+        var release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1), release), meterRegistry,
+                1, 1, Duration.ofMillis(50), Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> encoder.encode("a")).isInstanceOf(ServiceOverloadedException.class);
+        release.countDown();
+    }
+
+    private void awaitQueueSize(int expected) throws InterruptedException {
+        var gauge = meterRegistry.get("auth.password.hash.queue.size").gauge();
+        for (int i = 0; i < 100 && gauge.value() < expected; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch running, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                running.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+    }
+}
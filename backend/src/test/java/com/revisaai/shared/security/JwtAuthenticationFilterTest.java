@@ -0,0 +1,140 @@
+package com.revisaai.shared.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwtAuthenticationFilter")
+class JwtAuthenticationFilterTest {
+
+    private static final long EXPIRATION_MS = 900_000L;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private RevocationRepository revocationRepository;
+
+    private final JwtService jwtService = new JwtService(
+            JwtServiceTest.keyRing(new InMemorySigningKeyStore(), "ES256"), EXPIRATION_MS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenDenylist denylist;
+    private Instant now = Instant.now();
+
+    @BeforeEach
+    void setUp() {
+        var clock = new Clock() {
+            @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+            @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+            @Override public Instant instant() { return now; }
+        };
+        denylist = new TokenDenylist(revocationRepository, EXPIRATION_MS, 1_000, Duration.ofSeconds(5), clock, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("modo JWT monta o principal a partir dos claims sem consultar o banco")
+    void doFilter_modoJwt_naoConsultaBanco() throws Exception {
+        var filter = new JwtAuthenticationFilter(jwtService, userDetailsService, denylist, PrincipalSource.JWT, meterRegistry);
+
+        filter.doFilter(bearer(jwtService.generateAccessToken("user-1", "ana@test.com")),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("user-1");
+        assertThat(authentication.getPrincipal())
+                .isEqualTo(new JwtPrincipal("user-1", "ana@test.com", List.of("USER")));
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("modo DATABASE recarrega o usuário pelo UserDetailsService")
+    void doFilter_modoDatabase_carregaUsuario() throws Exception {
+        var filter = new JwtAuthenticationFilter(jwtService, userDetailsService, denylist, PrincipalSource.DATABASE, meterRegistry);
+        given(userDetailsService.loadUserByUsername("user-1"))
+                .willReturn(User.withUsername("user-1").password("").roles("USER").build());
+
+        filter.doFilter(bearer(jwtService.generateAccessToken("user-1", "ana@test.com")),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("user-1");
+    }
+
+    @Test
+    @DisplayName("token emitido antes da revogação não autentica")
+    void doFilter_tokenRevogado_naoAutentica() throws Exception {
+        var token = jwtService.generateAccessToken("user-1", "ana@test.com");
+        now = Instant.now().plusSeconds(2);
+        denylist.revokeUser("user-1");
+        var filter = new JwtAuthenticationFilter(jwtService, userDetailsService, denylist, PrincipalSource.JWT, meterRegistry);
+
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("token revogado pelo jti não autentica; outro token do mesmo usuário continua valendo")
+    void doFilter_jtiRevogado_naoAutentica() throws Exception {
+        var revoked = jwtService.generateAccessToken("user-1", "ana@test.com", "family-1");
+        var other = jwtService.generateAccessToken("user-1", "ana@test.com", "family-2");
+        denylist.revokeToken(jwtService.validate(revoked).orElseThrow());
+        var filter = new JwtAuthenticationFilter(jwtService, userDetailsService, denylist, PrincipalSource.JWT, meterRegistry);
+
+        filter.doFilter(bearer(revoked), new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+
+        var request = bearer(other);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("user-1");
+        assertThat(request.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE))
+                .isInstanceOfSatisfying(JwtClaims.class, c -> assertThat(c.sessionId()).isEqualTo("family-2"));
+        assertThat(meterRegistry.get("security.jwt.filter.duration").tag("outcome", "revoked").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("security.jwt.filter.duration").tag("outcome", "authenticated").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("denylist descarta revogações mais antigas que a validade do token")
+    void revokeUser_descartaEntradasExpiradas() {
+        denylist.revokeUser("user-1");
+        now = now.plusMillis(EXPIRATION_MS + 1_000);
+
+        denylist.revokeUser("user-2");
+
+        assertThat(denylist.size()).isEqualTo(1);
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        var request = new MockHttpServletRequest("GET", "/questions");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,153 @@
+package com.revisaai.shared.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("JwtKeyRing")
+class JwtKeyRingTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci1yZXZpc2EtYWktdGVzdGluZy1vbmx5IQ==";
+    private static final Duration ROTATION = Duration.ofDays(7);
+    private static final Duration PUBLISH_AHEAD = Duration.ofMinutes(10);
+    private static final Duration TOKEN_LIFETIME = Duration.ofMinutes(15);
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private InMemorySigningKeyStore store;
+    private JwtKeyRing keyRing;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemorySigningKeyStore();
+        keyRing = keyRing(store, SECRET);
+    }
+
+    @Test
+    @DisplayName("primeira assinatura cria uma chave ativa e a publica no JWKS sem a parte privada")
+    void signingKey_semChaves_criaChaveAtiva() throws Exception {
+        var active = keyRing.signingKey();
+
+        assertThat(store.findUnexpired(now)).hasSize(1);
+        assertThat(keyRing.verificationKey(active.kid())).isNotNull();
+        var json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(keyRing.jwks()));
+        var jwk = json.get("keys").get(0);
+        assertThat(jwk.get("kid").asText()).isEqualTo(active.kid());
+        assertThat(jwk.get("kty").asText()).isEqualTo("EC");
+        assertThat(jwk.get("alg").asText()).isEqualTo("ES256");
+        assertThat(jwk.has("x") && jwk.has("y")).isTrue();
+        assertThat(jwk.has("d")).isFalse();
+    }
+
+    @Test
+    @DisplayName("sucessora é publicada antes de assinar e a antecessora segue validando até expirar")
+    void refresh_perioDeRotacao_publicaSucessoraAntes() {
+        var first = keyRing.signingKey();
+
+        now = now.plus(ROTATION).minus(PUBLISH_AHEAD);
+        keyRing.refresh();
+        assertThat(kids(keyRing.jwks())).hasSize(2);
+        assertThat(keyRing.signingKey().kid()).isEqualTo(first.kid());
+
+        now = now.plus(PUBLISH_AHEAD);
+        var second = keyRing.signingKey();
+        assertThat(second.kid()).isNotEqualTo(first.kid());
+        assertThat(keyRing.verificationKey(first.kid())).isNotNull();
+
+        now = now.plus(PUBLISH_AHEAD).plus(TOKEN_LIFETIME).plusSeconds(1);
+        keyRing.refresh();
+        assertThat(keyRing.verificationKey(first.kid())).isNull();
+        assertThat(keyRing.verificationKey(second.kid())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("nós que compartilham o store assinam com a mesma chave depois de recarregar")
+    void refresh_doisNos_convergemParaMesmaChave() {
+        var other = keyRing(store, SECRET);
+        var first = keyRing.signingKey();
+
+        now = now.plus(ROTATION).minus(PUBLISH_AHEAD);
+        keyRing.refresh();
+        other.refresh();
+        now = now.plus(PUBLISH_AHEAD);
+
+        assertThat(store.findUnexpired(now)).hasSize(2);
+        assertThat(other.signingKey().kid()).isEqualTo(keyRing.signingKey().kid()).isNotEqualTo(first.kid());
+    }
+
+    @Test
+    @DisplayName("dois nós rotacionando ao mesmo tempo gravam uma só sucessora")
+    void refresh_doisNosSimultaneos_gravamUmaSucessora() {
+        var first = keyRing.signingKey();
+        now = now.plus(ROTATION).minus(PUBLISH_AHEAD);
+        var stale = store.findUnexpired(now);
+        // o outro nó leu as chaves antes de a sucessora deste ser gravada
+        var racing = new SigningKeyStore() {
+            private boolean read;
+
+            @Override
+            public List<SigningKey> findUnexpired(Instant at) {
+                if (read) return store.findUnexpired(at);
+                read = true;
+                return stale;
+            }
+
+            @Override
+            public boolean insertIfAbsent(SigningKey key) {
+                return store.insertIfAbsent(key);
+            }
+        };
+        var other = keyRing(racing, SECRET);
+
+        keyRing.refresh();
+        other.refresh();
+        now = now.plus(PUBLISH_AHEAD);
+
+        assertThat(store.findUnexpired(now)).hasSize(2);
+        assertThat(other.signingKey().kid()).isEqualTo(keyRing.signingKey().kid()).isNotEqualTo(first.kid());
+    }
+
+    @Test
+    @DisplayName("chave cifrada com outro segredo é ignorada")
+    void refresh_segredoDiferente_ignoraChave() {
+        var kid = keyRing.signingKey().kid();
+
+        var other = keyRing(store, "outro-segredo");
+        other.refresh();
+
+        assertThat(other.verificationKey(kid)).isNull();
+        assertThat(other.verificationKey(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("publish-ahead menor ou igual ao intervalo de recarga é rejeitado")
+    void construtor_publishAheadCurto_lancaExcecao() {
+        assertThatThrownBy(() -> new JwtKeyRing(store, "ES256", ROTATION, Duration.ofMinutes(1),
+                Duration.ofMinutes(1), TOKEN_LIFETIME, SECRET, Clock.systemUTC(), false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private JwtKeyRing keyRing(SigningKeyStore store, String secret) {
+        var clock = new Clock() {
+            @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+            @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+            @Override public Instant instant() { return now; }
+        };
+        return new JwtKeyRing(store, "ES256", ROTATION, PUBLISH_AHEAD, Duration.ofMinutes(1),
+                TOKEN_LIFETIME, secret, clock, false);
+    }
+
+    private static List<?> kids(Map<String, Object> jwks) {
+        return (List<?>) jwks.get("keys");
+    }
+}
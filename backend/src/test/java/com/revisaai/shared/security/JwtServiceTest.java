@@ -1,11 +1,27 @@
 package com.revisaai.shared.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("JwtService")
@@ -16,11 +32,18 @@ class JwtServiceTest {
             "dGVzdC1zZWNyZXQta2V5LWZvci1yZXZpc2EtYWktdGVzdGluZy1vbmx5IQ==";
     private static final long EXPIRATION_MS = 900_000L;
 
+    private SigningKeyStore store;
     private JwtService jwtService;
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService(TEST_SECRET, EXPIRATION_MS);
+        store = new InMemorySigningKeyStore();
+        jwtService = new JwtService(keyRing(store, "ES256"), EXPIRATION_MS);
+    }
+
+    static JwtKeyRing keyRing(SigningKeyStore store, String algorithm) {
+        return new JwtKeyRing(store, algorithm, Duration.ofDays(7), Duration.ofMinutes(10),
+                Duration.ofMinutes(1), Duration.ofMillis(EXPIRATION_MS), TEST_SECRET, Clock.systemUTC(), false);
     }
 
     @Test
@@ -60,7 +83,7 @@ class JwtServiceTest {
     @Test
     @DisplayName("token expirado deve lançar JwtException ao extrair claims")
     void expiredToken_throwsJwtException() {
-        JwtService shortLivedService = new JwtService(TEST_SECRET, 1L); // 1ms
+        JwtService shortLivedService = new JwtService(keyRing(store, "ES256"), 1L); // 1ms
         String token = shortLivedService.generateAccessToken("user-123", "user@test.com");
 
         // aguarda expiração
@@ -69,4 +92,76 @@ class JwtServiceTest {
         assertThatThrownBy(() -> shortLivedService.extractUserId(token))
                 .isInstanceOf(JwtException.class);
     }
+
+    @Test
+    @DisplayName("validate deve retornar claims tipados de um token válido")
+    void validate_withFreshToken_returnsTypedClaims() {
+        String token = jwtService.generateAccessToken("user-123", "user@test.com");
+
+        var claims = jwtService.validate(token);
+
+        assertThat(claims).hasValueSatisfying(c -> {
+            assertThat(c.userId()).isEqualTo("user-123");
+            assertThat(c.email()).isEqualTo("user@test.com");
+            assertThat(c.expiresAt()).isAfter(c.issuedAt());
+        });
+    }
+
+    @Test
+    @DisplayName("validate deve retornar vazio para token adulterado ou malformado")
+    void validate_withInvalidToken_returnsEmpty() {
+        String token = jwtService.generateAccessToken("user-123", "user@test.com");
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1) + "invalidsignature";
+
+        assertThat(jwtService.validate(tampered)).isEmpty();
+        assertThat(jwtService.validate("nao-e-um-jwt")).isEmpty();
+        assertThat(jwtService.validate("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("token assinado com ES256 leva o kid da chave ativa no header")
+    void generateAccessToken_assinaComEs256EKid() throws Exception {
+        String token = jwtService.generateAccessToken("user-123", "user@test.com");
+
+        var header = new ObjectMapper().readTree(Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+        assertThat(header.get("alg").asText()).isEqualTo("ES256");
+        assertThat(store.findUnexpired(Instant.now()))
+                .extracting(SigningKey::getKid)
+                .containsExactly(header.get("kid").asText());
+    }
+
+    @Test
+    @DisplayName("validate aceita token assinado por outro nó que compartilha o store de chaves")
+    void validate_tokenDeOutroNo_aceito() {
+        var otherNode = new JwtService(keyRing(store, "ES256"), EXPIRATION_MS);
+        String token = jwtService.generateAccessToken("user-123", "user@test.com");
+
+        assertThat(otherNode.validate(token)).hasValueSatisfying(c -> assertThat(c.userId()).isEqualTo("user-123"));
+    }
+
+    @Test
+    @DisplayName("EdDSA assina e valida com Ed25519")
+    void validate_comEdDsa_retornaClaims() {
+        var eddsa = new JwtService(keyRing(new InMemorySigningKeyStore(), "EdDSA"), EXPIRATION_MS);
+
+        String token = eddsa.generateAccessToken("user-123", "user@test.com");
+
+        assertThat(eddsa.validate(token)).isPresent();
+    }
+
+    @Test
+    @DisplayName("validate rejeita token HMAC assinado com o segredo antigo, com ou sem kid")
+    void validate_tokenHmac_rejeitado() {
+        jwtService.generateAccessToken("user-123", "user@test.com");
+        var kid = store.findUnexpired(Instant.now()).get(0).getKid();
+        var hmac = Keys.hmacShaKeyFor(Decoders.BASE64.decode(TEST_SECRET));
+        var expiration = new Date(System.currentTimeMillis() + EXPIRATION_MS);
+
+        String legacy = Jwts.builder().subject("user-123").expiration(expiration).signWith(hmac).compact();
+        String withKid = Jwts.builder().header().keyId(kid).and()
+                .subject("user-123").expiration(expiration).signWith(hmac).compact();
+
+        assertThat(jwtService.validate(legacy)).isEmpty();
+        assertThat(jwtService.validate(withKid)).isEmpty();
+    }
 }
@@ -0,0 +1,119 @@
+package com.revisaai.shared.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitFilter")
+class RateLimitFilterTest {
+
+    private static final String LOGIN_BODY = "{\"email\":\"ana@test.com\",\"password\":\"segredo123\"}";
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new ObjectMapper().findAndRegisterModules(), true, 1_024, "3/1m", "2/1m", "10/1m", "5/1h", "30/1m");
+
+    @Test
+    @DisplayName("acima do limite por IP responde 429 com Retry-After")
+    void doFilter_limitePorIp_responde429ComRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(login("{\"email\":\"user" + i + "@test.com\"}").getStatus()).isEqualTo(200);
+        }
+
+        var response = login("{\"email\":\"outro@test.com\"}");
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        assertThat(response.getContentAsString()).contains("Muitas tentativas");
+    }
+
+    @Test
+    @DisplayName("e-mail é normalizado antes de virar chave do limite")
+    void doFilter_emailComCaixaEEspacos_contaNaMesmaChave() throws Exception {
+        assertThat(login("{\"email\":\"ana@test.com\"}", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(login("{\"email\":\"  ANA@Test.com \"}", "10.0.0.2").getStatus()).isEqualTo(200);
+
+        var response = login("{\"email\":\"Ana@TEST.COM\"}", "10.0.0.3");
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("corpo acima de MAX_BODY_BYTES responde 413 sem chegar ao controller")
+    void doFilter_corpoGrande_responde413() throws Exception {
+        var body = "{\"email\":\"ana@test.com\",\"password\":\"" + "x".repeat(RateLimitFilter.MAX_BODY_BYTES) + "\"}";
+        var chain = new MockFilterChain();
+
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request("/auth/login", body, "10.0.0.1"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("o corpo lido pelo filtro chega intacto ao controller, inclusive por ReadListener")
+    void doFilter_corpoRepassado_chegaIntacto() throws Exception {
+        var read = new AtomicReference<String>();
+        var viaListener = new ByteArrayOutputStream();
+        var finished = new AtomicReference<Boolean>(false);
+
+        filter.doFilter(request("/auth/login", LOGIN_BODY, "10.0.0.1"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    read.set(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+                    var in = request.getInputStream();
+                    in.setReadListener(new ReadListener() {
+                        @Override
+                        public void onDataAvailable() throws IOException {
+                            int b;
+                            while (in.isReady() && (b = in.read()) != -1) viaListener.write(b);
+                        }
+
+                        @Override
+                        public void onAllDataRead() {
+                            finished.set(in.isFinished());
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            throw new AssertionError(t);
+                        }
+                    });
+                    assertThat(request.getContentLength()).isEqualTo(LOGIN_BODY.getBytes(StandardCharsets.UTF_8).length);
+                });
+
+        assertThat(read.get()).isEqualTo(LOGIN_BODY);
+        assertThat(viaListener.toString(StandardCharsets.UTF_8)).isEqualTo(LOGIN_BODY);
+        assertThat(finished.get()).isTrue();
+    }
+
+    private MockHttpServletResponse login(String body) throws Exception {
+        return login(body, "10.0.0.1");
+    }
+
+    private MockHttpServletResponse login(String body, String ip) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request("/auth/login", body, ip), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String body, String ip) {
+        var request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,96 @@
+package com.revisaai.shared.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TokenBucketLimiter")
+class TokenBucketLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("aceita a rajada configurada e recusa a seguinte com o tempo de espera")
+    void tryAcquire_rajadaEsgotada_recusaComEspera() {
+        var limiter = new TokenBucketLimiter(RateLimitRule.parse("5/1m"), 1024, nanos::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("ana@test.com")).isZero();
+        }
+        long wait = limiter.tryAcquire("ana@test.com");
+
+        assertThat(wait).isEqualTo(Duration.ofSeconds(12).toNanos());
+    }
+
+    @Test
+    @DisplayName("repõe uma permissão por intervalo decorrido")
+    void tryAcquire_aposIntervalo_aceitaNovamente() {
+        var limiter = new TokenBucketLimiter(RateLimitRule.parse("5/1m"), 1024, nanos::get);
+        for (int i = 0; i < 5; i++) limiter.tryAcquire("ana@test.com");
+
+        nanos.addAndGet(Duration.ofSeconds(12).toNanos());
+
+        assertThat(limiter.tryAcquire("ana@test.com")).isZero();
+        assertThat(limiter.tryAcquire("ana@test.com")).isPositive();
+    }
+
+    @Test
+    @DisplayName("chaves diferentes têm buckets independentes")
+    void tryAcquire_chavesDiferentes_naoInterferem() {
+        var limiter = new TokenBucketLimiter(RateLimitRule.parse("2/1m"), 1024, nanos::get);
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.1");
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+        assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+    }
+
+    @Test
+    @DisplayName("memória fica fixa no tamanho da tabela, arredondado para potência de dois")
+    void footprint_independeDoNumeroDeChaves() {
+        var limiter = new TokenBucketLimiter(RateLimitRule.parse("5/1m"), 1000, nanos::get);
+        for (int i = 0; i < 100_000; i++) limiter.tryAcquire("10.0." + (i >> 8) + "." + (i & 0xFF));
+
+        assertThat(limiter.footprintBytes()).isEqualTo(2L * 1024 * Long.BYTES);
+    }
+
+    @Test
+    @DisplayName("sob concorrência nunca aceita mais que a rajada")
+    void tryAcquire_concorrente_respeitaLimite() throws Exception {
+        var limiter = new TokenBucketLimiter(RateLimitRule.parse("50/1h"), 1024, nanos::get);
+        var accepted = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire("ana@test.com") == 0) accepted.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(accepted.get()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("regra em formato inválido é rejeitada")
+    void parse_formatoInvalido_lancaExcecao() {
+        assertThatThrownBy(() -> RateLimitRule.parse("5")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitRule.parse("0/1m")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
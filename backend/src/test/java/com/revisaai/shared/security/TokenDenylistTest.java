@@ -0,0 +1,124 @@
+package com.revisaai.shared.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenDenylist")
+class TokenDenylistTest {
+
+    private static final long EXPIRATION_MS = 900_000L;
+
+    @Mock
+    private RevocationRepository repository;
+
+    private Instant now = Instant.parse("2026-01-01T12:00:00Z");
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        var clock = new Clock() {
+            @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+            @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+            @Override public Instant instant() { return now; }
+        };
+        denylist = new TokenDenylist(repository, EXPIRATION_MS, 1_000, Duration.ofSeconds(5), clock, false);
+    }
+
+    @Test
+    @DisplayName("revokeToken aplica na hora e persiste a revogação até a expiração do token")
+    void revokeToken_aplicaLocalmenteEPersiste() {
+        var claims = claims("user-1", "jti-1", now.plusSeconds(600));
+
+        denylist.revokeToken(claims);
+
+        assertThat(denylist.isRevoked(claims)).isTrue();
+        assertThat(denylist.isRevoked(claims("user-1", "jti-2", now.plusSeconds(600)))).isFalse();
+        verify(repository).insert(any(Revocation.class));
+    }
+
+    @Test
+    @DisplayName("revokeSession invalida os tokens da sessão pelo sid, inclusive os recebidos via poll")
+    void revokeSession_invalidaTokensDaSessao() {
+        denylist.revokeSession("user-1", "family-1");
+
+        assertThat(denylist.isRevoked(new JwtClaims("user-1", "a@test.com", List.of("USER"),
+                now.minusSeconds(60), now.plusSeconds(600), "jti-1", "family-1"))).isTrue();
+        assertThat(denylist.isRevoked(new JwtClaims("user-1", "a@test.com", List.of("USER"),
+                now.minusSeconds(60), now.plusSeconds(600), "jti-2", "family-2"))).isFalse();
+
+        var other = new TokenDenylist(repository, EXPIRATION_MS, 1_000, Duration.ofSeconds(5),
+                Clock.fixed(now, ZoneOffset.UTC), false);
+        given(repository.findByRevokedAtGreaterThanEqual(any())).willReturn(List.of(
+                new Revocation(null, "family-2", "user-1", now.minusSeconds(1), now.plusSeconds(899))));
+        other.poll();
+        assertThat(other.isRevoked(new JwtClaims("user-1", "a@test.com", List.of("USER"),
+                now.minusSeconds(60), now.plusSeconds(600), "jti-2", "family-2"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("poll aplica revogações gravadas por outros nós e ignora as já expiradas")
+    void poll_aplicaRevogacoesDeOutrosNos() {
+        given(repository.findByRevokedAtGreaterThanEqual(now.minusMillis(EXPIRATION_MS))).willReturn(List.of(
+                new Revocation("jti-1", "user-1", now.minusSeconds(10), now.plusSeconds(600)),
+                new Revocation("jti-old", "user-1", now.minusSeconds(900), now.minusSeconds(1)),
+                new Revocation(null, "user-2", now.minusSeconds(5), now.plusSeconds(895))));
+
+        denylist.poll();
+
+        assertThat(denylist.isRevoked(claims("user-1", "jti-1", now.plusSeconds(600)))).isTrue();
+        assertThat(denylist.isRevoked(claims("user-1", "jti-old", now.plusSeconds(600)))).isFalse();
+        assertThat(denylist.isRevoked(new JwtClaims("user-2", "b@test.com", List.of("USER"),
+                now.minusSeconds(60), now.plusSeconds(840), "jti-3", null))).isTrue();
+        assertThat(denylist.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("poll seguinte busca só a partir da última consulta, com sobreposição")
+    void poll_incremental() {
+        given(repository.findByRevokedAtGreaterThanEqual(any())).willReturn(List.of());
+        denylist.poll();
+        var first = now;
+        now = now.plusSeconds(5);
+
+        denylist.poll();
+
+        verify(repository).findByRevokedAtGreaterThanEqual(first.minusSeconds(30));
+    }
+
+    @Test
+    @DisplayName("entradas expiradas saem do conjunto e o filtro reconstruído mantém as demais")
+    void poll_expiradas_reconstroiFiltro() {
+        given(repository.findByRevokedAtGreaterThanEqual(any())).willReturn(List.of());
+        var shortLived = claims("user-1", "jti-1", now.plusSeconds(60));
+        var longLived = claims("user-1", "jti-2", now.plusSeconds(600));
+        denylist.revokeToken(shortLived);
+        denylist.revokeToken(longLived);
+
+        now = now.plusSeconds(61);
+        denylist.poll();
+
+        assertThat(denylist.size()).isEqualTo(1);
+        assertThat(denylist.isRevoked(longLived)).isTrue();
+        assertThat(denylist.isRevoked(shortLived)).isFalse();
+    }
+
+    private JwtClaims claims(String userId, String tokenId, Instant expiresAt) {
+        return new JwtClaims(userId, "a@test.com", List.of("USER"), now.minusSeconds(60), expiresAt, tokenId, null);
+    }
+}
@@ -0,0 +1,113 @@
+package com.revisaai.shared.security;
+
+import com.revisaai.user.AuthProvider;
+import com.revisaai.user.User;
+import com.revisaai.user.UserChangedEvent;
+import com.revisaai.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDetailsServiceImpl")
+class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserDetailsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new UserDetailsServiceImpl(userRepository, meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("segunda carga do mesmo usuário é servida do cache")
+    void loadUserByUsername_repetido_consultaBancoUmaVez() {
+        given(userRepository.findById("user-1")).willReturn(Optional.of(user("user-1")));
+
+        service.loadUserByUsername("user-1");
+        var details = service.loadUserByUsername("user-1");
+
+        assertThat(details.getUsername()).isEqualTo("user-1");
+        verify(userRepository, times(1)).findById("user-1");
+        assertThat(meterRegistry.get("security.principal.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("UserChangedEvent remove a entrada e força nova consulta")
+    void onUserChanged_removeEntrada() {
+        given(userRepository.findById("user-1")).willReturn(Optional.of(user("user-1")));
+
+        service.loadUserByUsername("user-1");
+        service.onUserChanged(new UserChangedEvent("user-1"));
+        service.loadUserByUsername("user-1");
+
+        verify(userRepository, times(2)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("cargas concorrentes do mesmo usuário viram uma única consulta")
+    void loadUserByUsername_concorrente_consultaUmaVez() throws Exception {
+        var release = new CountDownLatch(1);
+        given(userRepository.findById("user-1")).willAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(user("user-1"));
+        });
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            var started = new CountDownLatch(8);
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> {
+                    started.countDown();
+                    return service.loadUserByUsername("user-1");
+                });
+            }
+            started.await(5, TimeUnit.SECONDS);
+            Thread.sleep(50);
+            release.countDown();
+        }
+
+        verify(userRepository, times(1)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("usuário inexistente lança UsernameNotFoundException e não fica em cache")
+    void loadUserByUsername_inexistente_naoCacheia() {
+        given(userRepository.findById("nao-existe")).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.loadUserByUsername("nao-existe"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> service.loadUserByUsername("nao-existe"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        verify(userRepository, times(2)).findById("nao-existe");
+    }
+
+    private static User user(String id) {
+        var user = new User("ana@test.com", "$2a$hash", "Ana", AuthProvider.EMAIL);
+        ReflectionTestUtils.setField(user, "id", id);
+        return user;
+    }
+}